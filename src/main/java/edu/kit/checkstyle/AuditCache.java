@@ -0,0 +1,308 @@
+package edu.kit.checkstyle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+
+import edu.kit.checkstyle.checks.metrics.Metrics;
+
+
+/**
+ * Persistent store of the messages reported for files, so that files whose
+ * content did not change between two runs are not checked again.
+ * <p>
+ * Every entry is a file in the cache directory. Its name is the hash of the
+ * content of the checked file, of the configuration, including all check
+ * properties, and of the {@link CheckInputs} like dictionaries, and whether
+ * metric values were recorded typed. Whenever the classes of the checks or
+ * of Checkstyle change, all entries are dropped. Once the entries outgrow the
+ * size limit, the least recently used ones are deleted until they take a
+ * tenth less, so that a long running server does not fill the disk and does
+ * not delete entries on every write. Closing the cache trims it to its limit.
+ * <p>
+ * The {@link AuditScope.CrossFile} checks are never cached, as their
+ * messages depend on the other files of an audit.
+ */
+public class AuditCache {
+
+  private static final String VERSION_FILENAME = "cache.version";
+
+  private static final String ENTRY_SUFFIX = ".audit";
+
+  private static final String TYPED_METRICS_SUFFIX = "-typed";
+
+  private static final HashFunction HASH = Hashing.sha1();
+
+  private final File directory;
+  private final long maxSize;
+  private final HashCode configHash;
+  private final AtomicLong size = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /** See {@link #buildVersion()}, computed once as loaded classes do not change. */
+  private static volatile String buildVersion;
+
+  /**
+   * Opens a cache directory, creating it if necessary.
+   *
+   * @param directory
+   *        the directory of the cache
+   * @param maxSize
+   *        the maximal size of all entries in bytes
+   * @param config
+   *        the configuration of the checks the messages are reported by
+   */
+  public AuditCache(final File directory, final long maxSize, final Configuration config)
+      throws IOException, CheckstyleException {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.configHash = hashConfiguration(HASH.newHasher(), config).hash();
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Unable to create cache directory " + directory);
+    }
+
+    final File versionFile = new File(directory, VERSION_FILENAME);
+    final String version = buildVersion();
+    if (!versionFile.isFile() || !version.equals(Files.toString(versionFile, Charsets.UTF_8))) {
+      for (final File entry : entries()) {
+        entry.delete();
+      }
+      Files.write(version, versionFile, Charsets.UTF_8);
+    }
+
+    for (final File entry : entries()) {
+      size.addAndGet(entry.length());
+    }
+  }
+
+  /**
+   * Computes the key of a file from its content and the current inputs of
+   * the checks.
+   *
+   * @param typedMetrics
+   *        whether the metric values are recorded typed instead of as messages
+   * @return the key or {@code null} if the file cannot be read
+   */
+  String key(final File file, final boolean typedMetrics) {
+    try {
+      return Hashing.combineOrdered(Arrays.asList(Files.hash(file, HASH), configHash, CheckInputs.hash()))
+          .toString()
+          + (typedMetrics ? TYPED_METRICS_SUFFIX : "");
+    } catch (final IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Looks up the messages of a file.
+   *
+   * @param key
+   *        the key computed by {@link #key(File, boolean)}
+   * @param fileName
+   *        the name the messages should be reported for
+   * @return the cached file or {@code null} on a cache miss
+   */
+  FileAudit get(final String key, final String fileName) {
+    final File entry = new File(directory, key + ENTRY_SUFFIX);
+    if (entry.isFile()) {
+      try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+        @SuppressWarnings("unchecked")
+        final SortedSet<LocalizedMessage> messages = (SortedSet<LocalizedMessage>) in.readObject();
+        final int[] metrics = readMetrics(in);
+        entry.setLastModified(System.currentTimeMillis());
+        hits.incrementAndGet();
+        return new FileAudit(fileName, messages, metrics);
+      } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+        // a broken entry is treated as a miss and overwritten afterwards
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Stores the messages of a file. Entries are written to a temporary file
+   * first, so that concurrent readers never see partial entries.
+   */
+  void put(final String key, final FileAudit audit) {
+    final File entry = new File(directory, key + ENTRY_SUFFIX);
+    try {
+      final File tmp = File.createTempFile(key, ".tmp", directory);
+      try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+        out.writeObject(audit.messages);
+        writeMetrics(out, audit.metrics);
+      }
+      final long length = tmp.length();
+      final long replaced = entry.length();
+      if (tmp.renameTo(entry)) {
+        size.addAndGet(length - replaced);
+      } else {
+        tmp.delete();
+      }
+    } catch (final IOException e) {
+      // the cache is an optimization only, checking goes on without it
+    }
+    if (size.get() > maxSize) {
+      evict(maxSize - maxSize / 10);
+    }
+  }
+
+  /**
+   * Deletes the least recently used entries until the cache fits into its
+   * size limit.
+   */
+  public void close() {
+    evict(maxSize);
+  }
+
+  /**
+   * Deletes the least recently used entries until the entries take at most
+   * the given number of bytes.
+   */
+  private synchronized void evict(final long targetSize) {
+    if (size.get() <= targetSize) {
+      return;
+    }
+    final File[] entries = entries();
+    Arrays.sort(entries, new Comparator<File>() {
+      @Override
+      public int compare(final File f1, final File f2) {
+        return Long.compare(f1.lastModified(), f2.lastModified());
+      }
+    });
+    for (int i = 0; i < entries.length && size.get() > targetSize; ++i) {
+      final long length = entries[i].length();
+      if (entries[i].delete()) {
+        size.addAndGet(-length);
+      }
+    }
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Writes the typed metric values with the names of the metrics, as their
+   * ids are only valid within one JVM.
+   */
+  private static void writeMetrics(final ObjectOutputStream out, final int[] metrics)
+      throws IOException {
+    out.writeInt(metrics.length);
+    for (int i = 0; i < metrics.length; i += 3) {
+      out.writeUTF(Metrics.name(metrics[i]));
+      out.writeInt(metrics[i + 1]);
+      out.writeInt(metrics[i + 2]);
+    }
+  }
+
+  private static int[] readMetrics(final ObjectInputStream in) throws IOException {
+    final int[] metrics = new int[in.readInt()];
+    for (int i = 0; i < metrics.length; i += 3) {
+      metrics[i] = Metrics.id(in.readUTF());
+      metrics[i + 1] = in.readInt();
+      metrics[i + 2] = in.readInt();
+    }
+    return metrics;
+  }
+
+  private File[] entries() {
+    final File[] entries = directory.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(final File file) {
+        return file.getName().endsWith(ENTRY_SUFFIX);
+      }
+    });
+    return entries == null ? new File[0] : entries;
+  }
+
+  /**
+   * Identifies the jars or class directories of the checks and of
+   * Checkstyle by their content.
+   */
+  private static String buildVersion() throws IOException {
+    String version = buildVersion;
+    if (version == null) {
+      final Hasher hasher = HASH.newHasher();
+      for (final Class<?> clazz : new Class<?>[] { AuditCache.class, Checker.class }) {
+        final CodeSource source = clazz.getProtectionDomain().getCodeSource();
+        if (source != null) {
+          hashLocation(hasher, new File(source.getLocation().getPath()));
+        }
+      }
+      version = hasher.hash().toString();
+      buildVersion = version;
+    }
+    return version;
+  }
+
+  /**
+   * Hashes a jar, or the names and contents of all files below a class
+   * directory. A recompile may keep the size and modification time of the
+   * directory, so they do not tell whether the classes changed.
+   */
+  static Hasher hashLocation(final Hasher hasher, final File location) throws IOException {
+    if (location.isDirectory()) {
+      final File[] children = location.listFiles();
+      if (children != null) {
+        Arrays.sort(children);
+        for (final File child : children) {
+          hasher.putString(child.getName(), Charsets.UTF_8).putChar('(');
+          hashLocation(hasher, child).putChar(')');
+        }
+      }
+    } else if (location.isFile()) {
+      Files.asByteSource(location).copyTo(Funnels.asOutputStream(hasher));
+    }
+    return hasher;
+  }
+
+  private static Hasher hashConfiguration(final Hasher hasher, final Configuration config)
+      throws CheckstyleException {
+    hasher.putString(config.getName(), Charsets.UTF_8).putChar('(');
+    final String[] names = config.getAttributeNames();
+    Arrays.sort(names);
+    for (final String name : names) {
+      hasher.putString(name, Charsets.UTF_8).putChar('=')
+          .putString(config.getAttribute(name), Charsets.UTF_8).putChar(';');
+    }
+    for (final String key : Sets.newTreeSet(config.getMessages().keySet())) {
+      hasher.putString(key, Charsets.UTF_8).putChar('=')
+          .putString(config.getMessages().get(key), Charsets.UTF_8).putChar(';');
+    }
+    for (final Configuration child : config.getChildren()) {
+      hashConfiguration(hasher, child);
+    }
+    return hasher.putChar(')');
+  }
+}
@@ -0,0 +1,839 @@
+package edu.kit.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.checks.FileContentsHolder;
+
+import edu.kit.checkstyle.checks.FileBudgetCheck;
+import edu.kit.checkstyle.checks.metrics.MetricSink;
+import edu.kit.checkstyle.checks.metrics.Metrics;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Checks files on several threads.
+ * <p>
+ * The configuration is split into its checks and its listeners. The checks
+ * are run by a resident pool of {@link Checker}s, each used by one thread
+ * of a thread pool at a time, which record the messages of every
+ * file they process. For every audit the listeners are attached to a fresh
+ * {@link DispatchingChecker} that replays the recorded files in input order,
+ * so the output is the same as with a single checker no matter how the
+ * threads interleave. The checkers stay configured between audits, which
+ * makes an executor suitable for long-running processes.
+ * <p>
+ * If a {@link AuditCache} is set, files whose content and configuration did
+ * not change since they were last checked are not parsed at all.
+ * <p>
+ * Checks that accumulate state across files (e.g. the literal counts of
+ * {@link edu.kit.checkstyle.checks.LiteralsWithoutConstantCheck}) are
+ * marked by {@link AuditScope.CrossFile}. They are split off into a checker
+ * of their own, which sees every file of an audit in input order on a
+ * single thread and is never served from the cache. Its messages are merged
+ * with those of the other checks, so these checks report the same as with a
+ * single checker. They are told about a new audit by {@link AuditScope}.
+ * <p>
+ * A file abandoned by the {@link FileBudgetCheck} is only reported with the
+ * reason. As a check cannot interrupt the others, the executor also gives up
+ * on a file that is not checked within the time budget, e.g. because a
+ * single token keeps a check busy, and goes on with the next files. The
+ * budget of a file starts when it is submitted, or when the file before it
+ * was reported if that is later, so that files waiting for their turn are not
+ * given up. The cross-file checks of a file have the budget from when they
+ * start, after those of the files before. A thread that still checks a given up file is replaced by an
+ * additional one until it is done, so the other files keep moving even with
+ * a single thread. The same holds for the cross-file checks, which go on
+ * with a fresh checker, and for {@link #processSerially}, which then checks
+ * every file on a thread of its own.
+ */
+public class AuditExecutor {
+
+  /** The number of files per thread that may be checked ahead of the listeners. */
+  private static final int PENDING_PER_THREAD = 64;
+
+  /** The checks of single files. */
+  private final Configuration checkConfig;
+  /** The {@link AuditScope.CrossFile} checks, {@code null} if there are none. */
+  private final Configuration crossFileConfig;
+  private final Configuration listenerConfig;
+  private final Configuration rootConfig;
+  private final ThreadPoolExecutor pool;
+  /** The thread that runs the cross-file checks in input order. */
+  private final ThreadPoolExecutor lane;
+  /** The threads of {@link #processSerially} if files can be given up, else {@code null}. */
+  private final ExecutorService spare;
+  /** The time after which a file is given up in nanoseconds, 0 to wait forever. */
+  private final long giveUpNanos;
+  /** The message of a file that was given up. */
+  private final LocalizedMessage givenUp;
+  private final int threads;
+  private final List<AuditListener> listeners = mkList();
+  private AuditCache cache;
+
+  /** All checkers ever created, the idle ones are also in {@link #idle}. */
+  private final List<Worker> workers = Collections.synchronizedList(Lists.<Worker>newArrayList());
+  private final Queue<Worker> idle = new ConcurrentLinkedQueue<Worker>();
+  private final Queue<Worker> idleCrossFile = new ConcurrentLinkedQueue<Worker>();
+
+  /**
+   * @param config
+   *        the configuration of the checker, including its listeners
+   * @param threads
+   *        the number of worker threads
+   */
+  public AuditExecutor(final Configuration config, final int threads) throws CheckstyleException {
+    final Configuration checks = filterChildren(config, false);
+    this.checkConfig = splitChecks(checks, false);
+    this.crossFileConfig = splitChecks(checks, true);
+    this.listenerConfig = filterChildren(config, true);
+    this.rootConfig = copyAttributes(config);
+    this.pool = newPool(threads, "checker-%d");
+    this.lane = crossFileConfig == null ? null : newPool(1, "cross-file-checker-%d");
+    final Configuration budget = findBudget(checks);
+    final long budgetMillis = budget == null || !hasAttribute(budget, "maxMillis") ? 0
+        : Long.parseLong(budget.getAttribute("maxMillis"));
+    this.giveUpNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    this.spare = budgetMillis == 0 ? null : Executors.newCachedThreadPool(daemons("serial-checker-%d"));
+    this.givenUp = budgetMillis == 0 ? null : timeExceeded(budget, budgetMillis);
+    this.threads = threads;
+    idle.add(newWorker(checkConfig));
+  }
+
+  /**
+   * Adds a listener that is notified in every audit.
+   */
+  public void addListener(final AuditListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Enables a persistent cache so that unchanged files are not checked
+   * again but their messages are replayed from the cache.
+   *
+   * @param directory
+   *        the directory of the cache
+   * @param maxSize
+   *        the maximal size of the cache in bytes
+   */
+  public void setCache(final File directory, final long maxSize) throws IOException, CheckstyleException {
+    cache = new AuditCache(directory, maxSize, checkConfig);
+  }
+
+  /**
+   * Creates a checker for every thread up front, so that the first audit
+   * does not pay for loading the checks.
+   */
+  public void warmUp() throws CheckstyleException {
+    while (idle.size() < threads) {
+      idle.add(newWorker(checkConfig));
+    }
+    if (crossFileConfig != null && idleCrossFile.isEmpty()) {
+      idleCrossFile.add(newWorker(crossFileConfig));
+    }
+  }
+
+  /**
+   * Checks all files and fires their events in the order of iteration. The
+   * files are consumed while they are checked, so the iteration may block
+   * until further files are found.
+   *
+   * @param files
+   *        the files to check
+   * @param auditListeners
+   *        listeners that are only notified in this audit
+   * @return the number of errors found
+   */
+  public int process(final Iterable<File> files, final AuditListener... auditListeners)
+      throws CheckstyleException {
+    final DispatchingChecker dispatcher = newDispatcher(true, auditListeners);
+    final long audit = AuditScope.newAudit();
+    final int maxPending = threads * PENDING_PER_THREAD;
+    final Deque<Pending> pending = new ArrayDeque<Pending>();
+    final Lane crossFileLane = crossFileConfig == null ? null : new Lane(true);
+    int errors = 0;
+    dispatcher.fireAuditStarted();
+    final boolean typedMetrics = dispatcher.hasMetricSink();
+    long dispatched = System.nanoTime();
+    try {
+      for (final File file : files) {
+        final Job perFile = new Job(audit, file, typedMetrics, null, pool);
+        perFile.submit(pool);
+        // the lane runs the jobs one after another in the order they are submitted
+        Job crossFile = null;
+        if (crossFileLane != null) {
+          crossFile = new Job(audit, file, typedMetrics, crossFileLane, lane);
+          crossFile.submit(lane);
+        }
+        pending.add(new Pending(perFile, crossFile));
+        if (pending.size() >= maxPending) {
+          errors += dispatch(dispatcher, pending.poll(), dispatched);
+          dispatched = System.nanoTime();
+        }
+      }
+      while (!pending.isEmpty()) {
+        errors += dispatch(dispatcher, pending.poll(), dispatched);
+        dispatched = System.nanoTime();
+      }
+    } finally {
+      if (crossFileLane != null) {
+        crossFileLane.close();
+      }
+    }
+    dispatcher.fireAuditFinished();
+    dispatcher.destroy();
+    return errors;
+  }
+
+  /**
+   * Checks all files on the calling thread with a single checker, so that
+   * several audits can run at the same time without sharing check state.
+   * Only the given listeners are notified, as the configured ones and the
+   * ones added to the executor are meant for one audit at a time. If files
+   * can be given up, each file is checked on a thread of its own instead, and
+   * a checker busy with a given up file is replaced.
+   *
+   * @param files
+   *        the files to check
+   * @param auditListeners
+   *        the listeners of this audit
+   * @return the number of errors found
+   */
+  public int processSerially(final Iterable<File> files, final AuditListener... auditListeners)
+      throws CheckstyleException {
+    final DispatchingChecker dispatcher = newDispatcher(false, auditListeners);
+    final long audit = AuditScope.newAudit();
+    final Lane checks = new Lane(false);
+    final Lane crossFileChecks = crossFileConfig == null ? null : new Lane(true);
+    int errors = 0;
+    try {
+      dispatcher.fireAuditStarted();
+      final boolean typedMetrics = dispatcher.hasMetricSink();
+      for (final File file : files) {
+        final FileAudit result = FileAudit.merge(
+            runSerially(new Job(audit, file, typedMetrics, checks, null)),
+            crossFileChecks == null ? null
+                : runSerially(new Job(audit, file, typedMetrics, crossFileChecks, null)));
+        if (result != null) {
+          errors += dispatcher.replay(result);
+        }
+      }
+      dispatcher.fireAuditFinished();
+    } finally {
+      checks.close();
+      if (crossFileChecks != null) {
+        crossFileChecks.close();
+      }
+    }
+    dispatcher.destroy();
+    return errors;
+  }
+
+  /**
+   * Runs a job of {@link #processSerially} on the calling thread, or on a
+   * spare thread if it can be given up.
+   */
+  private FileAudit runSerially(final Job job) throws CheckstyleException {
+    if (spare == null) {
+      return job.call();
+    }
+    job.submit(spare);
+    return await(job, job.submitted);
+  }
+
+  private DispatchingChecker newDispatcher(final boolean shared, final AuditListener... auditListeners)
+      throws CheckstyleException {
+    final DispatchingChecker dispatcher = new DispatchingChecker();
+    dispatcher.setModuleClassLoader(Checker.class.getClassLoader());
+    if (shared) {
+      dispatcher.configure(listenerConfig);
+      for (final AuditListener listener : listeners) {
+        dispatcher.addListener(listener);
+      }
+    } else {
+      dispatcher.configure(rootConfig);
+    }
+    for (final AuditListener listener : auditListeners) {
+      dispatcher.addListener(listener);
+    }
+    return dispatcher;
+  }
+
+  /**
+   * Waits until a file is checked by all checks and fires its events.
+   *
+   * @param dispatched
+   *        the time the file before was reported
+   */
+  private int dispatch(final DispatchingChecker dispatcher, final Pending task, final long dispatched) {
+    final long since = Math.max(task.perFile.submitted, dispatched);
+    final FileAudit audit = FileAudit.merge(await(task.perFile, since),
+        task.crossFile == null ? null : await(task.crossFile, since));
+    return audit == null ? 0 : dispatcher.replay(audit);
+  }
+
+  /**
+   * Waits until a job is done, but at most until its time is up. The budget
+   * of a job of a lane only starts with the job, as it waits for the jobs
+   * before it, which are given up in time themselves.
+   *
+   * @param since
+   *        the earliest time the budget of the job starts
+   * @return the recorded file or the abandoned one if its time is up
+   */
+  private FileAudit await(final Job job, final long since) {
+    try {
+      if (giveUpNanos == 0) {
+        return Uninterruptibles.getUninterruptibly(job.future);
+      }
+      while (true) {
+        final long started = job.started;
+        final boolean queued = job.lane != null && started == 0;
+        final long start = job.lane == null ? since : Math.max(since, started);
+        final long remaining = queued ? giveUpNanos : start + giveUpNanos - System.nanoTime();
+        try {
+          return Uninterruptibles.getUninterruptibly(job.future, Math.max(remaining, 0),
+              TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+          if (queued) {
+            // look again whether the job started in the meantime
+            continue;
+          }
+          if (job.abandon()) {
+            return FileAudit.abandoned(job.file.getAbsolutePath(),
+                Sets.newTreeSet(Collections.singleton(givenUp)));
+          }
+          // the job finished just in time
+          return Uninterruptibles.getUninterruptibly(job.future);
+        }
+      }
+    } catch (final ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  /**
+   * Checks a single file unless its messages are cached. The cross-file
+   * checks are never cached.
+   *
+   * @param worker
+   *        the checker to use
+   */
+  private FileAudit audit(final Job job, final Worker worker) throws CheckstyleException {
+    final boolean cacheable = cache != null && (job.lane == null || !job.lane.crossFile);
+    final String key = cacheable ? cache.key(job.file, job.typedMetrics) : null;
+    if (key != null) {
+      final FileAudit hit = cache.get(key, job.file.getAbsolutePath());
+      if (hit != null) {
+        return hit;
+      }
+    }
+
+    AuditScope.enter(job.audit);
+    final FileAudit result = worker.audit(job.file, job.typedMetrics);
+
+    // an abandoned file depends on timing, so it is checked again next time
+    if (key != null && result != null && !result.abandoned && !job.isAbandoned()) {
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Takes an idle checker or creates a new one if all are busy.
+   */
+  private Worker acquire() throws CheckstyleException {
+    final Worker worker = idle.poll();
+    return worker == null ? newWorker(checkConfig) : worker;
+  }
+
+  /**
+   * Takes an idle checker of the cross-file checks or creates a new one.
+   */
+  private Worker acquireCrossFile() throws CheckstyleException {
+    final Worker worker = idleCrossFile.poll();
+    return worker == null ? newWorker(crossFileConfig) : worker;
+  }
+
+  /**
+   * Returns a checker that is no longer used.
+   */
+  private void release(final Worker worker, final boolean crossFile) {
+    (crossFile ? idleCrossFile : idle).add(worker);
+  }
+
+  private Worker newWorker(final Configuration config) throws CheckstyleException {
+    final Worker worker = new Worker(config);
+    workers.add(worker);
+    return worker;
+  }
+
+  public void destroy() {
+    pool.shutdown();
+    if (lane != null) {
+      lane.shutdown();
+    }
+    if (spare != null) {
+      spare.shutdown();
+    }
+    if (cache != null) {
+      cache.close();
+    }
+    synchronized (workers) {
+      for (final Worker w : workers) {
+        w.checker.destroy();
+      }
+      workers.clear();
+    }
+    idle.clear();
+    idleCrossFile.clear();
+  }
+
+  /**
+   * Copies a checker configuration but only keeps either its listeners or
+   * all of its other children.
+   *
+   * @param config
+   *        the configuration of the checker
+   * @param listeners
+   *        whether to keep the listeners or everything else
+   * @return the copied configuration
+   */
+  static Configuration filterChildren(final Configuration config, final boolean listeners)
+      throws CheckstyleException {
+    final ClassLoader loader = Checker.class.getClassLoader();
+    final Set<String> packages = PackageNamesLoader.getPackageNames(loader);
+
+    final DefaultConfiguration copy = copyAttributes(config);
+    for (final Configuration child : config.getChildren()) {
+      if (isListener(child.getName(), packages, loader) == listeners) {
+        copy.addChild(child);
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * Copies a configuration of checks but only keeps either the
+   * {@link AuditScope.CrossFile} checks or all others. Filters,
+   * {@link FileContentsHolder}s and {@link FileBudgetCheck}s are kept in
+   * both.
+   *
+   * @param config
+   *        the configuration of the checker without listeners
+   * @param crossFile
+   *        whether to keep the cross-file checks or the others
+   * @return the copied configuration or {@code null} if it would not have
+   *         any cross-file checks
+   */
+  static Configuration splitChecks(final Configuration config, final boolean crossFile)
+      throws CheckstyleException {
+    final ClassLoader loader = Checker.class.getClassLoader();
+    final Set<String> packages = PackageNamesLoader.getPackageNames(loader);
+
+    int kept = 0;
+    final DefaultConfiguration copy = copyAttributes(config);
+    for (final Configuration child : config.getChildren()) {
+      final Class<?> type = moduleClass(child.getName(), packages, loader);
+      if (TreeWalker.class.isAssignableFrom(type)) {
+        final DefaultConfiguration walker = copyAttributes(child);
+        for (final Configuration check : child.getChildren()) {
+          final Class<?> checkType = moduleClass(check.getName(), packages, loader);
+          if (FileContentsHolder.class.isAssignableFrom(checkType)
+              || FileBudgetCheck.class.isAssignableFrom(checkType)) {
+            walker.addChild(check);
+          } else if (AuditScope.CrossFile.class.isAssignableFrom(checkType) == crossFile) {
+            walker.addChild(check);
+            kept += 1;
+          }
+        }
+        if (!crossFile || walker.getChildren().length > 0) {
+          copy.addChild(walker);
+        }
+      } else if (Filter.class.isAssignableFrom(type)) {
+        copy.addChild(child);
+      } else if (AuditScope.CrossFile.class.isAssignableFrom(type) == crossFile) {
+        copy.addChild(child);
+        kept += 1;
+      }
+    }
+    return crossFile && kept == 0 ? null : copy;
+  }
+
+  /**
+   * Finds the configuration of the {@link FileBudgetCheck} among the checks.
+   *
+   * @return the configuration or {@code null} if the budget is not checked
+   */
+  private static Configuration findBudget(final Configuration config) throws CheckstyleException {
+    final ClassLoader loader = Checker.class.getClassLoader();
+    final Set<String> packages = PackageNamesLoader.getPackageNames(loader);
+
+    for (final Configuration child : config.getChildren()) {
+      if (TreeWalker.class.isAssignableFrom(moduleClass(child.getName(), packages, loader))) {
+        for (final Configuration check : child.getChildren()) {
+          if (FileBudgetCheck.class.isAssignableFrom(moduleClass(check.getName(), packages, loader))) {
+            return check;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Creates the message the {@link FileBudgetCheck} would log for a file
+   * that took too long.
+   */
+  private static LocalizedMessage timeExceeded(final Configuration budget, final long budgetMillis)
+      throws CheckstyleException {
+    final SeverityLevel severity = hasAttribute(budget, "severity")
+        ? SeverityLevel.getInstance(budget.getAttribute("severity")) : SeverityLevel.ERROR;
+    final String id = hasAttribute(budget, "id") ? budget.getAttribute("id") : null;
+    return new LocalizedMessage(1, 0, FileBudgetCheck.class.getPackage().getName() + ".messages",
+        FileBudgetCheck.TIME_KEY, new Object[] { budgetMillis }, severity, id, FileBudgetCheck.class,
+        budget.getMessages().get(FileBudgetCheck.TIME_KEY));
+  }
+
+  /**
+   * Creates a pool of daemon threads, so that a thread stuck in a given up
+   * file does not keep the JVM alive.
+   */
+  private static ThreadPoolExecutor newPool(final int threads, final String nameFormat) {
+    return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(), daemons(nameFormat));
+  }
+
+  private static ThreadFactory daemons(final String nameFormat) {
+    return new ThreadFactoryBuilder().setDaemon(true).setNameFormat(nameFormat).build();
+  }
+
+  /**
+   * Adds threads to a pool or removes them again.
+   */
+  private static void resize(final ThreadPoolExecutor pool, final int delta) {
+    synchronized (pool) {
+      if (delta > 0) {
+        pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+        pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+      } else {
+        pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+        pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+      }
+    }
+  }
+
+  private static boolean hasAttribute(final Configuration config, final String name) {
+    return Arrays.asList(config.getAttributeNames()).contains(name);
+  }
+
+  /**
+   * Copies a configuration without its children.
+   */
+  private static DefaultConfiguration copyAttributes(final Configuration config)
+      throws CheckstyleException {
+    final DefaultConfiguration copy = new DefaultConfiguration(config.getName());
+    for (final String name : config.getAttributeNames()) {
+      copy.addAttribute(name, config.getAttribute(name));
+    }
+    for (final Map.Entry<String, String> message : config.getMessages().entrySet()) {
+      copy.addMessage(message.getKey(), message.getValue());
+    }
+    return copy;
+  }
+
+  /**
+   * Resolves a module name the same way Checkstyle's module factory does,
+   * but without instantiating the module.
+   */
+  private static boolean isListener(final String name, final Set<String> packages,
+      final ClassLoader loader) throws CheckstyleException {
+    return AuditListener.class.isAssignableFrom(moduleClass(name, packages, loader));
+  }
+
+  /**
+   * Resolves a module name to its class without initializing it.
+   */
+  private static Class<?> moduleClass(final String name, final Set<String> packages,
+      final ClassLoader loader) throws CheckstyleException {
+    for (final String suffix : new String[] { "", "Check" }) {
+      final List<String> candidates = Lists.newArrayList(name + suffix);
+      for (final String pkg : packages) {
+        candidates.add(pkg + name + suffix);
+      }
+      for (final String candidate : candidates) {
+        try {
+          return Class.forName(candidate, false, loader);
+        } catch (final ClassNotFoundException e) {
+          // try the next candidate
+        }
+      }
+    }
+    throw new CheckstyleException("Unable to instantiate " + name);
+  }
+
+  /**
+   * Checks a file with the checks of single files or with the cross-file
+   * checks. A job may be given up while it runs, then its thread is replaced
+   * until it is done.
+   */
+  private final class Job implements Callable<FileAudit> {
+
+    final long audit;
+    final File file;
+    final boolean typedMetrics;
+    /** The checker of the job, {@code null} to take any idle one. */
+    final Lane lane;
+    /** The pool that gets another thread while the job is given up, if any. */
+    final ThreadPoolExecutor pool;
+    final long submitted = System.nanoTime();
+    Future<FileAudit> future;
+    /** The time the job started, 0 before. */
+    volatile long started;
+
+    private boolean done;
+    private boolean abandoned;
+
+    Job(final long audit, final File file, final boolean typedMetrics, final Lane lane,
+        final ThreadPoolExecutor pool) {
+      this.audit = audit;
+      this.file = file;
+      this.typedMetrics = typedMetrics;
+      this.lane = lane;
+      this.pool = pool;
+    }
+
+    void submit(final ExecutorService executor) {
+      future = executor.submit(this);
+    }
+
+    @Override
+    public FileAudit call() throws CheckstyleException {
+      synchronized (this) {
+        if (abandoned) {
+          return null;
+        }
+        started = System.nanoTime();
+      }
+      Worker worker = null;
+      try {
+        worker = lane == null ? acquire() : lane.take();
+        return audit(this, worker);
+      } finally {
+        synchronized (this) {
+          done = true;
+          if (abandoned && pool != null) {
+            resize(pool, -1);
+          }
+        }
+        // once done, the job is not given up anymore and its lane keeps the checker
+        if (worker != null && lane != null) {
+          lane.release(worker);
+        } else if (worker != null) {
+          release(worker, false);
+        }
+      }
+    }
+
+    /**
+     * Gives up the job unless it is done. A running job keeps its checker,
+     * the following jobs of its lane take another one.
+     *
+     * @return whether the job was given up
+     */
+    synchronized boolean abandon() {
+      if (done) {
+        return false;
+      }
+      abandoned = true;
+      if (started != 0) {
+        if (lane != null) {
+          lane.replace();
+        }
+        if (pool != null) {
+          resize(pool, 1);
+        }
+      }
+      return true;
+    }
+
+    synchronized boolean isAbandoned() {
+      return abandoned;
+    }
+  }
+
+  /**
+   * A checker that checks one file after another, like the cross-file
+   * checks that must see the files in input order. If a file is given up
+   * while the checker is busy with it, the following files are checked by
+   * another checker.
+   */
+  private final class Lane {
+
+    final boolean crossFile;
+    private Worker worker;
+
+    Lane(final boolean crossFile) {
+      this.crossFile = crossFile;
+    }
+
+    synchronized Worker take() throws CheckstyleException {
+      if (worker == null) {
+        worker = crossFile ? acquireCrossFile() : acquire();
+      }
+      return worker;
+    }
+
+    /**
+     * Returns the checker of a finished job if it was replaced meanwhile.
+     */
+    synchronized void release(final Worker used) {
+      if (used != worker) {
+        AuditExecutor.this.release(used, crossFile);
+      }
+    }
+
+    synchronized void replace() {
+      worker = null;
+    }
+
+    synchronized void close() {
+      if (worker != null) {
+        AuditExecutor.this.release(worker, crossFile);
+        worker = null;
+      }
+    }
+  }
+
+  /**
+   * A file being checked by the checks of single files and by the cross-file
+   * checks.
+   */
+  private static final class Pending {
+
+    final Job perFile;
+    final Job crossFile;
+
+    Pending(final Job perFile, final Job crossFile) {
+      this.perFile = perFile;
+      this.crossFile = crossFile;
+    }
+  }
+
+  /**
+   * A checker that is used by a single thread at a time.
+   */
+  private static final class Worker {
+
+    final Checker checker;
+    final Recorder recorder = new Recorder();
+    final MetricRecord metrics = new MetricRecord();
+
+    Worker(final Configuration config) throws CheckstyleException {
+      checker = new Checker();
+      checker.setModuleClassLoader(Checker.class.getClassLoader());
+      checker.configure(config);
+      checker.addListener(recorder);
+    }
+
+    /**
+     * @return the recorded file or {@code null} if the checker skipped it
+     */
+    FileAudit audit(final File file, final boolean typedMetrics) {
+      recorder.reset();
+      metrics.reset();
+      final MetricSink previous = Metrics.sink();
+      Metrics.bind(typedMetrics ? metrics : null);
+      try {
+        checker.process(Collections.singletonList(file));
+      } finally {
+        Metrics.bind(previous);
+      }
+      if (!recorder.started) {
+        return null;
+      }
+      final SortedSet<LocalizedMessage> reasons = Sets.newTreeSet();
+      for (final LocalizedMessage message : recorder.messages) {
+        if (FileBudgetCheck.class.getName().equals(message.getSourceName())) {
+          reasons.add(message);
+        }
+      }
+      return reasons.isEmpty()
+          ? new FileAudit(file.getAbsolutePath(), recorder.messages, metrics.toArray())
+          : FileAudit.abandoned(file.getAbsolutePath(), reasons);
+    }
+  }
+
+  /**
+   * Records the messages of the single file a worker processes.
+   */
+  private static final class Recorder implements AuditListener {
+
+    boolean started;
+    SortedSet<LocalizedMessage> messages;
+
+    void reset() {
+      started = false;
+      messages = Sets.newTreeSet();
+    }
+
+    @Override
+    public void auditStarted(final AuditEvent e) {}
+
+    @Override
+    public void auditFinished(final AuditEvent e) {}
+
+    @Override
+    public void fileStarted(final AuditEvent e) {
+      started = true;
+    }
+
+    @Override
+    public void fileFinished(final AuditEvent e) {}
+
+    @Override
+    public void addError(final AuditEvent e) {
+      messages.add(e.getLocalizedMessage());
+    }
+
+    @Override
+    public void addException(final AuditEvent e, final Throwable throwable) {}
+  }
+}
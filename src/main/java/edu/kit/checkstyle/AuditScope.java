@@ -0,0 +1,58 @@
+package edu.kit.checkstyle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Identifies the audit the current thread checks files for.
+ * <p>
+ * Checkstyle gives checks no notice when an audit starts, so checks that
+ * accumulate state across files (like counting literals) cannot tell two
+ * audits of a long-lived checker apart. Such checks compare
+ * {@link #current()} with the audit their state belongs to and reset the
+ * state when it differs. Outside of an {@link AuditExecutor} the current
+ * audit never changes, so the state lives as long as the check.
+ * <p>
+ * Such checks also implement {@link CrossFile}, so that an executor
+ * gives them every file of an audit in input order.
+ */
+public final class AuditScope {
+
+  /**
+   * Marks a check whose messages depend on the files checked before, like
+   * the literal counts of
+   * {@link edu.kit.checkstyle.checks.LiteralsWithoutConstantCheck}. An
+   * {@link AuditExecutor} runs these checks on a single checker in input
+   * order and never serves their messages from its cache.
+   */
+  public interface CrossFile {}
+
+  private static final AtomicLong NEXT = new AtomicLong(1);
+
+  private static final ThreadLocal<Long> CURRENT = new ThreadLocal<Long>() {
+    @Override
+    protected Long initialValue() {
+      return 0L;
+    }
+  };
+
+  private AuditScope() {}
+
+  /**
+   * @return the identifier of the audit the current thread works for
+   */
+  public static long current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * @return an identifier that was never used before
+   */
+  static long newAudit() {
+    return NEXT.getAndIncrement();
+  }
+
+  static void enter(final long audit) {
+    CURRENT.set(audit);
+  }
+}
@@ -0,0 +1,145 @@
+package edu.kit.checkstyle;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import com.google.common.base.Charsets;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+import edu.kit.checkstyle.listeners.QualifiedListener;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Serves audits over a local socket with checkers that stay configured
+ * between requests, so a request does not pay for starting the JVM, loading
+ * the configuration and initializing the checks.
+ * <p>
+ * A client connects to the loopback interface and sends one file or
+ * directory per line. The request ends with an empty line or when the
+ * client closes its output. The server answers with the messages in the
+ * format of {@link QualifiedListener}, streamed as soon as a file is
+ * checked, and closes the connection when the audit is finished. Requests
+ * are served one after another, each of them using all worker threads. A
+ * client that does not finish its request within the request timeout is
+ * disconnected, so that it cannot block the server.
+ */
+public class AuditServer {
+
+  /** The default time a client may take to send its request in milliseconds. */
+  private static final int DEFAULT_REQUEST_TIMEOUT = 10000;
+
+  private final AuditExecutor executor;
+  private final List<String> includes = mkList();
+  private final List<String> excludes = mkList();
+  private final int discoveryCapacity;
+  private int requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+
+  /**
+   * @param executor
+   *        the executor that checks the files of all requests
+   * @param discoveryCapacity
+   *        the maximal number of found files that may wait for being checked
+   */
+  public AuditServer(final AuditExecutor executor, final int discoveryCapacity) {
+    this.executor = executor;
+    this.discoveryCapacity = discoveryCapacity;
+  }
+
+  /**
+   * @see FileDiscovery#addInclude(String)
+   */
+  public void addInclude(final String glob) {
+    includes.add(glob);
+  }
+
+  /**
+   * @see FileDiscovery#addExclude(String)
+   */
+  public void addExclude(final String glob) {
+    excludes.add(glob);
+  }
+
+  /**
+   * Sets the time a client may take to send its request.
+   *
+   * @param millis
+   *        the timeout in milliseconds, 0 waits forever
+   */
+  public void setRequestTimeout(final int millis) {
+    requestTimeout = millis;
+  }
+
+  /**
+   * Serves requests until the thread is interrupted or the socket fails.
+   *
+   * @param port
+   *        the local port to listen on
+   */
+  public void serve(final int port) throws IOException, CheckstyleException {
+    executor.warmUp();
+    try (ServerSocket server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+      while (!Thread.currentThread().isInterrupted()) {
+        try (Socket client = server.accept()) {
+          handle(client);
+        } catch (final IOException e) {
+          // the client went away, serve the next one
+        }
+      }
+    }
+  }
+
+  private void handle(final Socket client) throws IOException, CheckstyleException {
+    final long deadline = System.currentTimeMillis() + requestTimeout;
+    final BufferedReader in = new BufferedReader(
+        new InputStreamReader(client.getInputStream(), Charsets.UTF_8));
+    final FileDiscovery files = new FileDiscovery(discoveryCapacity);
+    for (final String glob : includes) {
+      files.addInclude(glob);
+    }
+    for (final String glob : excludes) {
+      files.addExclude(glob);
+    }
+
+    String line;
+    while ((line = readLine(client, in, deadline)) != null && !line.isEmpty()) {
+      final File node = new File(line);
+      if (node.isDirectory()) {
+        files.addRoot(node);
+      } else {
+        files.addFile(node);
+      }
+    }
+
+    final PrintStream out = new PrintStream(client.getOutputStream(), false, Charsets.UTF_8.name());
+    executor.process(files, new QualifiedListener(out, true));
+    out.flush();
+  }
+
+  /**
+   * Reads the next line of a request, waiting at most until the deadline.
+   *
+   * @throws SocketTimeoutException
+   *         if the deadline passed
+   */
+  private String readLine(final Socket client, final BufferedReader in, final long deadline)
+      throws IOException {
+    if (requestTimeout > 0) {
+      final long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0) {
+        throw new SocketTimeoutException("request not finished in time");
+      }
+      client.setSoTimeout((int) remaining);
+    }
+    return in.readLine();
+  }
+}
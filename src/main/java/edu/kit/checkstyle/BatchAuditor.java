@@ -0,0 +1,160 @@
+package edu.kit.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+
+import edu.kit.checkstyle.listeners.MetricListener;
+import edu.kit.checkstyle.listeners.VerboseListener;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Checks many submissions in one JVM, reusing the loaded configuration and
+ * checks for all of them.
+ * <p>
+ * Every submission is a directory that is checked by a single checker, so
+ * that check state like literal counts belongs to exactly one submission.
+ * Several submissions are checked at the same time. For a submission named
+ * {@code name}, the report of a {@link VerboseListener} is written to
+ * {@code name.audit.txt} and the one of a {@link MetricListener} to
+ * {@code name.metrics.txt} in the output directory.
+ */
+public class BatchAuditor {
+
+  private static final String AUDIT_SUFFIX = ".audit.txt";
+
+  private static final String METRICS_SUFFIX = ".metrics.txt";
+
+  private final AuditExecutor executor;
+  private final File outputDirectory;
+  private final int threads;
+  private final int discoveryCapacity;
+  private final List<String> includes = mkList();
+  private final List<String> excludes = mkList();
+
+  /**
+   * @param executor
+   *        the executor that checks all submissions
+   * @param outputDirectory
+   *        the directory the reports are written to
+   * @param threads
+   *        the number of submissions checked at the same time
+   * @param discoveryCapacity
+   *        the maximal number of found files that may wait for being checked
+   */
+  public BatchAuditor(final AuditExecutor executor, final File outputDirectory, final int threads,
+      final int discoveryCapacity) {
+    this.executor = executor;
+    this.outputDirectory = outputDirectory;
+    this.threads = threads;
+    this.discoveryCapacity = discoveryCapacity;
+  }
+
+  /**
+   * @see FileDiscovery#addInclude(String)
+   */
+  public void addInclude(final String glob) {
+    includes.add(glob);
+  }
+
+  /**
+   * @see FileDiscovery#addExclude(String)
+   */
+  public void addExclude(final String glob) {
+    excludes.add(glob);
+  }
+
+  /**
+   * Reads the submission directories from a manifest with one directory per
+   * line. Empty lines and lines starting with '#' are ignored.
+   */
+  public static List<File> readManifest(final File manifest) throws IOException {
+    final List<File> submissions = mkList();
+    for (final String line : Files.readLines(manifest, Charsets.UTF_8)) {
+      final String trimmed = line.trim();
+      if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+        submissions.add(new File(trimmed));
+      }
+    }
+    return submissions;
+  }
+
+  /**
+   * Checks all submissions.
+   *
+   * @param submissions
+   *        the root directories of the submissions
+   * @return the number of errors per submission name, in the order of the
+   *         submissions
+   */
+  public Map<String, Integer> audit(final List<File> submissions)
+      throws IOException, InterruptedException, ExecutionException {
+    if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+      throw new IOException("Unable to create output directory " + outputDirectory);
+    }
+
+    final Map<String, Future<Integer>> results = Maps.newLinkedHashMap();
+    final ExecutorService service = Executors.newFixedThreadPool(threads);
+    try {
+      for (final File submission : submissions) {
+        final String name = uniqueName(submission.getName(), results.keySet());
+        results.put(name, service.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws Exception {
+            return auditSubmission(name, submission);
+          }
+        }));
+      }
+
+      final Map<String, Integer> errors = Maps.newLinkedHashMap();
+      for (final Map.Entry<String, Future<Integer>> result : results.entrySet()) {
+        errors.put(result.getKey(), result.getValue().get());
+      }
+      return errors;
+    } finally {
+      service.shutdownNow();
+    }
+  }
+
+  private int auditSubmission(final String name, final File submission) throws Exception {
+    final FileDiscovery files = new FileDiscovery(discoveryCapacity);
+    files.addRoot(submission);
+    for (final String glob : includes) {
+      files.addInclude(glob);
+    }
+    for (final String glob : excludes) {
+      files.addExclude(glob);
+    }
+
+    final VerboseListener verbose = new VerboseListener();
+    verbose.setFile(new File(outputDirectory, name + AUDIT_SUFFIX).getPath());
+    final MetricListener metrics = new MetricListener();
+    metrics.setFile(new File(outputDirectory, name + METRICS_SUFFIX).getPath());
+    return executor.processSerially(files, verbose, metrics);
+  }
+
+  /**
+   * Appends a number to the name of a submission if another submission
+   * already has the same name.
+   */
+  private static String uniqueName(final String name, final Set<String> taken) {
+    String unique = name;
+    for (int i = 2; taken.contains(unique); ++i) {
+      unique = name + "-" + i;
+    }
+    return unique;
+  }
+}
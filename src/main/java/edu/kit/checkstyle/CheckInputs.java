@@ -0,0 +1,90 @@
+package edu.kit.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+
+/**
+ * The files that checks read besides the checked files, like the word
+ * lists of the spelling check.
+ * <p>
+ * A check registers such a file when it loads it. The {@link AuditCache}
+ * includes the checksums of all registered files in its keys, so that
+ * cached messages are not served after a dictionary changed.
+ */
+public final class CheckInputs {
+
+  private static final HashFunction HASH = Hashing.sha1();
+
+  /** The registered files by their canonical path. */
+  private static final SortedMap<String, Input> INPUTS = new TreeMap<String, Input>();
+
+  /** The checksum of all inputs, {@code null} after a change. */
+  private static HashCode combined;
+
+  /**
+   * The checksum of a file, computed again only when the file changes.
+   */
+  private static final class Input {
+
+    final long lastModified;
+    final long length;
+    final HashCode hash;
+
+    Input(final File file) throws IOException {
+      lastModified = file.lastModified();
+      length = file.length();
+      hash = Files.hash(file, HASH);
+    }
+
+    boolean isCurrent(final File file) {
+      return file.lastModified() == lastModified && file.length() == length;
+    }
+  }
+
+  private CheckInputs() {}
+
+  /**
+   * Registers a file a check read.
+   */
+  public static void register(final File file) {
+    try {
+      final String path = file.getCanonicalPath();
+      synchronized (INPUTS) {
+        final Input known = INPUTS.get(path);
+        if (known == null || !known.isCurrent(file)) {
+          INPUTS.put(path, new Input(file));
+          combined = null;
+        }
+      }
+    } catch (final IOException e) {
+      // the check reports the file itself if it cannot read it
+    }
+  }
+
+  /**
+   * @return the checksum of the paths and contents of all registered files
+   */
+  static HashCode hash() {
+    synchronized (INPUTS) {
+      if (combined == null) {
+        final Hasher hasher = HASH.newHasher();
+        for (final Map.Entry<String, Input> input : INPUTS.entrySet()) {
+          hasher.putString(input.getKey(), Charsets.UTF_8).putBytes(input.getValue().hash.asBytes());
+        }
+        combined = hasher.hash();
+      }
+      return combined;
+    }
+  }
+}
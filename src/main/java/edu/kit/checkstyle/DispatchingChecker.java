@@ -0,0 +1,64 @@
+package edu.kit.checkstyle;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+
+import edu.kit.checkstyle.checks.metrics.MetricSink;
+import edu.kit.checkstyle.checks.metrics.Metrics;
+
+
+/**
+ * A checker without any checks that only fires audit events to its
+ * listeners. It is used to replay {@link FileAudit}s that were recorded
+ * elsewhere, so that listeners see exactly the events a regular
+ * {@link Checker} would have fired.
+ */
+class DispatchingChecker extends Checker {
+
+  /** The sink a listener bound while the audit started, if any. */
+  private MetricSink metricSink;
+
+  DispatchingChecker() throws CheckstyleException {
+    super();
+  }
+
+  /**
+   * Fires the start of the audit and picks up the {@link MetricSink} a
+   * listener bound to the current thread in response.
+   */
+  @Override
+  public void fireAuditStarted() {
+    Metrics.bind(null);
+    super.fireAuditStarted();
+    metricSink = Metrics.sink();
+  }
+
+  /**
+   * @return whether a listener receives the metric values typed
+   */
+  boolean hasMetricSink() {
+    return metricSink != null;
+  }
+
+  @Override
+  public void fireAuditFinished() {
+    super.fireAuditFinished();
+  }
+
+  /**
+   * Fires the events of a single file.
+   *
+   * @param audit
+   *        the recorded file
+   * @return the number of errors fired
+   */
+  int replay(final FileAudit audit) {
+    fireFileStarted(audit.fileName);
+    fireErrors(audit.fileName, audit.messages);
+    for (int i = 0; metricSink != null && i < audit.metrics.length; i += 3) {
+      metricSink.metric(audit.metrics[i], audit.fileName, audit.metrics[i + 1], audit.metrics[i + 2]);
+    }
+    fireFileFinished(audit.fileName);
+    return audit.errorCount();
+  }
+}
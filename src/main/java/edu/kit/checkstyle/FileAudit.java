@@ -0,0 +1,80 @@
+package edu.kit.checkstyle;
+
+import java.util.SortedSet;
+
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+
+/**
+ * The recorded outcome of checking a single file: the messages the checks
+ * reported for it, in the order a {@link com.puppycrawl.tools.checkstyle.Checker}
+ * would fire them, and the metric values handed to a
+ * {@link edu.kit.checkstyle.checks.metrics.MetricSink} instead.
+ */
+final class FileAudit {
+
+  final String fileName;
+  final SortedSet<LocalizedMessage> messages;
+  /** The typed metric values as consecutive triples of id, line and value. */
+  final int[] metrics;
+  /** Whether the file exceeded its budget, so only the reason is reported. */
+  final boolean abandoned;
+
+  FileAudit(final String fileName, final SortedSet<LocalizedMessage> messages,
+      final int[] metrics) {
+    this(fileName, messages, metrics, false);
+  }
+
+  private FileAudit(final String fileName, final SortedSet<LocalizedMessage> messages,
+      final int[] metrics, final boolean abandoned) {
+    this.fileName = fileName;
+    this.messages = messages;
+    this.metrics = metrics;
+    this.abandoned = abandoned;
+  }
+
+  /**
+   * The outcome of a file whose checking was abandoned, which drops the
+   * messages and metric values of the partially checked file.
+   *
+   * @param reasons
+   *        the messages that tell why the file was abandoned
+   */
+  static FileAudit abandoned(final String fileName, final SortedSet<LocalizedMessage> reasons) {
+    return new FileAudit(fileName, reasons, new int[0], true);
+  }
+
+  /**
+   * Combines the outcomes of checking the same file with different checks.
+   *
+   * @return the messages and metric values of both, either if the other is
+   *         {@code null}, or the abandoned one
+   */
+  static FileAudit merge(final FileAudit first, final FileAudit second) {
+    if (first == null || second != null && second.abandoned && !first.abandoned) {
+      return second;
+    }
+    if (second == null || first.abandoned) {
+      return first;
+    }
+    final SortedSet<LocalizedMessage> messages = Sets.newTreeSet(first.messages);
+    messages.addAll(second.messages);
+    return new FileAudit(first.fileName, messages, Ints.concat(first.metrics, second.metrics));
+  }
+
+  /**
+   * @return the number of messages with severity {@link SeverityLevel#ERROR}
+   */
+  int errorCount() {
+    int count = 0;
+    for (final LocalizedMessage message : messages) {
+      if (SeverityLevel.ERROR == message.getSeverityLevel()) {
+        count += 1;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,190 @@
+package edu.kit.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Finds the files to check while they are already being checked.
+ * <p>
+ * A background thread walks the given roots and puts every Java source file
+ * into a bounded queue, which is drained by iterating over the discovery.
+ * The walk blocks while the queue is full, so memory stays flat no matter
+ * how many files the roots contain. Files and directories can be filtered
+ * with globs that are matched against the path relative to their root.
+ * Files that are added explicitly are always checked after all roots. If
+ * the walk fails, the iteration ends with its exception instead of blocking.
+ */
+public class FileDiscovery implements Iterable<File> {
+
+  private static final String JAVA_SUFFIX = ".java";
+
+  /** Marks the end of the queue. */
+  private static final File END = new File("");
+
+  private final BlockingQueue<File> queue;
+  private final List<Path> roots = mkList();
+  private final List<File> files = mkList();
+  private final List<PathMatcher> includes = mkList();
+  private final List<PathMatcher> excludes = mkList();
+
+  private boolean started = false;
+
+  /** The exception that ended the walk, if any. */
+  private volatile RuntimeException failure;
+
+  /**
+   * @param capacity
+   *        the maximal number of discovered files that are not yet checked
+   */
+  public FileDiscovery(final int capacity) {
+    queue = new ArrayBlockingQueue<File>(capacity);
+  }
+
+  /**
+   * Adds a directory whose Java files should be checked.
+   */
+  public void addRoot(final File root) {
+    roots.add(root.toPath());
+  }
+
+  /**
+   * Adds a single file that is checked without any filtering.
+   */
+  public void addFile(final File file) {
+    files.add(file);
+  }
+
+  /**
+   * Only checks files that match one of the included globs. If no glob is
+   * included, all Java files are checked.
+   */
+  public void addInclude(final String glob) {
+    includes.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+  }
+
+  /**
+   * Skips files and whole directories that match the glob.
+   */
+  public void addExclude(final String glob) {
+    excludes.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+  }
+
+  /**
+   * Starts the walk. A discovery can only be iterated once.
+   */
+  @Override
+  public synchronized Iterator<File> iterator() {
+    if (started) {
+      throw new IllegalStateException("file discovery was already started");
+    }
+    started = true;
+
+    final Thread walker = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          discover();
+        } catch (final RuntimeException e) {
+          failure = e;
+        } finally {
+          Uninterruptibles.putUninterruptibly(queue, END);
+        }
+      }
+    }, "file-discovery");
+    walker.setDaemon(true);
+    walker.start();
+
+    return new AbstractIterator<File>() {
+      @Override
+      protected File computeNext() {
+        final File file = Uninterruptibles.takeUninterruptibly(queue);
+        if (file != END) {
+          return file;
+        }
+        if (failure != null) {
+          throw new IllegalStateException("file discovery failed", failure);
+        }
+        return endOfData();
+      }
+    };
+  }
+
+  /**
+   * Puts all files into the queue, those of the roots first.
+   */
+  void discover() {
+    for (final Path root : roots) {
+      walk(root);
+    }
+    for (final File file : files) {
+      Uninterruptibles.putUninterruptibly(queue, file);
+    }
+  }
+
+  private void walk(final Path root) {
+    if (!Files.isDirectory(root)) {
+      if (Files.isReadable(root)) {
+        Uninterruptibles.putUninterruptibly(queue, root.toFile());
+      }
+      return;
+    }
+
+    try {
+      Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+          return matches(excludes, root.relativize(dir)) ?
+              FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+          if (attrs.isRegularFile() && Files.isReadable(file) && isChecked(root.relativize(file))) {
+            Uninterruptibles.putUninterruptibly(queue, file.toFile());
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+          // unreadable files are skipped like before
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (final IOException e) {
+      // the visitor never throws, walking the remaining roots goes on
+    }
+  }
+
+  private boolean isChecked(final Path relative) {
+    return relative.toString().endsWith(JAVA_SUFFIX)
+        && (includes.isEmpty() || matches(includes, relative))
+        && !matches(excludes, relative);
+  }
+
+  private static boolean matches(final List<PathMatcher> matchers, final Path path) {
+    for (final PathMatcher matcher : matchers) {
+      if (matcher.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
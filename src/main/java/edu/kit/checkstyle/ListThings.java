@@ -5,7 +5,6 @@ import java.io.File;
 import java.util.List;
 import java.util.ArrayList;
 
-import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 
 import com.puppycrawl.tools.checkstyle.api.Configuration;
@@ -17,6 +16,9 @@ import com.puppycrawl.tools.checkstyle.api.Configuration;
 **/
 public final class ListThings
 {
+    /** the number of found files that may wait for being listed */
+    private static final int DISCOVERY_CAPACITY = 1024;
+
     /** Stop instances being created. */
     private ListThings()
     {
@@ -32,31 +34,33 @@ public final class ListThings
     {
         final Configuration config = defaultConfig();
 
-        final List<File> files = getFilesToProcess(aArgs);
-        final Checker checker = createChecker(config);
-        checker.process(files);
-        checker.destroy();
+        final FileDiscovery files = getFilesToProcess(aArgs);
+        final AuditExecutor executor = createExecutor(config);
+        try {
+            executor.process(files);
+        }
+        catch (final Exception e) {
+            System.out.println("Unable to create listeners: "
+                               + e.getMessage());
+            e.printStackTrace(System.out);
+            System.exit(1);
+        }
+        executor.destroy();
         System.exit(0);
     }
 
 
     /**
-     * Creates the Checker object.
+     * Creates the executor that lists the files.
      *
      * @param aConfig the configuration to use
-     * @param aNosy the sticky beak to track what happens
-     * @return a nice new fresh Checker
+     * @return a nice new fresh executor
      */
-    private static Checker createChecker(Configuration aConfig)
+    private static AuditExecutor createExecutor(Configuration aConfig)
     {
-        Checker c = null;
+        AuditExecutor c = null;
         try {
-            c = new Checker();
-
-            final ClassLoader moduleClassLoader =
-                Checker.class.getClassLoader();
-            c.setModuleClassLoader(moduleClassLoader);
-            c.configure(aConfig);
+            c = new AuditExecutor(aConfig, 1);
         }
         catch (final Exception e) {
             System.out.println("Unable to create Checker: "
@@ -68,43 +72,26 @@ public final class ListThings
     }
 
     /**
-     * Determines the files to process.
+     * Determines the files to process. The directories are traversed while
+     * the files are already being listed.
      *
-     * @param aLine the command line options specifying what files to process
-     * @return list of files to process
+     * @param values the files and directories to process
+     * @return the discovery of the files to process
      */
-    private static List<File> getFilesToProcess(String[] values)
+    private static FileDiscovery getFilesToProcess(String[] values)
     {
-        final List<File> files = new ArrayList<File>();
+        final FileDiscovery files = new FileDiscovery(DISCOVERY_CAPACITY);
         for (String element : values) {
-            traverse(new File(element), files);
-        }
-
-        return files;
-    }
-
-
-    /**
-     * Traverses a specified node looking for files to check.
-     * Found files are added to a specified list. Subdirectories are also
-     * traversed.
-     *
-     * @param aNode the node to process
-     * @param aFiles list to add found files to
-     */
-    private static void traverse(File aNode, List<File> aFiles)
-    {
-        if (aNode.canRead()) {
-            if (aNode.isDirectory()) {
-                final File[] nodes = aNode.listFiles();
-                for (File element : nodes) {
-                    traverse(element, aFiles);
-                }
+            final File node = new File(element);
+            if (node.isDirectory()) {
+                files.addRoot(node);
             }
-            else if (aNode.isFile()) {
-                aFiles.add(aNode);
+            else if (node.isFile() && node.canRead()) {
+                files.addFile(node);
             }
         }
+
+        return files;
     }
 
     /**
@@ -20,17 +20,15 @@
 ////////////////////////////////////////////////////////////////////////////////
 package edu.kit.checkstyle;
 
+import edu.kit.checkstyle.listeners.AsyncListener;
 import edu.kit.checkstyle.listeners.QualifiedListener;
 
-import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.PropertiesExpander;
 import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 
-import com.google.common.collect.Lists;
-
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.HelpFormatter;
@@ -40,13 +38,16 @@ import org.apache.commons.cli.PosixParser;
 
 import org.xml.sax.InputSource;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileDescriptor;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.List;
+import java.io.PrintStream;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -57,6 +58,32 @@ public final class Main
 {
     /** the options to the command line */
     private static final Options OPTS = new Options();
+    /** the number of found files that may wait for being checked */
+    private static final int DISCOVERY_CAPACITY = 1024;
+    /** the default maximal size of the cache in megabytes */
+    private static final int DEFAULT_CACHE_SIZE = 256;
+    /** the size of the buffer for the standard output in bytes */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    static {
+        OPTS.addOption("r", true, "Traverse the directory for source files");
+        OPTS.addOption("t", "threads", true,
+            "Check the files with the given number of threads");
+        OPTS.addOption(null, "include", true,
+            "Only check files matching the glob when traversing directories");
+        OPTS.addOption(null, "exclude", true,
+            "Skip files and directories matching the glob when traversing");
+        OPTS.addOption(null, "cache", true,
+            "Cache the results of unchanged files in the given directory");
+        OPTS.addOption(null, "cache-size", true,
+            "Maximal size of the cache in megabytes (default "
+                + DEFAULT_CACHE_SIZE + ")");
+        OPTS.addOption(null, "server", true,
+            "Keep running and serve audits on the given local port");
+        OPTS.addOption(null, "batch", true,
+            "Check every submission directory listed in the given file");
+        OPTS.addOption(null, "output", true,
+            "Directory for the reports of the submissions in batch mode");
+    }
 
     /** Stop instances being created. */
     private Main()
@@ -87,31 +114,186 @@ public final class Main
 
         final Configuration config = loadConfig(properties);
 
-        AuditListener listener = new QualifiedListener();
-        final List<File> files = getFilesToProcess(line);
-        final Checker checker = createChecker(config);
-        checker.addListener(listener);
-        checker.process(files);
-        checker.destroy();
+        final int threads = getPositiveInt(line, "t", 1);
+        final AuditExecutor executor = createExecutor(config, threads);
+        if (line.hasOption("cache")) {
+            setupCache(executor, line);
+        }
+        if (line.hasOption("server")) {
+            serve(executor, line);
+        }
+        if (line.hasOption("batch")) {
+            batch(executor, line, threads);
+        }
+
+        // format and write the messages off the checking thread
+        final PrintStream out = new PrintStream(new BufferedOutputStream(
+            new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE));
+        AuditListener listener = new AsyncListener(new QualifiedListener(out));
+        final FileDiscovery files = getFilesToProcess(line);
+        executor.addListener(listener);
+        process(executor, files);
+        executor.destroy();
         System.exit(0);
     }
 
     /**
-     * Creates the Checker object.
+     * Determines the value of a numeric option. Will exit if the value is
+     * not a positive number.
      *
-     * @param aConfig the configuration to use
-     * @return a nice new fresh Checker
+     * @param aLine the command line options
+     * @param aOption the name of the option
+     * @param aDefault the value if the option is not specified
+     * @return the value of the option
+     */
+    private static int getPositiveInt(CommandLine aLine, String aOption,
+                                      int aDefault)
+    {
+        if (!aLine.hasOption(aOption)) {
+            return aDefault;
+        }
+        try {
+            final int value = Integer.parseInt(aLine.getOptionValue(aOption));
+            if (value < 1) {
+                usage();
+            }
+            return value;
+        }
+        catch (final NumberFormatException e) {
+            usage();
+            return 1; // can never get here
+        }
+    }
+
+    /**
+     * Checks the files. Will exit if the listeners cannot be created.
+     *
+     * @param aExecutor the executor to check the files with
+     * @param aFiles the files to check
+     */
+    private static void process(AuditExecutor aExecutor, Iterable<File> aFiles)
+    {
+        try {
+            aExecutor.process(aFiles);
+        }
+        catch (final CheckstyleException e) {
+            System.out.println("Unable to create listeners: "
+                               + e.getMessage());
+            e.printStackTrace(System.out);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Serves audits until the process is killed. Will exit if the server
+     * cannot be started.
+     *
+     * @param aExecutor the executor that checks the files of all requests
+     * @param aLine the command line options specifying the server
+     */
+    private static void serve(AuditExecutor aExecutor, CommandLine aLine)
+    {
+        final AuditServer server =
+            new AuditServer(aExecutor, DISCOVERY_CAPACITY);
+        if (aLine.hasOption("include")) {
+            for (String glob : aLine.getOptionValues("include")) {
+                server.addInclude(glob);
+            }
+        }
+        if (aLine.hasOption("exclude")) {
+            for (String glob : aLine.getOptionValues("exclude")) {
+                server.addExclude(glob);
+            }
+        }
+        try {
+            server.serve(getPositiveInt(aLine, "server", 0));
+        }
+        catch (final Exception e) {
+            System.out.println("Server failed: " + e.getMessage());
+            e.printStackTrace(System.out);
+            System.exit(1);
+        }
+        aExecutor.destroy();
+        System.exit(0);
+    }
+
+    /**
+     * Checks all submissions of a manifest and prints their error counts.
+     * Will exit when finished.
+     *
+     * @param aExecutor the executor that checks the submissions
+     * @param aLine the command line options specifying the batch
+     * @param aThreads the number of submissions checked at the same time
      */
-    private static Checker createChecker(Configuration aConfig)
+    private static void batch(AuditExecutor aExecutor, CommandLine aLine,
+                              int aThreads)
     {
-        Checker checker = null;
+        final File output = new File(aLine.getOptionValue("output", "."));
+        final BatchAuditor auditor = new BatchAuditor(aExecutor, output,
+                                                      aThreads,
+                                                      DISCOVERY_CAPACITY);
+        if (aLine.hasOption("include")) {
+            for (String glob : aLine.getOptionValues("include")) {
+                auditor.addInclude(glob);
+            }
+        }
+        if (aLine.hasOption("exclude")) {
+            for (String glob : aLine.getOptionValues("exclude")) {
+                auditor.addExclude(glob);
+            }
+        }
         try {
-            checker = new Checker();
+            final Map<String, Integer> errors = auditor.audit(
+                BatchAuditor.readManifest(new File(aLine.getOptionValue("batch"))));
+            for (Map.Entry<String, Integer> submission : errors.entrySet()) {
+                System.out.println(submission.getKey() + ": "
+                                   + submission.getValue() + " errors");
+            }
+        }
+        catch (final Exception e) {
+            System.out.println("Batch failed: " + e.getMessage());
+            e.printStackTrace(System.out);
+            System.exit(1);
+        }
+        aExecutor.destroy();
+        System.exit(0);
+    }
+
+    /**
+     * Enables the result cache of the executor. Will exit if the cache
+     * directory is not usable.
+     *
+     * @param aExecutor the executor to use the cache
+     * @param aLine the command line options specifying the cache
+     */
+    private static void setupCache(AuditExecutor aExecutor, CommandLine aLine)
+    {
+        final File directory = new File(aLine.getOptionValue("cache"));
+        final long size =
+            getPositiveInt(aLine, "cache-size", DEFAULT_CACHE_SIZE) * 1024L * 1024L;
+        try {
+            aExecutor.setCache(directory, size);
+        }
+        catch (final Exception e) {
+            System.out.println("Unable to open cache: " + e.getMessage());
+            e.printStackTrace(System.out);
+            System.exit(1);
+        }
+    }
 
-            final ClassLoader moduleClassLoader =
-                Checker.class.getClassLoader();
-            checker.setModuleClassLoader(moduleClassLoader);
-            checker.configure(aConfig);
+    /**
+     * Creates the executor that checks the files.
+     *
+     * @param aConfig the configuration to use
+     * @param aThreads the number of worker threads
+     * @return a nice new fresh executor
+     */
+    private static AuditExecutor createExecutor(Configuration aConfig,
+                                                int aThreads)
+    {
+        AuditExecutor executor = null;
+        try {
+            executor = new AuditExecutor(aConfig, aThreads);
         }
         catch (final Exception e) {
             System.out.println("Unable to create Checker: "
@@ -119,28 +301,38 @@ public final class Main
             e.printStackTrace(System.out);
             System.exit(1);
         }
-        return checker;
+        return executor;
     }
 
     /**
-     * Determines the files to process.
+     * Determines the files to process. The directories are traversed while
+     * the files are already being checked.
      *
      * @param aLine the command line options specifying what files to process
-     * @return list of files to process
+     * @return the discovery of the files to process
      */
-    private static List<File> getFilesToProcess(CommandLine aLine)
+    private static FileDiscovery getFilesToProcess(CommandLine aLine)
     {
-        final List<File> files = Lists.newLinkedList();
+        final FileDiscovery files = new FileDiscovery(DISCOVERY_CAPACITY);
         if (aLine.hasOption("r")) {
-            final String[] values = aLine.getOptionValues("r");
-            for (String element : values) {
-                traverse(new File(element), files);
+            for (String element : aLine.getOptionValues("r")) {
+                files.addRoot(new File(element));
+            }
+        }
+        if (aLine.hasOption("include")) {
+            for (String glob : aLine.getOptionValues("include")) {
+                files.addInclude(glob);
+            }
+        }
+        if (aLine.hasOption("exclude")) {
+            for (String glob : aLine.getOptionValues("exclude")) {
+                files.addExclude(glob);
             }
         }
 
         final String[] remainingArgs = aLine.getArgs();
         for (String element : remainingArgs) {
-            files.add(new File(element));
+            files.addFile(new File(element));
         }
 
         return files;
@@ -174,34 +366,13 @@ public final class Main
         hf.printHelp(
             "java "
                 + Main.class.getName()
-                + " <source.java>* < <config.xml>",
+                + " [-t <threads>] [--cache <dir>] [--server <port>]"
+                + " [--batch <manifest> [--output <dir>]]"
+                + " [-r <dir>]* <source.java>* < <config.xml>",
             OPTS);
         System.exit(1);
     }
 
-    /**
-     * Traverses a specified node looking for files to check. Found
-     * files are added to a specified list. Subdirectories are also
-     * traversed.
-     *
-     * @param aNode the node to process
-     * @param aFiles list to add found files to
-     */
-    private static void traverse(File aNode, List<File> aFiles)
-    {
-        if (aNode.canRead()) {
-            if (aNode.isDirectory()) {
-                final File[] nodes = aNode.listFiles();
-                for (File element : nodes) {
-                    traverse(element, aFiles);
-                }
-            }
-            else if (aNode.isFile()) {
-                aFiles.add(aNode);
-            }
-        }
-    }
-
     /**
      * Loads properties from a File.
      * @param aFile the properties file
@@ -0,0 +1,41 @@
+package edu.kit.checkstyle;
+
+import java.util.Arrays;
+
+import edu.kit.checkstyle.checks.metrics.MetricSink;
+
+
+/**
+ * Records the typed metric values of a single file as consecutive triples
+ * of metric id, line and value. The buffer is reused for all files of a
+ * worker.
+ */
+final class MetricRecord implements MetricSink {
+
+  private static final int[] EMPTY = new int[0];
+
+  private int[] data = new int[48];
+  private int size;
+
+  void reset() {
+    size = 0;
+  }
+
+  @Override
+  public void metric(final int metricId, final String fileName, final int line, final int value) {
+    if (size + 3 > data.length) {
+      data = Arrays.copyOf(data, data.length * 2);
+    }
+    data[size] = metricId;
+    data[size + 1] = line;
+    data[size + 2] = value;
+    size += 3;
+  }
+
+  /**
+   * @return the recorded triples
+   */
+  int[] toArray() {
+    return size == 0 ? EMPTY : Arrays.copyOf(data, size);
+  }
+}
@@ -0,0 +1,135 @@
+package edu.kit.checkstyle;
+
+import java.util.Arrays;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+
+/**
+ * The modifiers of declarations as bit masks.
+ * <p>
+ * {@link #of} calculates the mask of a declaration from its MODIFIERS
+ * token. An instance caches the masks of the declarations of one file
+ * without allocating per lookup, {@link #clear} it for the next file.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class Modifiers {
+
+  public static final int PUBLIC = 1;
+  public static final int PROTECTED = 1 << 1;
+  public static final int PRIVATE = 1 << 2;
+  public static final int STATIC = 1 << 3;
+  public static final int FINAL = 1 << 4;
+  public static final int ABSTRACT = 1 << 5;
+  public static final int SYNCHRONIZED = 1 << 6;
+  public static final int NATIVE = 1 << 7;
+  public static final int TRANSIENT = 1 << 8;
+  public static final int VOLATILE = 1 << 9;
+  public static final int STRICTFP = 1 << 10;
+  public static final int DEFAULT = 1 << 11;
+
+  /** The cached declarations, an open addressing table by identity. */
+  private DetailAST[] keys = new DetailAST[256];
+  private int[] masks = new int[256];
+  private int size;
+
+  /**
+   * @return the modifiers of a declaration, 0 if it has no MODIFIERS token
+   */
+  public static int of(final DetailAST declaration) {
+    final DetailAST modifiers = declaration.findFirstToken(TokenTypes.MODIFIERS);
+    if (modifiers == null) {
+      return 0;
+    }
+
+    int mask = 0;
+    for (DetailAST mod = modifiers.getFirstChild(); mod != null; mod = mod.getNextSibling()) {
+      mask |= bit(mod.getType());
+    }
+    return mask;
+  }
+
+  private static int bit(final int type) {
+    switch (type) {
+      case TokenTypes.LITERAL_PUBLIC:
+        return PUBLIC;
+      case TokenTypes.LITERAL_PROTECTED:
+        return PROTECTED;
+      case TokenTypes.LITERAL_PRIVATE:
+        return PRIVATE;
+      case TokenTypes.LITERAL_STATIC:
+        return STATIC;
+      case TokenTypes.FINAL:
+        return FINAL;
+      case TokenTypes.ABSTRACT:
+        return ABSTRACT;
+      case TokenTypes.LITERAL_SYNCHRONIZED:
+        return SYNCHRONIZED;
+      case TokenTypes.LITERAL_NATIVE:
+        return NATIVE;
+      case TokenTypes.LITERAL_TRANSIENT:
+        return TRANSIENT;
+      case TokenTypes.LITERAL_VOLATILE:
+        return VOLATILE;
+      case TokenTypes.STRICTFP:
+        return STRICTFP;
+      case TokenTypes.LITERAL_DEFAULT:
+        return DEFAULT;
+      default:
+        // annotations
+        return 0;
+    }
+  }
+
+  /**
+   * @return the modifiers of a declaration, calculated once per declaration
+   */
+  public int get(final DetailAST declaration) {
+    final int mask = keys.length - 1;
+    int i = System.identityHashCode(declaration) & mask;
+    while (keys[i] != null) {
+      if (keys[i] == declaration) {
+        return masks[i];
+      }
+      i = (i + 1) & mask;
+    }
+
+    final int modifiers = of(declaration);
+    keys[i] = declaration;
+    masks[i] = modifiers;
+    if (++size * 2 > keys.length) {
+      grow();
+    }
+    return modifiers;
+  }
+
+  /**
+   * Forgets all declarations.
+   */
+  public void clear() {
+    if (size > 0) {
+      Arrays.fill(keys, null);
+      size = 0;
+    }
+  }
+
+  private void grow() {
+    final DetailAST[] oldKeys = keys;
+    final int[] oldMasks = masks;
+    keys = new DetailAST[oldKeys.length * 2];
+    masks = new int[oldKeys.length * 2];
+    final int mask = keys.length - 1;
+    for (int j = 0; j < oldKeys.length; ++j) {
+      if (oldKeys[j] != null) {
+        int i = System.identityHashCode(oldKeys[j]) & mask;
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = oldKeys[j];
+        masks[i] = oldMasks[j];
+      }
+    }
+  }
+}
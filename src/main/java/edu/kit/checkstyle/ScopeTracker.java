@@ -0,0 +1,199 @@
+package edu.kit.checkstyle;
+
+import java.util.Arrays;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+
+/**
+ * Keeps track of the types, methods and fields enclosing the current token
+ * of a tree walk, so that a check does not have to search the parents of a
+ * token for its context.
+ * <p>
+ * The tracker has to see the {@link #TOKENS} of the walk: {@link #enter}
+ * when a token is visited and {@link #leave} when it is left. In between,
+ * the token itself counts as enclosing, so a method definition is its own
+ * enclosing method. Anonymous classes are not types here, their methods
+ * belong to the enclosing named type. All queries take constant time.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class ScopeTracker {
+
+  /** The tokens that open a scope. */
+  public static final int[] TOKENS = {
+    TokenTypes.CLASS_DEF,
+    TokenTypes.INTERFACE_DEF,
+    TokenTypes.ENUM_DEF,
+    TokenTypes.ANNOTATION_DEF,
+    TokenTypes.METHOD_DEF,
+    TokenTypes.VARIABLE_DEF,
+  };
+
+  /** The enclosing type definitions, outermost first. */
+  private DetailAST[] types = new DetailAST[8];
+  /** The names of the enclosing types, joined by {@code $}. */
+  private String[] typeNames = new String[8];
+  private int typeCount;
+
+  /** The enclosing method definitions, innermost last. */
+  private DetailAST[] methods = new DetailAST[8];
+  /** The number of enclosing types of each method. */
+  private int[] methodTypes = new int[8];
+  private int methodCount;
+
+  /** The number of enclosing field definitions. */
+  private int fields;
+
+  /**
+   * Forgets all scopes, for example at the start of a file.
+   */
+  public void reset() {
+    Arrays.fill(types, 0, typeCount, null);
+    Arrays.fill(typeNames, 0, typeCount, null);
+    Arrays.fill(methods, 0, methodCount, null);
+    typeCount = 0;
+    methodCount = 0;
+    fields = 0;
+  }
+
+  /**
+   * Enters the scope opened by a token, if any.
+   */
+  public void enter(final DetailAST ast) {
+    switch (ast.getType()) {
+      case TokenTypes.CLASS_DEF:
+      case TokenTypes.INTERFACE_DEF:
+      case TokenTypes.ENUM_DEF:
+      case TokenTypes.ANNOTATION_DEF:
+        if (typeCount == types.length) {
+          types = Arrays.copyOf(types, typeCount * 2);
+          typeNames = Arrays.copyOf(typeNames, typeCount * 2);
+        }
+        final String name = ast.findFirstToken(TokenTypes.IDENT).getText();
+        types[typeCount] = ast;
+        typeNames[typeCount] = typeCount == 0 ? name : typeNames[typeCount - 1] + "$" + name;
+        typeCount += 1;
+        break;
+
+      case TokenTypes.METHOD_DEF:
+        if (methodCount == methods.length) {
+          methods = Arrays.copyOf(methods, methodCount * 2);
+          methodTypes = Arrays.copyOf(methodTypes, methodCount * 2);
+        }
+        methods[methodCount] = ast;
+        methodTypes[methodCount] = typeCount;
+        methodCount += 1;
+        break;
+
+      case TokenTypes.VARIABLE_DEF:
+        if (isField(ast)) {
+          fields += 1;
+        }
+        break;
+
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Leaves the scope opened by a token, if any.
+   */
+  public void leave(final DetailAST ast) {
+    switch (ast.getType()) {
+      case TokenTypes.CLASS_DEF:
+      case TokenTypes.INTERFACE_DEF:
+      case TokenTypes.ENUM_DEF:
+      case TokenTypes.ANNOTATION_DEF:
+        typeCount -= 1;
+        types[typeCount] = null;
+        typeNames[typeCount] = null;
+        break;
+
+      case TokenTypes.METHOD_DEF:
+        methodCount -= 1;
+        methods[methodCount] = null;
+        break;
+
+      case TokenTypes.VARIABLE_DEF:
+        if (isField(ast)) {
+          fields -= 1;
+        }
+        break;
+
+      default:
+        break;
+    }
+  }
+
+  private static boolean isField(final DetailAST ast) {
+    return ast.getParent() != null && ast.getParent().getType() == TokenTypes.OBJBLOCK;
+  }
+
+  /**
+   * @return the innermost enclosing method definition or {@code null} if
+   *         there is none. Constructors and initializers are not methods.
+   */
+  public DetailAST method() {
+    return methodCount == 0 ? null : methods[methodCount - 1];
+  }
+
+  /**
+   * @return the number of enclosing type definitions
+   */
+  public int typeCount() {
+    return typeCount;
+  }
+
+  /**
+   * @param index
+   *        the index of the type, 0 for the outermost one
+   * @return the enclosing type definition at the given index
+   */
+  public DetailAST type(final int index) {
+    if (index < 0 || index >= typeCount) {
+      throw new IndexOutOfBoundsException("type " + index + " of " + typeCount);
+    }
+    return types[index];
+  }
+
+  /**
+   * @return the innermost enclosing type definition or {@code null} if there
+   *         is none
+   */
+  public DetailAST type() {
+    return typeCount == 0 ? null : types[typeCount - 1];
+  }
+
+  /**
+   * @return the names of the enclosing types joined by {@code $}, like
+   *         {@code Outer$Inner}, or an empty string if there are none
+   */
+  public String typeName() {
+    return typeCount == 0 ? "" : typeNames[typeCount - 1];
+  }
+
+  /**
+   * @return the name of the innermost enclosing type, followed by the name
+   *         of the innermost enclosing method if it belongs to that type,
+   *         like {@code Outer$Inner.run}
+   */
+  public String qualifiedName() {
+    final DetailAST method = method();
+    if (method == null || methodTypes[methodCount - 1] != typeCount) {
+      return typeName();
+    }
+    final String name = method.findFirstToken(TokenTypes.IDENT).getText();
+    return typeCount == 0 ? name : typeName() + "." + name;
+  }
+
+  /**
+   * @return whether the current token is part of a field definition, like
+   *         its initializer. This includes the fields of anonymous classes.
+   */
+  public boolean inFieldDefinition() {
+    return fields > 0;
+  }
+}
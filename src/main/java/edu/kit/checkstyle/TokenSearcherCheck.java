@@ -3,6 +3,8 @@ package edu.kit.checkstyle;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.google.common.primitives.Ints;
+import com.puppycrawl.tools.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -11,24 +13,129 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 /**
  * Base class for teaching checks.
  *
+ * The enclosing types, methods and fields of the visited tokens are tracked
+ * by a {@link ScopeTracker} during the tree walk, see {@link #scopes()}.
+ * Subclasses name the tokens they search for in {@link #getSearchedTokens()}
+ * and get them in {@link #visitSearchedToken} and
+ * {@link #leaveSearchedToken}, the scope tokens are not passed to them.
+ * The modifiers of declarations are cached per file, see {@link #modifiers}.
  */
 public abstract class TokenSearcherCheck extends Check {
 
+  private static final int MAX_TOKEN = Ints.max(Utils.getAllTokenIds());
+
+  private final ScopeTracker scopes = new ScopeTracker();
+
+  private final Modifiers modifiers = new Modifiers();
+
+  /** Whether a token type is searched for, by token type. */
+  private boolean[] searched;
+
+  /**
+   * @return the tokens this check searches for
+   */
+  protected abstract int[] getSearchedTokens();
+
+  /**
+   * Called for every searched token, after its scope has been entered.
+   */
+  protected abstract void visitSearchedToken(DetailAST ast);
+
+  /**
+   * Called when a searched token is left, before its scope is left.
+   */
+  protected void leaveSearchedToken(final DetailAST ast) {
+  }
+
+  /**
+   * @return the scopes enclosing the current token
+   */
+  protected ScopeTracker scopes() {
+    return scopes;
+  }
+
+  /**
+   * @return the searched and the scope tokens
+   */
+  @Override
+  public final int[] getDefaultTokens() {
+    return union(getSearchedTokens(), ScopeTracker.TOKENS);
+  }
+
+  /**
+   * The scope tokens are also visited if the searched tokens are configured.
+   */
+  @Override
+  public final int[] getRequiredTokens() {
+    return ScopeTracker.TOKENS.clone();
+  }
+
+  /**
+   * Subclasses overriding this have to call it.
+   */
+  @Override
+  public void beginTree(final DetailAST rootAST) {
+    if (searched == null) {
+      searched = new boolean[MAX_TOKEN + 1];
+      if (getTokenNames().isEmpty()) {
+        for (final int type : getSearchedTokens()) {
+          searched[type] = true;
+        }
+      } else {
+        for (final String name : getTokenNames()) {
+          searched[Utils.getTokenId(name)] = true;
+        }
+      }
+    }
+    scopes.reset();
+    modifiers.clear();
+  }
+
+  @Override
+  public final void visitToken(final DetailAST ast) {
+    scopes.enter(ast);
+    if (searched[ast.getType()]) {
+      visitSearchedToken(ast);
+    }
+  }
+
+  @Override
+  public final void leaveToken(final DetailAST ast) {
+    if (searched[ast.getType()]) {
+      leaveSearchedToken(ast);
+    }
+    scopes.leave(ast);
+  }
+
+  private static int[] union(final int[] first, final int[] second) {
+    final Set<Integer> tokens = new HashSet<Integer>(Ints.asList(first));
+    tokens.addAll(Ints.asList(second));
+    return Ints.toArray(tokens);
+  }
+
   protected void require(final boolean requirement, final String message) {
     if (!requirement) {
       throw new AssertionError(message);
     }
   }
 
-  protected Set<String> modifierNames(final DetailAST ast) {
-    final DetailAST modAst = ast.findFirstToken(TokenTypes.MODIFIERS);
-    require(modAst != null, "AST doesn't contain modifiers");
+  /**
+   * @return the {@link Modifiers} of a declaration, cached for the current file
+   */
+  protected int modifiers(final DetailAST ast) {
+    return modifiers.get(ast);
+  }
 
-    final Set<String> mods = new HashSet<String>();
-    for (DetailAST mod = modAst.getFirstChild(); mod != null; mod = mod.getNextSibling()) {
-      mods.add(mod.getText());
-    }
-    return mods;
+  protected boolean isStatic(final DetailAST ast) {
+    return (modifiers(ast) & Modifiers.STATIC) != 0;
+  }
+
+  protected boolean isFinal(final DetailAST ast) {
+    return (modifiers(ast) & Modifiers.FINAL) != 0;
+  }
+
+  protected boolean isPublic(final DetailAST ast) {
+    return (modifiers(ast) & Modifiers.PUBLIC) != 0;
   }
 
   protected boolean hasModifiers(final DetailAST ast) {
@@ -39,23 +146,4 @@ public abstract class TokenSearcherCheck extends Check {
     return ast.getText().equals(name);
   }
 
-  /**
-   * Searches for the method a token is placed into.
-   *
-   * @param ast
-   *        The AST to start the search
-   * @return The containing method or {@code null} if none exists.
-   */
-  protected DetailAST getContainingMethod(final DetailAST ast) {
-    if (ast.getType() == TokenTypes.METHOD_DEF) {
-      return ast;
-    }
-
-    DetailAST methodDef = ast.getParent();
-    while (methodDef != null && methodDef.getType() != TokenTypes.METHOD_DEF) {
-      methodDef = methodDef.getParent();
-    }
-    return methodDef;
-  }
-
 }
@@ -1,17 +1,16 @@
 package edu.kit.checkstyle.checks;
 
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 
-import com.google.common.collect.Sets;
+import org.apache.commons.lang.StringUtils;
+
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
-import edu.kit.checkstyle.CollectionUtils;
 import edu.kit.checkstyle.TokenSearcherCheck;
 import static edu.kit.checkstyle.CollectionUtils.*;
 
@@ -19,217 +18,457 @@ import static edu.kit.checkstyle.CollectionUtils.*;
 /**
  * Checks the complexity of single methods, where complexity is measured in the
  * number of method chains that are repeated.
+ * <p>
+ * Every link of a chain like {@code a.getB().getC()} is recorded as its
+ * receiver or method followed by the next token of the chain: the variable
+ * {@code a} followed by {@code getB} and the method {@code getB} followed by
+ * {@code getC}. A receiver or method followed by more than one token in a
+ * method is a duplicate, and the chains of all these tokens are reported at
+ * the start of their line.
+ * <p>
+ * The names of receivers and methods are interned to ids per file, so a link
+ * is recorded with a lookup in a table of primitive keys. All tables are
+ * reused by the following methods, which keeps long methods linear.
+ * <p>
+ * With the {@code scope} {@code class} or {@code file} the chains are
+ * compared across the methods of a class or a file instead. Every chain
+ * ending with a call, including those in arguments, is indexed in a
+ * {@link ChainIndex}. A chain of at least {@code minLength} names that
+ * occurs in more than {@code maxOccurrences} methods is reported once, at
+ * its first occurrence, the longest such chain if there are several.
+ * Repeating a chain within a method does not count, and code outside of
+ * methods counts as one method. Like
+ * {@code a.getB().getC()}, these chains usually reach through other
+ * objects.
  *
  * @since JDK1.7, 14.06.2013
  */
 public class CallHierarchyComplexityCheck extends TokenSearcherCheck {
 
-  static abstract class Ref {
-    public final String name;
+  /** The kinds of a link, the lowest bit of its key. */
+  private static final int VARIABLE = 0;
+  private static final int METHOD = 1;
 
-    public Ref(final String name) {
-      this.name = name;
-    }
+  /** Where chains are compared. */
+  enum Scope {
+    METHOD, CLASS, FILE
+  }
 
-    abstract boolean isMethod();
+  private Scope scope = Scope.METHOD;
 
-    @Override
-    public int hashCode() {
-      return name.hashCode() + (isMethod() ? 1231 : 1237) * 31;
-    }
+  private int maxOccurrences = 2;
 
-    @Override
-    public boolean equals(final Object obj) {
-      if (obj instanceof Ref) {
-        final Ref ref = (Ref) obj;
-        return isMethod() == ref.isMethod() && name.equals(ref.name);
-      }
-      return false;
-    }
+  private int minLength = 3;
 
-    @Override
-    public String toString() {
-      return name;
-    }
-  }
-  static class MethodRef extends Ref {
+  /** The names of the ids of the current file. */
+  private final List<String> names = mkList();
 
-    public MethodRef(final String name) {
-      super(name);
-    }
+  /** The chains of the current file in class or file scope. */
+  private final ChainIndex chains = new ChainIndex();
+  /** The groups of the chains in class scope, by type definition. */
+  private final Map<DetailAST, Integer> groups = new IdentityHashMap<DetailAST, Integer>();
+  /** The ids of the methods of the chains, by method definition. */
+  private final Map<DetailAST, Integer> methods = new IdentityHashMap<DetailAST, Integer>();
+  /** The ids of the current chain, from its end to its start. */
+  private int[] chain = new int[16];
+
+  /** The ids of the names of the current file. */
+  private final Map<String, Integer> ids = mkMap();
+
+  /** The keys of the links of the current method, an open addressing table. */
+  private int[] keys = new int[64];
+  /** The number of tokens following the link of a key. */
+  private int[] counts = new int[64];
+  private boolean[] used = new boolean[64];
+  private int keyCount;
+
+  /** The tokens following a link and the slot of their link, in order. */
+  private DetailAST[] occurrences = new DetailAST[64];
+  private int[] occurrenceSlots = new int[64];
+  private int occurrenceCount;
+
+  /** The first start of a chain on every line, by line minus the method line. */
+  private DetailAST[] lineStarts = new DetailAST[64];
+  /** Whether a line contains a duplicate, by line minus the method line. */
+  private boolean[] duplicateLines = new boolean[64];
+  private int firstLine;
+  private int lineCount;
+
+  /** The pending siblings of the tree walk over a method body. */
+  private DetailAST[] stack = new DetailAST[32];
 
-    @Override
-    public boolean isMethod() {
-      return true;
+  /**
+   * Configure where chains are compared: {@code method}, the default, or
+   * {@code class} or {@code file}.
+   */
+  public void setScope(final String value) {
+    try {
+      scope = Scope.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (final IllegalArgumentException e) {
+      throw new IllegalArgumentException("scope '" + value + "' is not supported", e);
     }
   }
-  static class VariableRef extends Ref {
 
-    public VariableRef(final String name) {
-      super(name);
-    }
+  /** Configure in how many methods a chain may occur in class or file scope. */
+  public void setMaxOccurrences(final int limit) {
+    maxOccurrences = limit;
+  }
 
-    @Override
-    public boolean isMethod() {
-      return false;
-    }
+  /** Configure the number of names of the shortest reported chain in class or file scope. */
+  public void setMinLength(final int length) {
+    minLength = length;
   }
 
   @Override
-  public int[] getDefaultTokens() {
+  protected int[] getSearchedTokens() {
+    if (scope == Scope.METHOD) {
+      return new int[] {
+        TokenTypes.METHOD_DEF
+      };
+    }
     return new int[] {
-      TokenTypes.METHOD_DEF
+      TokenTypes.METHOD_CALL
     };
   }
 
-  static class SymbolTable {
+  @Override
+  public void beginTree(final DetailAST rootAST) {
+    super.beginTree(rootAST);
+    ids.clear();
+    names.clear();
+    chains.clear();
+    groups.clear();
+    methods.clear();
+  }
 
-    final Map<Ref, Set<DetailAST>> table = mkMap();
+  @Override
+  protected void visitSearchedToken(final DetailAST ast) {
+    if (scope == Scope.METHOD) {
+      findDuplicatesInMethod(ast);
+    } else {
+      indexChain(ast);
+    }
+  }
 
-    void addSymbol(final Ref ref, final DetailAST ast) {
-      if (table.containsKey(ref)) {
-        table.get(ref).add(ast);
-      } else {
-        table.put(ref, mkSet(ast));
-      }
+  private void findDuplicatesInMethod(final DetailAST ast) {
+    final DetailAST body = ast.findFirstToken(TokenTypes.SLIST);
+    if (body == null) {
+      return;
+    }
+
+    reset(ast.getLineNo());
+    findAllMethodChains(body);
+    findDuplicates();
+  }
+
+  private void reset(final int line) {
+    if (keyCount > 0) {
+      Arrays.fill(used, false);
+      keyCount = 0;
     }
+    Arrays.fill(occurrences, 0, occurrenceCount, null);
+    occurrenceCount = 0;
+    Arrays.fill(lineStarts, 0, lineCount, null);
+    Arrays.fill(duplicateLines, 0, lineCount, false);
+    lineCount = 0;
+    firstLine = line;
+  }
 
-    void addSymbol(final Ref ref) {
-      if (table.containsKey(ref)) {
-        throw new UnsupportedOperationException("symbol table already contains '" + ref + "'");
+  /**
+   * Records the chains of all method calls below the body, but not those
+   * in the arguments of a call.
+   */
+  private void findAllMethodChains(final DetailAST body) {
+    int size = 0;
+    DetailAST current = body.getFirstChild();
+    while (current != null || size > 0) {
+      if (current == null) {
+        current = stack[--size];
+        stack[size] = null;
+      }
+      if (current.getType() == TokenTypes.METHOD_CALL) {
+        findMethodChain(current);
+        current = current.getNextSibling();
+      } else {
+        if (current.getNextSibling() != null) {
+          if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+          }
+          stack[size++] = current.getNextSibling();
+        }
+        current = current.getFirstChild();
       }
-      table.put(ref, CollectionUtils.<DetailAST>mkSet());
     }
+  }
 
-    void init() {
-      table.clear();
+  /**
+   * Records the chain ending with a method call, from its end to its start.
+   */
+  private void findMethodChain(final DetailAST call) {
+    DetailAST dot = call.findFirstToken(TokenTypes.DOT);
+    if (dot == null) {
+      addStart(call.findFirstToken(TokenTypes.IDENT));
+      return;
     }
 
-    @Override
-    public String toString() {
-      return "SymbolTable" + table;
+    DetailAST parent = null;
+    while (true) {
+      final DetailAST lhs = dot.getFirstChild();
+      final DetailAST rhs = dot.getLastChild();
+
+      if (lhs.getType() == TokenTypes.IDENT) {
+        addStart(lhs);
+        addLink(VARIABLE, lhs.getText(), rhs);
+        addLink(METHOD, rhs.getText(), parent);
+        return;
+      }
+
+      final DetailAST nextDot = lhs.findFirstToken(TokenTypes.DOT);
+      if (nextDot == null) {
+        // a chain starting with a call, a constructor or an expression
+        final DetailAST ident = lhs.findFirstToken(TokenTypes.IDENT);
+        if (ident == null) {
+          addStart(lhs);
+        } else {
+          addStart(ident);
+          addLink(METHOD, ident.getText(), rhs);
+        }
+        addLink(METHOD, rhs.getText(), parent);
+        return;
+      }
+
+      addLink(METHOD, rhs.getText(), parent);
+      parent = rhs;
+      dot = nextDot;
     }
   }
 
-  private static final Ref THIS_REF = new VariableRef("this");
-
-  private final SymbolTable symbolTable = new SymbolTable();
+  private void addStart(final DetailAST ast) {
+    if (ast == null) {
+      return;
+    }
+    final int line = line(ast);
+    if (line >= 0 && lineStarts[line] == null) {
+      lineStarts[line] = ast;
+    }
+  }
 
-  @Override
-  public void visitToken(final DetailAST ast) {
-    try {
-    symbolTable.init();
+  /**
+   * Records that the receiver or method of the given name is followed by a
+   * token. The end of a chain is followed by nothing.
+   */
+  private void addLink(final int kind, final String name, final DetailAST next) {
+    if (next == null) {
+      return;
+    }
 
-    final DetailAST body = ast.findFirstToken(TokenTypes.SLIST);
+    final int slot = slot(id(name) << 1 | kind);
+    counts[slot] += 1;
 
-    findAllMethodChains(body);
-    findDuplicates();
-    } catch(final Exception e) {
-      e.printStackTrace();
+    if (occurrenceCount == occurrences.length) {
+      occurrences = Arrays.copyOf(occurrences, occurrenceCount * 2);
+      occurrenceSlots = Arrays.copyOf(occurrenceSlots, occurrenceCount * 2);
     }
+    occurrences[occurrenceCount] = next;
+    occurrenceSlots[occurrenceCount] = slot;
+    occurrenceCount += 1;
   }
 
-  private void findDuplicates() {
-    Set<DetailAST> duplicates = mkSet();
-    for (final Map.Entry<Ref, Set<DetailAST>> p : symbolTable.table.entrySet()) {
-      final Set<DetailAST> occurrences = p.getValue();
-      if (occurrences.size() > 1 && !p.getKey().equals(THIS_REF)) {
-        duplicates = Sets.union(duplicates, occurrences);
-      }
+  private int id(final String name) {
+    final Integer id = ids.get(name);
+    if (id != null) {
+      return id;
     }
-    final Set<DetailAST> lineStarts = symbolTable.table.get(THIS_REF);
+    ids.put(name, names.size());
+    names.add(name);
+    return names.size() - 1;
+  }
 
-    for (final DetailAST ast : differentLineNo(duplicates)) {
-      final DetailAST start = find(lineStarts, ast.getLineNo());
-      log(start.getLineNo(), start.getColumnNo(), "duplicate found");
+  /**
+   * @return the slot of a key in the table, which is added if it is missing
+   */
+  private int slot(final int key) {
+    if ((keyCount + 1) * 2 > keys.length) {
+      growKeys();
+    }
+    final int mask = keys.length - 1;
+    int slot = (key * 0x9E3779B9) >>> 16 & mask;
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
     }
+    used[slot] = true;
+    keys[slot] = key;
+    counts[slot] = 0;
+    keyCount += 1;
+    return slot;
   }
 
-  private DetailAST find(final Set<DetailAST> set, final int lineNo) {
-    for (final DetailAST ast : set) {
-      if (ast.getLineNo() == lineNo) {
-        return ast;
+  /**
+   * Doubles the key table. Only called while no occurrence refers to a slot
+   * of a key that is moved, that is before the first occurrence of a method
+   * is recorded or by remapping the recorded ones.
+   */
+  private void growKeys() {
+    final int[] oldKeys = keys;
+    final int[] oldCounts = counts;
+    final boolean[] oldUsed = used;
+    final int[] moved = new int[oldKeys.length];
+    keys = new int[oldKeys.length * 2];
+    counts = new int[oldKeys.length * 2];
+    used = new boolean[oldKeys.length * 2];
+    keyCount = 0;
+    for (int i = 0; i < oldKeys.length; ++i) {
+      if (oldUsed[i]) {
+        moved[i] = slot(oldKeys[i]);
+        counts[moved[i]] = oldCounts[i];
       }
     }
-    throw new IllegalArgumentException("line number '" + lineNo + "' not found");
+    for (int i = 0; i < occurrenceCount; ++i) {
+      occurrenceSlots[i] = moved[occurrenceSlots[i]];
+    }
   }
 
-  private Set<DetailAST> differentLineNo(final Set<DetailAST> set) {
-    if (set.isEmpty()) {
-      return set;
+  /**
+   * @return the line of a token relative to the method, grows the line
+   *         tables if necessary. Tokens before the method give -1.
+   */
+  private int line(final DetailAST ast) {
+    final int line = ast.getLineNo() - firstLine;
+    if (line < 0) {
+      return -1;
     }
-    final List<DetailAST> elems = mkList();
-    elems.addAll(set);
-    Collections.sort(elems, new Comparator<DetailAST>() {
-      @Override
-      public int compare(final DetailAST a1, final DetailAST a2) {
-        return a1.getColumnNo() - a2.getColumnNo();
-      }
-    });
-    final DetailAST first = elems.get(0);
-    final Set<DetailAST> ret = new TreeSet<DetailAST>(new Comparator<DetailAST>() {
-      @Override
-      public int compare(final DetailAST a1, final DetailAST a2) {
-        return a1.getLineNo() - a2.getLineNo();
+    if (line >= lineStarts.length) {
+      final int length = Math.max(line + 1, lineStarts.length * 2);
+      lineStarts = Arrays.copyOf(lineStarts, length);
+      duplicateLines = Arrays.copyOf(duplicateLines, length);
+    }
+    lineCount = Math.max(lineCount, line + 1);
+    return line;
+  }
+
+  /**
+   * Reports the start of every line that contains a token following a
+   * duplicate. Lines without a start are not reported.
+   */
+  private void findDuplicates() {
+    for (int i = 0; i < occurrenceCount; ++i) {
+      if (counts[occurrenceSlots[i]] > 1) {
+        final int line = line(occurrences[i]);
+        if (line >= 0) {
+          duplicateLines[line] = true;
+        }
       }
-    });
-    ret.add(first);
-    for (int i = 1, end = elems.size(); i < end; ++i) {
-      if (first.getLineNo() != elems.get(i).getLineNo()) {
-        ret.add(elems.get(i));
+    }
+
+    for (int line = 0; line < lineCount; ++line) {
+      if (duplicateLines[line] && lineStarts[line] != null) {
+        final DetailAST start = lineStarts[line];
+        log(start.getLineNo(), start.getColumnNo(), "duplicate found");
       }
     }
-    return ret;
   }
 
-  private void findAllMethodChains(final DetailAST ast) {
-    for (DetailAST child = ast.getFirstChild(); child != null; child = child.getNextSibling()) {
-      if (child.getType() == TokenTypes.METHOD_CALL) {
-        findMethodChain(child);
+  /**
+   * Indexes the chain ending with a call, unless the call is only a part of
+   * a longer chain.
+   */
+  private void indexChain(final DetailAST call) {
+    final DetailAST parent = call.getParent();
+    if (parent.getType() == TokenTypes.DOT && parent.getFirstChild() == call) {
+      return;
+    }
+
+    int length = 0;
+    DetailAST start = null;
+    DetailAST node = call;
+    while (start == null) {
+      final DetailAST target = node.getType() == TokenTypes.METHOD_CALL ? node.getFirstChild() : node;
+      final String name;
+      if (target.getType() == TokenTypes.LPAREN) {
+        // a parenthesized start, like (new A()).getB()
+        node = target.getNextSibling();
+        continue;
+      } else if (target.getType() == TokenTypes.DOT) {
+        name = target.getLastChild().getText();
+        node = target.getFirstChild();
+      } else if (target.getType() == TokenTypes.LITERAL_NEW
+          && target.findFirstToken(TokenTypes.IDENT) != null) {
+        name = "new " + target.findFirstToken(TokenTypes.IDENT).getText();
+        start = target;
       } else {
-        findAllMethodChains(child);
+        name = target.getText();
+        start = target;
       }
+      if (length == chain.length) {
+        chain = Arrays.copyOf(chain, length * 2);
+      }
+      chain[length++] = id(name);
     }
-  }
 
-  private void findMethodChain(final DetailAST ast) {
-    require(ast.getType() == TokenTypes.METHOD_CALL, "AST is not a method call");
-
-    final DetailAST dot = ast.findFirstToken(TokenTypes.DOT);
-    if (dot == null) {
-      final DetailAST ident = ast.findFirstToken(TokenTypes.IDENT);
-      symbolTable.addSymbol(THIS_REF, ident);
-    } else {
-      nextMethodChain(dot, null);
+    for (int i = 0, j = length - 1; i < j; ++i, --j) {
+      final int id = chain[i];
+      chain[i] = chain[j];
+      chain[j] = id;
     }
+    chains.add(group(), method(), start, chain, length);
   }
 
   /**
-   * Helper function of {@link this#findMethodChain(DetailAST)}.
+   * @return the group of the current chain, the innermost named type in
+   *         class scope
    */
-  private void nextMethodChain(final DetailAST dot, final DetailAST parent) {
-    require(dot.getType() == TokenTypes.DOT, "AST is not a dot");
+  private int group() {
+    final DetailAST type = scopes().type();
+    if (scope == Scope.FILE || type == null) {
+      return 0;
+    }
+    final Integer group = groups.get(type);
+    if (group != null) {
+      return group;
+    }
+    groups.put(type, groups.size() + 1);
+    return groups.size();
+  }
 
-    final DetailAST lhs = dot.getFirstChild();
-    final DetailAST rhs = dot.getLastChild();
+  /**
+   * @return the id of the innermost method of the current chain, 0 outside
+   *         of methods
+   */
+  private int method() {
+    final DetailAST method = scopes().method();
+    if (method == null) {
+      return 0;
+    }
+    final Integer id = methods.get(method);
+    if (id != null) {
+      return id;
+    }
+    methods.put(method, methods.size() + 1);
+    return methods.size();
+  }
 
-    if (lhs.getType() == TokenTypes.IDENT) {
-      symbolTable.addSymbol(THIS_REF, lhs);
-      symbolTable.addSymbol(new VariableRef(lhs.getText()), rhs);
-      // TODO what if rhs is variable?
-      symbolTable.addSymbol(new MethodRef(rhs.getText()), parent);
-    } else {
-      final DetailAST nextDot = lhs.findFirstToken(TokenTypes.DOT);
+  @Override
+  public void finishTree(final DetailAST rootAST) {
+    if (scope == Scope.METHOD) {
+      return;
+    }
 
-      if (nextDot == null) {
-        final DetailAST ident = lhs.findFirstToken(TokenTypes.IDENT);
-        symbolTable.addSymbol(THIS_REF, ident);
-        symbolTable.addSymbol(new MethodRef(ident.getText()), rhs);
-        symbolTable.addSymbol(new MethodRef(rhs.getText()), parent);
-      } else {
-        symbolTable.addSymbol(new MethodRef(rhs.getText()), parent);
-        nextMethodChain(nextDot, rhs);
+    final String where = scope.name().toLowerCase(Locale.ROOT);
+    for (int i = 0; i < chains.size(); ++i) {
+      final int length = chains.longestRepeated(i, minLength, maxOccurrences);
+      if (length > 0 && chains.isFirst(i, length)) {
+        final String[] text = new String[length];
+        for (int j = 0; j < length; ++j) {
+          text[j] = names.get(chains.id(i, j));
+        }
+        final DetailAST start = chains.start(i);
+        log(start.getLineNo(), start.getColumnNo(), "call.chain.repeated",
+            StringUtils.join(text, '.'), chains.count(i, length), where);
       }
     }
+    chains.clear();
   }
 }
@@ -0,0 +1,262 @@
+package edu.kit.checkstyle.checks;
+
+import java.util.Arrays;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+
+/**
+ * Counts the methods that contain the prefixes of call chains, like
+ * {@code a}, {@code a.getB} and {@code a.getB.getC} for
+ * {@code a.getB().getC()}.
+ * <p>
+ * A chain is a sequence of interned name ids. Every prefix is identified by
+ * a rolling 64 bit hash of its ids and of the group it belongs to, for
+ * example a class, and counted in an open addressing table. A prefix is
+ * counted once per method, so repeating it within a method does not count.
+ * Memory and time are linear in the total length of the chains. Prefixes
+ * whose hashes collide are counted together, which is unlikely enough to be
+ * ignored.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+final class ChainIndex {
+
+  private static final long PRIME = 0x100000001B3L;
+  private static final long SEED = 0xCBF29CE484222325L;
+
+  /** The ids of all chains, one after the other. */
+  private int[] ids = new int[256];
+  /** The hash of the prefix ending at every id. */
+  private long[] hashes = new long[256];
+  private int idCount;
+
+  /** The start token, first id and length of every chain. */
+  private DetailAST[] starts = new DetailAST[64];
+  private int[] offsets = new int[64];
+  private int[] lengths = new int[64];
+  private int size;
+
+  /** The number of methods with a prefix, by the hash of the prefix. */
+  private long[] keys = new long[256];
+  private int[] counts = new int[256];
+  /** The first chain with a prefix, by the hash of the prefix. */
+  private int[] firsts = new int[256];
+  private boolean[] used = new boolean[256];
+  private int keyCount;
+
+  /** The prefixes already counted for a method, by the hash of both. */
+  private long[] counted = new long[256];
+  private boolean[] countedUsed = new boolean[256];
+  private int countedCount;
+
+  /**
+   * Forgets all chains.
+   */
+  void clear() {
+    Arrays.fill(starts, 0, size, null);
+    size = 0;
+    idCount = 0;
+    if (keyCount > 0) {
+      Arrays.fill(used, false);
+      keyCount = 0;
+    }
+    if (countedCount > 0) {
+      Arrays.fill(countedUsed, false);
+      countedCount = 0;
+    }
+  }
+
+  /**
+   * Adds a chain.
+   *
+   * @param group
+   *        the group of the chain, only prefixes of the same group are equal
+   * @param method
+   *        the method of the chain, its prefixes are counted once per method
+   * @param start
+   *        the token the chain starts with
+   * @param chain
+   *        the ids of the chain, starting at 0
+   * @param length
+   *        the number of ids of the chain
+   */
+  void add(final int group, final int method, final DetailAST start, final int[] chain,
+      final int length) {
+    if (size == starts.length) {
+      starts = Arrays.copyOf(starts, size * 2);
+      offsets = Arrays.copyOf(offsets, size * 2);
+      lengths = Arrays.copyOf(lengths, size * 2);
+    }
+    starts[size] = start;
+    offsets[size] = idCount;
+    lengths[size] = length;
+    size += 1;
+
+    if (idCount + length > ids.length) {
+      final int capacity = Math.max(idCount + length, ids.length * 2);
+      ids = Arrays.copyOf(ids, capacity);
+      hashes = Arrays.copyOf(hashes, capacity);
+    }
+    long hash = (SEED ^ group) * PRIME;
+    for (int i = 0; i < length; ++i) {
+      hash = (hash ^ chain[i]) * PRIME;
+      ids[idCount] = chain[i];
+      hashes[idCount] = hash;
+      idCount += 1;
+      final int slot = slot(hash);
+      if (countOnce((hash ^ method) * PRIME)) {
+        counts[slot] += 1;
+      }
+    }
+  }
+
+  /**
+   * @return the number of chains
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the token the chain starts with
+   */
+  DetailAST start(final int chain) {
+    return starts[chain];
+  }
+
+  /**
+   * @return the id at the given position of the chain
+   */
+  int id(final int chain, final int position) {
+    return ids[offsets[chain] + position];
+  }
+
+  /**
+   * @return the number of methods sharing the prefix of the given length
+   */
+  int count(final int chain, final int length) {
+    final int slot = slot(hashes[offsets[chain] + length - 1]);
+    return counts[slot];
+  }
+
+  /**
+   * @return whether the chain is the first one with the prefix of the given
+   *         length
+   */
+  boolean isFirst(final int chain, final int length) {
+    final int slot = slot(hashes[offsets[chain] + length - 1]);
+    return firsts[slot] == chain;
+  }
+
+  /**
+   * @return the length of the longest prefix of a chain that is at least
+   *         {@code minLength} long and shared by more than {@code max}
+   *         methods, 0 if there is none
+   */
+  int longestRepeated(final int chain, final int minLength, final int max) {
+    for (int length = lengths[chain]; length >= minLength && length > 0; --length) {
+      if (count(chain, length) > max) {
+        return length;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @return the slot of a hash in the table, which is added if it is missing
+   */
+  private int slot(final long hash) {
+    int slot = find(hash);
+    if (used[slot]) {
+      return slot;
+    }
+    if ((keyCount + 1) * 2 > keys.length) {
+      grow();
+      slot = find(hash);
+    }
+    used[slot] = true;
+    keys[slot] = hash;
+    counts[slot] = 0;
+    firsts[slot] = size - 1;
+    keyCount += 1;
+    return slot;
+  }
+
+  /**
+   * Adds the hash of a prefix and a method to the counted ones.
+   *
+   * @return whether it was not counted before
+   */
+  private boolean countOnce(final long hash) {
+    int mask = counted.length - 1;
+    int slot = (int) (hash ^ hash >>> 32) & mask;
+    while (countedUsed[slot]) {
+      if (counted[slot] == hash) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if ((countedCount + 1) * 2 > counted.length) {
+      growCounted();
+      mask = counted.length - 1;
+      slot = (int) (hash ^ hash >>> 32) & mask;
+      while (countedUsed[slot]) {
+        slot = (slot + 1) & mask;
+      }
+    }
+    countedUsed[slot] = true;
+    counted[slot] = hash;
+    countedCount += 1;
+    return true;
+  }
+
+  /**
+   * @return the slot of a hash or the free slot to add it to
+   */
+  private int find(final long hash) {
+    final int mask = keys.length - 1;
+    int slot = (int) (hash ^ hash >>> 32) & mask;
+    while (used[slot] && keys[slot] != hash) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void grow() {
+    final long[] oldKeys = keys;
+    final int[] oldCounts = counts;
+    final int[] oldFirsts = firsts;
+    final boolean[] oldUsed = used;
+    keys = new long[oldKeys.length * 2];
+    counts = new int[oldKeys.length * 2];
+    firsts = new int[oldKeys.length * 2];
+    used = new boolean[oldKeys.length * 2];
+    keyCount = 0;
+    for (int i = 0; i < oldKeys.length; ++i) {
+      if (oldUsed[i]) {
+        final int slot = slot(oldKeys[i]);
+        counts[slot] = oldCounts[i];
+        firsts[slot] = oldFirsts[i];
+      }
+    }
+  }
+
+  private void growCounted() {
+    final long[] oldCounted = counted;
+    final boolean[] oldUsed = countedUsed;
+    counted = new long[oldCounted.length * 2];
+    countedUsed = new boolean[oldCounted.length * 2];
+    final int mask = counted.length - 1;
+    for (int i = 0; i < oldCounted.length; ++i) {
+      if (oldUsed[i]) {
+        int slot = (int) (oldCounted[i] ^ oldCounted[i] >>> 32) & mask;
+        while (countedUsed[slot]) {
+          slot = (slot + 1) & mask;
+        }
+        countedUsed[slot] = true;
+        counted[slot] = oldCounted[i];
+      }
+    }
+  }
+}
@@ -4,17 +4,35 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import java.util.Arrays;
-import java.util.List;
 
 
 /**
  * Checks the nesting depth of control flow constructs.
  *
+ * The depths of the enclosing control flow tokens are kept on a stack while
+ * the tree is walked, so the depth of a token is known without looking at
+ * its parents. The path of the nesting is only built for a violation.
  */
 public class ControlFlowNestingDepthCheck extends Check {
 
+  // we use these tokens to trigger the check.
+  // not a perfect choice but i guess there is no best choice for this.
+  private static final int[] CONTROL_FLOW_TOKENS = {
+      TokenTypes.LITERAL_IF,
+      TokenTypes.LITERAL_ELSE,
+      TokenTypes.LITERAL_TRY,
+      TokenTypes.LITERAL_CATCH,
+      TokenTypes.LITERAL_WHILE,
+      TokenTypes.LITERAL_FOR,
+      TokenTypes.LITERAL_SWITCH
+  };
+
   private int max = 4;
 
+  /** The depths of the control flow tokens enclosing the current one. */
+  private int[] depths = new int[16];
+  private int size;
+
   /**
    * Configure the allowed control flow nesting depth.
    */
@@ -26,7 +44,7 @@ public class ControlFlowNestingDepthCheck extends Check {
    * Return true iff the ast element is a literal control flow element.
    */
   private boolean isControlFlowLiteral(DetailAST ast) {
-      for (int controlFlowToken : getDefaultTokens()) {
+      for (int controlFlowToken : CONTROL_FLOW_TOKENS) {
           if (ast.getType() == controlFlowToken) {
               return true;
           }
@@ -35,19 +53,9 @@ public class ControlFlowNestingDepthCheck extends Check {
       return false;
   }
 
-  // we use these tokens to trigger the check.
-  // not a perfect choice but i guess there is no best choice for this.
   @Override
   public int[] getDefaultTokens() {
-    return new int[] {
-        TokenTypes.LITERAL_IF,
-        TokenTypes.LITERAL_ELSE,
-        TokenTypes.LITERAL_TRY,
-        TokenTypes.LITERAL_CATCH,
-        TokenTypes.LITERAL_WHILE,
-        TokenTypes.LITERAL_FOR,
-        TokenTypes.LITERAL_SWITCH
-    };
+    return CONTROL_FLOW_TOKENS.clone();
   }
 
   /**
@@ -133,21 +141,63 @@ public class ControlFlowNestingDepthCheck extends Check {
       return current;
   }
 
-  @Override
-  public void visitToken(final DetailAST ast) {
-    final int line = ast.getLineNo();
-    final int column = ast.getColumnNo();
+  /**
+   * Return whether ast belongs to the group of its parent, like an else to
+   * its if or a catch to its try. It is as deep as its parent then.
+   */
+  private static boolean isGrouped(DetailAST ast) {
+    final DetailAST parent = ast.getParent();
+    if (parent == null) {
+      return false;
+    }
 
-    int depth = 1;
-    String nesting = new String(ast.getText());
+    switch (ast.getType()) {
+      case TokenTypes.LITERAL_CATCH:
+        return parent.getType() == TokenTypes.LITERAL_CATCH
+            || parent.getType() == TokenTypes.LITERAL_TRY;
+      case TokenTypes.LITERAL_IF:
+        return parent.getType() == TokenTypes.LITERAL_ELSE;
+      case TokenTypes.LITERAL_ELSE:
+        return parent.getType() == TokenTypes.LITERAL_IF;
+      default:
+        return false;
+    }
+  }
 
+  /**
+   * Return the texts of the unrelated control flow statements enclosing ast
+   * and of ast itself, separated by slashes.
+   */
+  private String nesting(DetailAST ast) {
+    final StringBuilder nesting = new StringBuilder(ast.getText());
     DetailAST token = getControlFlowParent(ast);
     while (token != null) {
-      nesting = token.getText() + "/" + nesting;
-      ++depth;
-
+      nesting.insert(0, '/').insert(0, token.getText());
       token = getControlFlowParent(token);
     }
+    return nesting.toString();
+  }
+
+  @Override
+  public void beginTree(final DetailAST rootAST) {
+    size = 0;
+  }
+
+  @Override
+  public void visitToken(final DetailAST ast) {
+    // the parent of a grouped token is a control flow token, so it is the
+    // innermost one on the stack
+    final int depth;
+    if (size > 0 && isGrouped(ast)) {
+      depth = depths[size - 1];
+    } else {
+      depth = size > 0 ? depths[size - 1] + 1 : 1;
+    }
+
+    if (size == depths.length) {
+      depths = Arrays.copyOf(depths, size * 2);
+    }
+    depths[size++] = depth;
 
     if (ast.getType() == TokenTypes.LITERAL_ELSE &&
         ast.getFirstChild().getType() == TokenTypes.LITERAL_IF) {
@@ -157,7 +207,13 @@ public class ControlFlowNestingDepthCheck extends Check {
     }
 
     if (depth > max) {
-      log(line, column, "control.flow.nesting.depth", depth, max);
+      log(ast.getLineNo(), ast.getColumnNo(), "control.flow.nesting.depth",
+          depth, max, nesting(ast));
     }
   }
+
+  @Override
+  public void leaveToken(final DetailAST ast) {
+    size -= 1;
+  }
 }
@@ -1,12 +1,14 @@
 package edu.kit.checkstyle.checks;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
+import edu.kit.checkstyle.CollectionUtils;
 import edu.kit.checkstyle.TokenSearcherCheck;
 import static edu.kit.checkstyle.CollectionUtils.*;
 
@@ -21,90 +23,194 @@ import static edu.kit.checkstyle.CollectionUtils.*;
  * given method calls will not lead to an error if they occur in such "free"
  * methods. If no "free" methods are specified every found and specified method
  * call leads to an error.
+ * <p>
+ * The methods are indexed by the simple name of their class, so every member
+ * access and method reference costs a single hash lookup unless its receiver
+ * is one of the classes. Imports are not usages.
  *
  * @since JDK1.7, 07.06.2013
  */
 public class DiscouragedMethodCallCheck extends TokenSearcherCheck {
 
+  private static final String WILDCARD = "*";
+
   static class Prop {
 
     final String allowedMethod;
     final String className;
     final String methodName;
+    /** The package of the class, empty if the class is not qualified. */
+    final String qualifier;
+    /** The position of the method in the configuration. */
+    final int index;
 
-    public Prop(final String allowedMethod, final String className, final String methodName) {
+    public Prop(final String allowedMethod, final String className, final String methodName,
+        final int index) {
       this.allowedMethod = allowedMethod;
       this.className = className;
       this.methodName = methodName;
+      this.qualifier = className.contains(".") ? StringUtils.substringBeforeLast(className, ".") : "";
+      this.index = index;
+    }
+
+    /**
+     * A qualified class only matches receivers with the same qualifier, or
+     * no qualifier because the class is imported.
+     */
+    boolean matchesQualifier(final String receiverQualifier) {
+      return qualifier.isEmpty() || receiverQualifier.isEmpty() || qualifier.equals(receiverQualifier);
+    }
+  }
+
+  /** The methods of a class with the same simple name, in configuration order. */
+  static class Receiver {
+
+    final Map<String, List<Prop>> members = mkMap();
+    final List<Prop> wildcards = mkList();
+
+    void add(final Prop prop) {
+      if (prop.methodName.equals(WILDCARD)) {
+        wildcards.add(prop);
+      } else {
+        if (!members.containsKey(prop.methodName)) {
+          members.put(prop.methodName, CollectionUtils.<Prop>mkList());
+        }
+        members.get(prop.methodName).add(prop);
+      }
     }
   }
 
-  private List<Prop> props = mkList();
+  /** The methods by the simple name of their class. */
+  private Map<String, Receiver> receivers = mkMap();
 
   /**
    * Sets all the methods this check searches for.
    *
    * The expected format is a comma separated list where each part is of format
-   * {@code <allowedMethod>:<class>.<method>} or {@code <class>.<method>}
+   * {@code <allowedMethod>:<class>.<method>} or {@code <class>.<method>}. The
+   * class may be qualified with its package, the method may be {@code *} for
+   * all members of the class.
    *
    * Example input string:
    *
-   * "main:System.exit,System.out,System.in"
+   * "main:System.exit,System.out,System.in,java.lang.Runtime.*"
    *
    * @param value the input string
    */
   public void setCheckedMethods(final String value) {
-    final List<Prop> props = mkList();
+    final Map<String, Receiver> receivers = mkMap();
+    int index = 0;
     for (final String p : StringUtils.split(value, ",")) {
-      final String[] parts = p.split("[:.]");
-      if (parts.length != 2 && parts.length != 3) {
+      final String[] scoped = p.split(":", -1);
+      final String name = scoped[scoped.length - 1];
+      final int dot = name.lastIndexOf('.');
+      if (scoped.length > 2 || dot <= 0 || dot == name.length() - 1
+          || (scoped.length == 2 && scoped[0].isEmpty())) {
         throw new IllegalArgumentException("format of value '" + value + "' is not supported");
       }
 
-      final boolean hasMethodScope = parts.length == 3;
-      props.add(hasMethodScope ?
-          new Prop(parts[0], parts[1], parts[2]) :
-          new Prop("", parts[0], parts[1]));
+      final Prop prop = new Prop(scoped.length == 2 ? scoped[0] : "",
+          name.substring(0, dot), name.substring(dot + 1), index++);
+      final String simpleName = StringUtils.substringAfterLast("." + prop.className, ".");
+      if (!receivers.containsKey(simpleName)) {
+        receivers.put(simpleName, new Receiver());
+      }
+      receivers.get(simpleName).add(prop);
     }
-    this.props = props;
+    this.receivers = receivers;
   }
 
   @Override
-  public int[] getDefaultTokens() {
+  protected int[] getSearchedTokens() {
     return new int[] {
-        TokenTypes.IDENT
+        TokenTypes.DOT,
+        TokenTypes.METHOD_REF
     };
   }
 
   @Override
-  public void visitToken(final DetailAST ast) {
-    final int line = ast.getLineNo();
-    final int column = ast.getColumnNo();
+  protected void visitSearchedToken(final DetailAST ast) {
+    final DetailAST lhs = ast.getFirstChild();
+    final DetailAST member = ast.getLastChild();
+    if (member.getType() != TokenTypes.IDENT || isImported(ast)) {
+      return;
+    }
+
+    final DetailAST receiverName;
+    if (lhs.getType() == TokenTypes.IDENT) {
+      receiverName = lhs;
+    } else if (lhs.getType() == TokenTypes.DOT && lhs.getLastChild().getType() == TokenTypes.IDENT) {
+      receiverName = lhs.getLastChild();
+    } else {
+      return;
+    }
 
-    for (final Prop prop : props) {
-      if (propFound(ast, prop) && !isInAllowedMethod(ast, prop)) {
+    final Receiver receiver = receivers.get(receiverName.getText());
+    if (receiver == null) {
+      return;
+    }
+
+    final List<Prop> named = receiver.members.get(member.getText());
+    final List<Prop> wildcards = receiver.wildcards;
+    if (named == null && wildcards.isEmpty()) {
+      return;
+    }
+
+    // report in configuration order
+    final String qualifier = lhs == receiverName ? "" : dottedName(lhs.getFirstChild());
+    int i = 0;
+    int j = 0;
+    final int namedSize = named == null ? 0 : named.size();
+    while (i < namedSize || j < wildcards.size()) {
+      final Prop prop;
+      if (j == wildcards.size() || (i < namedSize && named.get(i).index < wildcards.get(j).index)) {
+        prop = named.get(i++);
+      } else {
+        prop = wildcards.get(j++);
+      }
+      if (prop.matchesQualifier(qualifier) && !isInAllowedMethod(prop)) {
         final String context = prop.allowedMethod.isEmpty() ? "" :
             String.format(" outside of the %s method", prop.allowedMethod);
         final String msg = String.format(
             "The usage of ''%s.%s''%s is discouraged",
-            prop.className, prop.methodName, context);
-        log(line, column, msg);
+            prop.className, member.getText(), context);
+        log(member.getLineNo(), member.getColumnNo(), msg);
       }
     }
   }
 
-  private boolean propFound(final DetailAST ast, final Prop prop) {
-    return
-        eqName(ast, prop.methodName) &&
-        ast.getPreviousSibling() != null &&
-        eqName(ast.getPreviousSibling(), prop.className);
+  /**
+   * Return the name of a qualifier like {@code java.lang}, or an empty
+   * string if it is not a plain name.
+   */
+  private static String dottedName(final DetailAST ast) {
+    if (ast.getType() == TokenTypes.IDENT) {
+      return ast.getText();
+    }
+    if (ast.getType() == TokenTypes.DOT && ast.getLastChild().getType() == TokenTypes.IDENT) {
+      final String lhs = dottedName(ast.getFirstChild());
+      return lhs.isEmpty() ? "" : lhs + "." + ast.getLastChild().getText();
+    }
+    return "";
   }
 
-  private boolean isInAllowedMethod(final DetailAST ast, final Prop prop) {
-    return !prop.allowedMethod.isEmpty() && eqName(getContainingMethodName(ast), prop.allowedMethod);
+  /**
+   * Return whether a member access is part of the name of an import.
+   */
+  private static boolean isImported(final DetailAST ast) {
+    DetailAST parent = ast.getParent();
+    while (parent != null && parent.getType() == TokenTypes.DOT) {
+      parent = parent.getParent();
+    }
+    return parent != null
+        && (parent.getType() == TokenTypes.IMPORT || parent.getType() == TokenTypes.STATIC_IMPORT);
   }
 
-  private DetailAST getContainingMethodName(final DetailAST ast) {
-    return getContainingMethod(ast).findFirstToken(TokenTypes.IDENT);
+  private boolean isInAllowedMethod(final Prop prop) {
+    if (prop.allowedMethod.isEmpty()) {
+      return false;
+    }
+    final DetailAST method = scopes().method();
+    return method != null && eqName(method.findFirstToken(TokenTypes.IDENT), prop.allowedMethod);
   }
 }
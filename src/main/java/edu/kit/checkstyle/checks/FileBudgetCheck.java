@@ -0,0 +1,121 @@
+package edu.kit.checkstyle.checks;
+
+import java.util.List;
+
+import com.google.common.primitives.Ints;
+import com.puppycrawl.tools.checkstyle.Utils;
+import com.puppycrawl.tools.checkstyle.api.Check;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Abandons files that are too large or take too long to check, so that a
+ * single generated or adversarial file cannot stall a whole audit.
+ * <p>
+ * The number of AST nodes is counted before any token is visited. A file
+ * exceeding it is emptied, so the other checks do not visit any of its
+ * tokens. The wall-clock time is measured from the start of the tree walk
+ * and checked while the tokens are visited. As a check cannot stop the
+ * others, the walk of a file that took too long still goes on, but the
+ * {@link edu.kit.checkstyle.AuditExecutor} neither waits for it nor reports
+ * anything but the message of this check for an abandoned file. A budget of
+ * zero disables it.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public class FileBudgetCheck extends Check {
+
+  /** The key of the message of a file that took too long. */
+  public static final String TIME_KEY = "file.budget.time";
+
+  /** The key of the message of a file with too many nodes. */
+  public static final String NODES_KEY = "file.budget.nodes";
+
+  /** The clock is only read for every this many tokens. */
+  private static final int CLOCK_INTERVAL = 64;
+
+  private long maxMillis = 0;
+
+  private int maxNodes = 0;
+
+  private long deadline;
+
+  private int visited;
+
+  /** Configure the maximal time in milliseconds spent on checking a file. */
+  public void setMaxMillis(final long limit) {
+    maxMillis = limit;
+  }
+
+  /** Configure the maximal number of AST nodes of a file. */
+  public void setMaxNodes(final int limit) {
+    maxNodes = limit;
+  }
+
+  @Override
+  public int[] getDefaultTokens() {
+    // comment tokens would make the TreeWalker walk every file a second time
+    final List<Integer> tokens = mkList();
+    for (final int token : Utils.getAllTokenIds()) {
+      if (!Utils.isCommentType(token) && token != TokenTypes.EOF) {
+        tokens.add(token);
+      }
+    }
+    return Ints.toArray(tokens);
+  }
+
+  @Override
+  public void beginTree(final DetailAST rootAST) {
+    visited = 0;
+    deadline = maxMillis > 0 ? System.nanoTime() + maxMillis * 1000000L : Long.MAX_VALUE;
+
+    if (maxNodes > 0 && countNodes(rootAST) > maxNodes) {
+      log(rootAST, NODES_KEY, maxNodes);
+      empty(rootAST);
+    }
+  }
+
+  @Override
+  public void visitToken(final DetailAST ast) {
+    if (++visited % CLOCK_INTERVAL == 0 && System.nanoTime() > deadline) {
+      log(1, TIME_KEY, maxMillis);
+      deadline = Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Turns the root of a tree that was not walked yet into the end of the
+   * file, which no check visits, and drops all other nodes.
+   */
+  private static void empty(final DetailAST rootAST) {
+    rootAST.setType(TokenTypes.EOF);
+    rootAST.setText("");
+    rootAST.setFirstChild(null);
+    rootAST.setNextSibling(null);
+  }
+
+  /**
+   * Counts the nodes of all trees starting at the given one without
+   * recursion, so that deeply nested files are counted safely as well.
+   * Counting stops as soon as the budget is exceeded.
+   */
+  private int countNodes(final DetailAST root) {
+    int count = 0;
+    DetailAST cur = root;
+    while (cur != null && count <= maxNodes) {
+      count += 1;
+      DetailAST next = cur.getFirstChild();
+      while (cur != null && next == null) {
+        next = cur.getNextSibling();
+        if (next == null) {
+          cur = cur.getParent();
+        }
+      }
+      cur = next;
+    }
+    return count;
+  }
+}
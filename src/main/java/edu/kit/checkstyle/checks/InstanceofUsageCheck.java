@@ -1,7 +1,5 @@
 package edu.kit.checkstyle.checks;
 
-import java.util.Set;
-
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -17,15 +15,15 @@ import edu.kit.checkstyle.TokenSearcherCheck;
 public class InstanceofUsageCheck extends TokenSearcherCheck {
 
   @Override
-  public int[] getDefaultTokens() {
+  protected int[] getSearchedTokens() {
     return new int[] {
         TokenTypes.LITERAL_INSTANCEOF
     };
   }
 
   @Override
-  public void visitToken(final DetailAST ast) {
-    final DetailAST methodDef = getContainingMethod(ast);
+  protected void visitSearchedToken(final DetailAST ast) {
+    final DetailAST methodDef = scopes().method();
     final boolean isEqualsMethod = methodDef == null ? false : isEqualsMethod(methodDef);
 
     if (!isEqualsMethod) {
@@ -49,8 +47,7 @@ public class InstanceofUsageCheck extends TokenSearcherCheck {
         return false;
     }
 
-    final Set<String> mods = modifierNames(methodDef);
-    return mods.contains("public") && !mods.contains("static");
+    return isPublic(methodDef) && !isStatic(methodDef);
   }
 
   private boolean eqParamCount(final DetailAST ast, final int count) {
@@ -1,21 +1,24 @@
 package edu.kit.checkstyle.checks;
 
-import java.util.Set;
-
-import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
 import java.util.Map;
 import java.util.HashMap;
 
+import edu.kit.checkstyle.AuditScope;
+import edu.kit.checkstyle.TokenSearcherCheck;
+
 /**
  * Detect usage of literals in the middle of the code.
  */
-public class LiteralsWithoutConstantCheck extends Check {
+public class LiteralsWithoutConstantCheck extends TokenSearcherCheck implements AuditScope.CrossFile {
 
   private Map<String, Integer> counts = new HashMap<String,Integer>();
 
+  /** The audit the counts belong to, see {@link AuditScope}. */
+  private long audit = AuditScope.current();
+
   private int stringMax = -1;
 
   /** Provide a specific limit for strings */
@@ -29,26 +32,8 @@ public class LiteralsWithoutConstantCheck extends Check {
       max = maximum;
   }
 
-  /**
-   * Literals are accepted in attribute definitions.
-   *
-   * Should check if they are final, though.
-   */
-  private boolean isInAttributeDefinition(DetailAST ast) {
-    DetailAST current = ast;
-    while (current != null) {
-      if (current.getType() == TokenTypes.VARIABLE_DEF &&
-        current.getParent().getType() == TokenTypes.OBJBLOCK) {
-        return true;
-      }
-      current = current.getParent();
-    }
-
-    return false;
-  }
-
   @Override
-  public int[] getDefaultTokens() {
+  protected int[] getSearchedTokens() {
     return new int[] {
       TokenTypes.NUM_INT,
       TokenTypes.CHAR_LITERAL,
@@ -59,8 +44,18 @@ public class LiteralsWithoutConstantCheck extends Check {
     };
   }
 
+  /** Literals are counted per audit, so forget the counts of earlier audits. */
+  @Override
+  public void beginTree(final DetailAST rootAST) {
+    super.beginTree(rootAST);
+    if (audit != AuditScope.current()) {
+      audit = AuditScope.current();
+      counts.clear();
+    }
+  }
+
   @Override
-  public void visitToken(final DetailAST ast) {
+  protected void visitSearchedToken(final DetailAST ast) {
     final int line = ast.getLineNo();
     final int column = ast.getColumnNo();
 
@@ -74,8 +69,9 @@ public class LiteralsWithoutConstantCheck extends Check {
       return;
     }
 
-    // an everything in an attribute definition is also fine
-    if (isInAttributeDefinition(ast)) {
+    // an everything in an attribute definition is also fine.
+    // should check if they are final, though.
+    if (scopes().inFieldDefinition()) {
       return;
     }
 
@@ -1,18 +1,32 @@
 package edu.kit.checkstyle.checks;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import org.apache.commons.lang.StringUtils;
+
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.TextBlock;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
+import edu.kit.checkstyle.CheckInputs;
+import edu.kit.checkstyle.checks.spelling.Dictionary;
+import edu.kit.checkstyle.checks.spelling.IdentifierTokenizer;
+import edu.kit.checkstyle.checks.spelling.LayeredDictionary;
+import edu.kit.checkstyle.checks.spelling.Misspellings;
+import edu.kit.checkstyle.checks.spelling.SuggestionIndex;
+import edu.kit.checkstyle.checks.spelling.VerdictCache;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
 /**
  * Check if spelling is corrrect according to the system dictionary.
  */
@@ -22,62 +36,194 @@ public class SpellingCheck extends Check {
 
   private static final String CUSTOM_DICT_FILENAME = "custom.dict";
 
-  private Set<String> dictionary = new HashSet<String>();
+  /** The compiled dictionary, see {@link Dictionary#main}. */
+  private static final String BINARY_SUFFIX = ".bin";
 
-  private void add(String word) {
-    dictionary.add(word.trim().toLowerCase());
-  }
+  /** The maximal length of an all caps word that is taken as an acronym, which gets no suggestions. */
+  private static final int MAX_ACRONYM_LENGTH = 3;
+
+  /**
+   * The system dictionary, the additional and the custom dictionaries and
+   * the allowed words, shared by all instances with the same layers.
+   */
+  private LayeredDictionary layers;
+
+  /** The word list replacing the system dictionary, if any. */
+  private String dictionaryFile;
+
+  /** Additional word lists, layered in order above the system dictionary. */
+  private final List<String> dictionaries = mkList();
+
+  private final Set<String> allowedWords = new HashSet<String>();
+
+  private final IdentifierTokenizer words = new IdentifierTokenizer();
+
+  /** The maximal number of cached verdicts, 0 disables the cache. */
+  private long cacheSize = 100000;
+
+  /** The verdicts on identifiers, shared with all checks with the same words. */
+  private VerdictCache verdicts;
+
+  /** The maximal number of suggestions for a misspelled identifier. */
+  private int suggestions = 3;
+
+  /**
+   * The list of common misspellings to find in comments and string
+   * literals, which are not checked without it.
+   */
+  private String misspellingsFile;
+
+  /** The common misspellings, shared by all instances with the same list. */
+  private Misspellings misspellings;
+
+  private Misspellings.Matcher matcher;
+
+  /** The allowed words, which are not reported as misspellings either. */
+  private Dictionary allowed;
 
   public void setAllowedWords(String words) {
       for (String word : words.split(",")) {
-        add(word);
+        allowedWords.add(word);
+      }
+  }
+
+  /**
+   * Configure a word list that replaces the system dictionary. A relative
+   * path is resolved against the directory of the jar.
+   */
+  public void setDictionary(String file) {
+    dictionaryFile = file.trim().isEmpty() ? null : file.trim();
+  }
+
+  /**
+   * Configure additional word lists, like a second language or a course
+   * dictionary. Relative paths are resolved against the directory of the jar.
+   */
+  public void setDictionaries(String files) {
+    for (String file : files.split(",")) {
+      if (!file.trim().isEmpty()) {
+        dictionaries.add(file.trim());
       }
+    }
   }
 
-  /** Initialize the checker, populate its dictionary with words */
+  public void setCacheSize(long size) {
+    cacheSize = size;
+  }
+
+  public void setSuggestions(int count) {
+    suggestions = count;
+  }
+
+  /**
+   * Configure a list of common misspellings and check comments, Javadoc and
+   * string literals for them. A relative path is resolved against the
+   * directory of the jar.
+   */
+  public void setMisspellings(String file) {
+    misspellingsFile = file.trim().isEmpty() ? null : file.trim();
+  }
+
+  /** Initialize the checker, load its dictionaries */
   public void init() {
 
     File jarFile = new File(getClass().getProtectionDomain().getCodeSource().getLocation().getPath());
-    String dictPath = jarFile.getParent() + File.separator + DICT_FILENAME;
-    String customDictPath = jarFile.getParent() + File.separator + CUSTOM_DICT_FILENAME;
+    File dictFile = new File(jarFile.getParent(), DICT_FILENAME);
+    File binaryDictFile = new File(jarFile.getParent(), DICT_FILENAME + BINARY_SUFFIX);
+    File customDictFile = new File(jarFile.getParent(), CUSTOM_DICT_FILENAME);
+
+    // a word list next to the jar overrides the one compiled into it,
+    // prefer its compiled form unless the text is newer
+    if (binaryDictFile.isFile()
+        && (!dictFile.isFile() || binaryDictFile.lastModified() >= dictFile.lastModified())) {
+      dictFile = binaryDictFile;
+    }
+    if (dictionaryFile != null) {
+      dictFile = new File(dictionaryFile);
+      if (!dictFile.isAbsolute()) {
+        dictFile = new File(jarFile.getParent(), dictionaryFile);
+      }
+      if (!dictFile.isFile()) {
+        throw new RuntimeException("Could not find dictionary file " + dictFile);
+      }
+    }
+    LayeredDictionary.Layer base;
+    if (dictFile.isFile()) {
+      base = new LayeredDictionary.Layer(dictFile.getName(), loadDictionary(dictFile));
+    } else {
+      Dictionary dictionary = loadDictionaryResource();
+      if (dictionary == null) {
+        throw new RuntimeException("Could not find dictionary file " + dictFile
+            + " or resource " + Dictionary.RESOURCE);
+      }
+      base = new LayeredDictionary.Layer(Dictionary.RESOURCE, dictionary);
+    }
+    List<LayeredDictionary.Layer> stack = mkList(base);
 
-    // populate the dictionary from the specified word list
-    try {
-      populateDictionaryFromFile(dictPath);
-    } catch (FileNotFoundException e) {
-      throw new RuntimeException("Could not find dictionary file " + dictPath);
+    // a second language, course dictionaries, ...
+    for (String path : dictionaries) {
+      File file = new File(path);
+      if (!file.isAbsolute()) {
+        file = new File(jarFile.getParent(), path);
+      }
+      if (!file.isFile()) {
+        throw new RuntimeException("Could not find dictionary file " + file);
+      }
+      stack.add(new LayeredDictionary.Layer(file.getName(), loadDictionary(file)));
     }
 
-    // extend the dictionary with words from a custom word list
-    try {
-      populateDictionaryFromFile(customDictPath);
-    } catch (FileNotFoundException e) {
-      // custom dictionary is optional -> do nothing when file could not be found
+    // extend the dictionary with words from a custom word list, which is optional
+    if (customDictFile.isFile()) {
+      stack.add(new LayeredDictionary.Layer(CUSTOM_DICT_FILENAME, loadDictionary(customDictFile)));
     }
-  }
 
-  private void populateDictionaryFromFile(String pathToDictionary) throws FileNotFoundException {
-    BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(pathToDictionary)));
+    allowed = Dictionary.shared(allowedWords);
+    stack.add(new LayeredDictionary.Layer("allowedWords", allowed));
+    layers = LayeredDictionary.shared(stack);
 
-    String line;
-    try {
-      while ((line = br.readLine()) != null) {
-        add(line);
+    if (cacheSize > 0) {
+      verdicts = VerdictCache.shared(cacheSize, Arrays.<Object>asList(layers));
+    }
+
+    // the common misspellings in comments and string literals, which are optional
+    if (misspellingsFile != null) {
+      File file = new File(misspellingsFile);
+      if (!file.isAbsolute()) {
+        file = new File(jarFile.getParent(), misspellingsFile);
+      }
+      if (!file.isFile()) {
+        throw new RuntimeException("Could not find misspellings file " + file);
       }
+      try {
+        misspellings = Misspellings.shared(file, Charset.defaultCharset());
+        CheckInputs.register(file);
+      } catch (IOException e) {
+        throw new RuntimeException("Misspellings not readable", e);
+      }
+      matcher = misspellings.matcher();
+    }
+  }
+
+  private static Dictionary loadDictionary(File file) {
+    try {
+      CheckInputs.register(file);
+      return Dictionary.shared(file, Charset.defaultCharset());
     } catch (IOException e) {
       throw new RuntimeException("Dictionary not readable", e);
     }
+  }
 
+  private static Dictionary loadDictionaryResource() {
     try {
-      br.close();
+      return Dictionary.sharedResource(Dictionary.RESOURCE);
     } catch (IOException e) {
-      throw new RuntimeException("Dictionary not closeable", e);
+      throw new RuntimeException("Dictionary not readable", e);
     }
   }
 
   @Override
   public int[] getDefaultTokens() {
-    return new int[] {
+    int[] definitions = {
       TokenTypes.METHOD_DEF,
       TokenTypes.VARIABLE_DEF,
       TokenTypes.CLASS_DEF,
@@ -89,6 +235,13 @@ public class SpellingCheck extends Check {
       TokenTypes.ANNOTATION_DEF,
       TokenTypes.ANNOTATION_FIELD_DEF
     };
+    if (misspellingsFile == null) {
+      return definitions;
+    }
+    // string literals are only checked for common misspellings
+    int[] tokens = Arrays.copyOf(definitions, definitions.length + 1);
+    tokens[definitions.length] = TokenTypes.STRING_LITERAL;
+    return tokens;
   }
 
   /** Return the identifier for a definition */
@@ -132,65 +285,208 @@ public class SpellingCheck extends Check {
     return capitalized(type).replace("_", " ");
   }
 
-  private static String[] splitCamelCase(String camelCase) {
-    return camelCase.split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
+  /** Return true iff the characters from start to end are a known word. */
+  private boolean isKnownWord(CharSequence text, int start, int end) {
+    return layers.contains(text, start, end);
   }
 
-  /** Return true iff the candidate is a known word. */
-  private boolean isKnownWord(String candidate) {
-    String normalized = candidate.trim().toLowerCase();
-    return dictionary.contains(normalized);
+  /** Return true iff the identifier, split in the given way, contains only known words. */
+  private boolean isKnown(String identifier, int length, IdentifierTokenizer.Mode mode) {
+    words.reset(identifier, length, mode);
+    while (words.next()) {
+      if (!isKnownWord(identifier, words.start(), words.end())) {
+        return false;
+      }
+    }
+    return true;
   }
 
-  /** Return true iff the word, split by camel case, contains only known words. */
-  private boolean isKnownWithCamelCase(String candidate) {
-    for (String word : splitCamelCase(candidate)) {
-      if (!isKnownWord(word)) {
-          return false;
+  /** Return true iff the identifier is good spelling, as cached if possible. */
+  private boolean isKnown(String identifier, int length) {
+    Boolean known = verdicts == null ? null : verdicts.get(identifier);
+    if (known == null) {
+      known = isKnown(identifier, length, IdentifierTokenizer.Mode.CAMEL_CASE)
+          || isKnown(identifier, length, IdentifierTokenizer.Mode.UNDERSCORES);
+      if (verdicts != null) {
+        verdicts.put(identifier, known);
       }
     }
-    return true;
+    return known;
   }
 
-  /** Return true iff the word, split by underscore, contains only known words. */
-  private boolean isKnownWithUnderscores(String candidate) {
-    for (String word : candidate.split("_")) {
-        if (!isKnownWord(word)) {
-            return false;
+  /**
+   * Return identifiers that are spelled like the given one, except for its
+   * first unknown word that has similar known words. The other unknown words
+   * are replaced by their closest known word. The words are split at
+   * underscores and then by camel case. Short acronyms are kept, as most of
+   * them are a single edit away from some word.
+   */
+  private List<String> suggest(String id) {
+    List<SuggestionIndex> indexes = mkList();
+    for (LayeredDictionary.Layer layer : layers.getLayers()) {
+      indexes.add(SuggestionIndex.of(layer.getWords()));
+    }
+
+    // the words of the identifier with their corrections, if unknown
+    List<String> parts = mkList();
+    List<List<String>> corrections = mkList();
+    int first = -1;
+    int previousEnd = 0;
+    IdentifierTokenizer camelCaseWords = new IdentifierTokenizer();
+    words.reset(id, id.length(), IdentifierTokenizer.Mode.UNDERSCORES);
+    while (words.next()) {
+      camelCaseWords.reset(id, words.start(), words.end(), IdentifierTokenizer.Mode.CAMEL_CASE);
+      while (camelCaseWords.next()) {
+        int start = camelCaseWords.start();
+        int end = camelCaseWords.end();
+        List<String> similar = Collections.emptyList();
+        if (start < end && !isKnownWord(id, start, end) && !isAcronym(id, start, end)) {
+          similar = SuggestionIndex.suggest(indexes, id.substring(start, end), suggestions);
+        }
+        if (first < 0 && !similar.isEmpty()) {
+          first = parts.size() + 1;
+        }
+        parts.add(id.substring(previousEnd, start));
+        corrections.add(Collections.<String>emptyList());
+        parts.add(id.substring(start, end));
+        corrections.add(similar);
+        previousEnd = end;
+      }
+    }
+    if (first < 0) {
+      return Collections.emptyList();
+    }
+    parts.add(id.substring(previousEnd));
+    corrections.add(Collections.<String>emptyList());
+
+    List<String> result = mkList();
+    for (String candidate : corrections.get(first)) {
+      StringBuilder suggestion = new StringBuilder();
+      for (int i = 0; i < parts.size(); ++i) {
+        String part = parts.get(i);
+        if (i == first) {
+          suggestion.append(withCaseOf(candidate, part));
+        } else if (!corrections.get(i).isEmpty()) {
+          suggestion.append(withCaseOf(corrections.get(i).get(0), part));
+        } else {
+          suggestion.append(part);
         }
+      }
+      result.add(suggestion.toString());
+    }
+    return result;
+  }
+
+  /** Return true iff the characters from start to end are a short word in all caps. */
+  private static boolean isAcronym(String text, int start, int end) {
+    if (end - start > MAX_ACRONYM_LENGTH) {
+      return false;
+    }
+    for (int i = start; i < end; ++i) {
+      if (!Character.isUpperCase(text.charAt(i))) {
+        return false;
+      }
     }
     return true;
   }
 
+  /** Return the word in upper case, capitalized or as it is, like the original. */
+  private static String withCaseOf(String word, String original) {
+    if (original.length() > 1 && original.equals(original.toUpperCase())) {
+      return word.toUpperCase();
+    }
+    if (Character.isUpperCase(original.charAt(0))) {
+      return capitalized(word);
+    }
+    return word;
+  }
+
+  /** Report the common misspellings in a line of a comment or string literal. */
+  private void checkText(String kind, String line, int lineNo, int columnNo) {
+    matcher.reset(line);
+    while (matcher.find()) {
+      if (allowed.contains(line, matcher.start(), matcher.end())) {
+        continue;
+      }
+      String misspelling = line.substring(matcher.start(), matcher.end());
+      if (matcher.correction().isEmpty()) {
+        log(lineNo, columnNo + matcher.start(), "spelling.text", kind, misspelling);
+      } else {
+        List<String> corrections = mkList();
+        for (String correction : matcher.correction().split(", ")) {
+          corrections.add(withCaseOf(correction, misspelling));
+        }
+        log(lineNo, columnNo + matcher.start(), "spelling.text.suggestions", kind, misspelling,
+            StringUtils.join(corrections, ", "));
+      }
+    }
+  }
+
+  /** Report the common misspellings in the lines of a comment. */
+  private void checkComment(TextBlock comment) {
+    String[] lines = comment.getText();
+    String kind = lines[0].startsWith("/**") ? "Javadoc" : "Comment";
+    for (int i = 0; i < lines.length; ++i) {
+      checkText(kind, lines[i], comment.getStartLineNo() + i, i == 0 ? comment.getStartColNo() : 0);
+    }
+  }
+
+  @Override
+  public void beginTree(final DetailAST rootAST) {
+    if (misspellings == null) {
+      return;
+    }
+    FileContents contents = getFileContents();
+    for (TextBlock comment : contents.getCppComments().values()) {
+      checkComment(comment);
+    }
+    for (List<TextBlock> comments : contents.getCComments().values()) {
+      for (TextBlock comment : comments) {
+        checkComment(comment);
+      }
+    }
+  }
+
   @Override
   public void visitToken(final DetailAST ast) {
+    if (ast.getType() == TokenTypes.STRING_LITERAL) {
+      if (misspellings != null) {
+        checkText("String literal", Misspellings.maskEscapes(ast.getText()), ast.getLineNo(),
+            ast.getColumnNo());
+      }
+      return;
+    }
+
     DetailAST ident = identifier(ast);
     if (ident == null) {
       // this should not happen
       return;
     }
 
-    // remove trailing numbers
-    String id = ident.getText().replaceAll("[0-9]*$", "");
-
-    // check if it is good spelling in camel case
-    if (isKnownWithCamelCase(id)) {
-      return;
-    }
+    // ignore trailing numbers
+    String text = ident.getText();
+    int length = IdentifierTokenizer.withoutTrailingDigits(text);
 
-    // check if it is good spelling with underscores
-    if (isKnownWithUnderscores(id)) {
+    // check if it is good spelling in camel case or with underscores
+    if (isKnown(text, length)) {
       return;
     }
 
     // check if it is a local variable and short
     if (ast.getType() == TokenTypes.VARIABLE_DEF &&
             !isAttributeDefinition(ast) &&
-            id.length() <= 3) {
+            length <= 3) {
       return;
     }
 
     // if everything fails it looks like bad spelling
-    log(ast.getLineNo(), ast.getColumnNo(), "spelling", definitionType(ast), id);
+    String id = text.substring(0, length);
+    List<String> corrections = suggestions > 0 ? suggest(id) : Collections.<String>emptyList();
+    if (corrections.isEmpty()) {
+      log(ast.getLineNo(), ast.getColumnNo(), "spelling", definitionType(ast), id);
+    } else {
+      log(ast.getLineNo(), ast.getColumnNo(), "spelling.suggestions", definitionType(ast), id,
+          StringUtils.join(corrections, ", "));
+    }
   }
 }
@@ -1,7 +1,5 @@
 package edu.kit.checkstyle.checks;
 
-import java.util.Set;
-
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
@@ -22,14 +20,14 @@ public class StaticUsageCheck extends TokenSearcherCheck {
   private static final String msg = "'static' may only be used on variables together with 'final'";
 
   @Override
-  public int[] getDefaultTokens() {
+  protected int[] getSearchedTokens() {
     return new int[] {
         TokenTypes.LITERAL_STATIC
     };
   }
 
   @Override
-  public void visitToken(final DetailAST ast) {
+  protected void visitSearchedToken(final DetailAST ast) {
     final int line = ast.getLineNo();
     final int column = ast.getColumnNo();
 
@@ -40,8 +38,7 @@ public class StaticUsageCheck extends TokenSearcherCheck {
     final DetailAST block = ast.getParent().getParent();
 
     if (block.getType() == TokenTypes.VARIABLE_DEF) {
-      final Set<String> mods = modifierNames(block);
-      if (!mods.contains("final")) {
+      if (!isFinal(block)) {
         log(line, column, msg);
       }
     }
@@ -1,45 +1,39 @@
 package edu.kit.checkstyle.checks.lists;
 
-import java.util.Set;
-
-import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
+import edu.kit.checkstyle.ScopeTracker;
+import edu.kit.checkstyle.TokenSearcherCheck;
+
 
 /**
  * Base class for all listing checks.
  *
  * Provides some convenience methods for assembling the names.
  */
-public abstract class BaseListCheck extends Check {
-
-  protected static String getScope(DetailAST ast) {
-    String scope = new String();
-
-    if (ast.getType() == TokenTypes.CLASS_DEF) {
-      DetailAST classParent = getParent(ast, TokenTypes.CLASS_DEF);
-      if (classParent != null) {
-        return getScope(classParent) + getNameOfClassDef(classParent) + "$";
-      }
-    } else {
-      DetailAST classParent = getParent(ast, TokenTypes.CLASS_DEF);
-      if (classParent != null) {
-        return getScope(classParent) + getNameOfClassDef(classParent) + ".";
+public abstract class BaseListCheck extends TokenSearcherCheck {
+
+  /**
+   * Return the names of the classes enclosing the current token, joined by
+   * '$' and followed by '$' for a class and by '.' for anything else.
+   */
+  protected String getScope(DetailAST ast) {
+    final ScopeTracker scopes = scopes();
+    // a class definition is its own innermost scope
+    final int end = ast.getType() == TokenTypes.CLASS_DEF || ast.getType() == TokenTypes.ENUM_DEF
+        ? scopes.typeCount() - 1 : scopes.typeCount();
+
+    final StringBuilder scope = new StringBuilder();
+    for (int i = 0; i < end; ++i) {
+      if (scopes.type(i).getType() == TokenTypes.CLASS_DEF) {
+        scope.append(getNameOfClassDef(scopes.type(i))).append('$');
       }
-
     }
-
-    return "";
-  }
-
-  protected static DetailAST getParent(DetailAST ast, int tokenType) {
-    DetailAST current = ast.getParent();
-    while (current != null && current.getType() != tokenType) {
-        current = current.getParent();
+    if (scope.length() > 0 && ast.getType() != TokenTypes.CLASS_DEF) {
+      scope.setCharAt(scope.length() - 1, '.');
     }
-
-    return current;
+    return scope.toString();
   }
 
   protected static String getNameOfPackageDef(DetailAST ast) {
@@ -11,14 +11,14 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 public class ImportListCheck extends BaseListCheck {
 
   @Override
-  public int[] getDefaultTokens() {
+  protected int[] getSearchedTokens() {
     return new int[] {
       TokenTypes.IMPORT
     };
   }
 
   @Override
-  public void visitToken(final DetailAST ast) {
+  protected void visitSearchedToken(final DetailAST ast) {
     log(ast.getLineNo(), ast.getColumnNo(), getImportString(ast));
   }
 
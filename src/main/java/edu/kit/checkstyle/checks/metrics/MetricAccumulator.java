@@ -0,0 +1,40 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+
+/**
+ * Calculates a single metric incrementally while the
+ * {@link MetricsEngineCheck} walks the AST, without walking any subtree on
+ * its own. Implementations need a public constructor without arguments to be
+ * configured by class name.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public interface MetricAccumulator {
+
+  /**
+   * @return the name of the metric as it appears in the messages
+   */
+  String metric();
+
+  /**
+   * @return the tokens the accumulator wants to visit
+   */
+  int[] tokens();
+
+  /**
+   * Resets the accumulator at the start of a file.
+   */
+  void beginTree();
+
+  /**
+   * Called when one of the tokens is entered.
+   */
+  void visit(DetailAST ast, MetricReport report);
+
+  /**
+   * Called when one of the tokens is left, after all its children.
+   */
+  void leave(DetailAST ast, MetricReport report);
+}
@@ -13,6 +13,8 @@ import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
  */
 public abstract class MetricCheck extends Check {
 
+  private int metricId = -1;
+
   @Override
   public final void init() {
     setSeverity(SeverityLevel.INFO.getName());
@@ -51,6 +53,42 @@ public abstract class MetricCheck extends Check {
     log(ast, "metric:" + metric() + ":" + value);
   }
 
+  /**
+   * Reports a metric value. If a {@link MetricSink} is bound to the current
+   * thread, the value is handed to it directly, otherwise it is logged like
+   * {@link #logMetric(DetailAST, Object)} does.
+   *
+   * @param ast
+   *        The AST the metric should be reported at
+   * @param value
+   *        The value calculated by the metric
+   */
+  protected final void logMetric(final DetailAST ast, final int value) {
+    if (metricId < 0) {
+      metricId = Metrics.id(metric());
+    }
+    logMetric(ast, metricId, value);
+  }
+
+  /**
+   * Reports a value of any metric, for checks that calculate several.
+   *
+   * @param ast
+   *        The AST the metric should be reported at
+   * @param id
+   *        The id of the metric as given by {@link Metrics#id(String)}
+   * @param value
+   *        The value calculated by the metric
+   */
+  protected final void logMetric(final DetailAST ast, final int id, final int value) {
+    final MetricSink sink = Metrics.sink();
+    if (sink == null) {
+      log(ast, "metric:" + Metrics.name(id) + ":" + value);
+    } else {
+      sink.metric(id, getFileContents().getFileName(), ast.getLineNo(), value);
+    }
+  }
+
   /**
    * The message that classifies the metric.
    */
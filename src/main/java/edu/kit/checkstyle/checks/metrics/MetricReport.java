@@ -0,0 +1,27 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+
+/**
+ * Collects the values of a {@link MetricAccumulator}. The values of a file
+ * are reported in the order their places were reserved, so values that are
+ * only known when a token is left still appear in the order of the tokens.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public interface MetricReport {
+
+  /**
+   * Reserves the place of a value that is reported at the given AST.
+   *
+   * @return the slot to set the value with
+   */
+  int reserve(DetailAST ast);
+
+  /**
+   * Sets the value of a reserved slot. Slots that are never set are not
+   * reported.
+   */
+  void set(int slot, int value);
+}
@@ -0,0 +1,23 @@
+package edu.kit.checkstyle.checks.metrics;
+
+
+/**
+ * Receives metric values directly from {@link MetricCheck}s, without turning
+ * them into messages first.
+ *
+ * @see Metrics
+ */
+public interface MetricSink {
+
+  /**
+   * @param metricId
+   *        the id of the metric as given by {@link Metrics#id(String)}
+   * @param fileName
+   *        the file the value was calculated for
+   * @param line
+   *        the line the value is reported at
+   * @param value
+   *        the calculated value
+   */
+  void metric(int metricId, String fileName, int line, int value);
+}
@@ -0,0 +1,64 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Connects {@link MetricCheck}s with a {@link MetricSink}.
+ * <p>
+ * Every metric name gets a small integer id that stays the same for the
+ * lifetime of the JVM. While a sink is bound to the current thread, metric
+ * checks running on it hand their values to the sink instead of logging a
+ * message, so no listener sees them as messages. Without a bound sink the
+ * values are logged as messages like before.
+ */
+public final class Metrics {
+
+  private static final List<String> NAMES = mkList();
+  private static final Map<String, Integer> IDS = mkMap();
+
+  private static final ThreadLocal<MetricSink> SINK = new ThreadLocal<MetricSink>();
+
+  private Metrics() {}
+
+  /**
+   * @return the id of the metric with the given name
+   */
+  public static synchronized int id(final String name) {
+    Integer id = IDS.get(name);
+    if (id == null) {
+      id = NAMES.size();
+      NAMES.add(name);
+      IDS.put(name, id);
+    }
+    return id;
+  }
+
+  /**
+   * @return the name of the metric with the given id
+   */
+  public static synchronized String name(final int id) {
+    return NAMES.get(id);
+  }
+
+  /**
+   * @return the sink bound to the current thread or {@code null}
+   */
+  public static MetricSink sink() {
+    return SINK.get();
+  }
+
+  /**
+   * Binds a sink to the current thread, {@code null} unbinds the current one.
+   */
+  public static void bind(final MetricSink sink) {
+    if (sink == null) {
+      SINK.remove();
+    } else {
+      SINK.set(sink);
+    }
+  }
+}
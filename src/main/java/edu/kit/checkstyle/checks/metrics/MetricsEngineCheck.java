@@ -0,0 +1,250 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+import com.puppycrawl.tools.checkstyle.Utils;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import edu.kit.checkstyle.checks.metrics.accumulators.BlockDepthAccumulator;
+import edu.kit.checkstyle.checks.metrics.accumulators.ChildCountAccumulator;
+import edu.kit.checkstyle.checks.metrics.accumulators.StatementCountAccumulator;
+import edu.kit.checkstyle.checks.metrics.accumulators.TokenCountAccumulator;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Calculates several metrics in a single walk over the AST instead of one
+ * walk per metric check plus the subtree walks each of them does.
+ * <p>
+ * Every metric is calculated by a {@link MetricAccumulator} that only sees
+ * the tokens it asks for. By default all metrics of the separate metric
+ * checks are calculated, with the same names and values. The
+ * {@code metrics} property selects some of them by name, the
+ * {@code accumulators} property adds further accumulators by class name.
+ * The values of a file are reported when the walk is finished.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public class MetricsEngineCheck extends MetricCheck {
+
+  private static final int MAX_TOKEN = Ints.max(Utils.getAllTokenIds());
+
+  private String[] metrics;
+  private String[] accumulatorClasses = new String[0];
+
+  private MetricAccumulator[] accumulators = new MetricAccumulator[0];
+  private int[] metricIds = new int[0];
+  /** Whether an accumulator failed in the current file, by index. */
+  private boolean[] failed = new boolean[0];
+  /** The indices of the accumulators that visit a token, by token type. */
+  private int[][] byType = new int[MAX_TOKEN + 1][];
+
+  private final Report report = new Report();
+
+  /**
+   * The reserved values of the current file. The ids of the slots are set
+   * to the accumulator that reserves before it is called.
+   */
+  private static class Report implements MetricReport {
+    int current;
+    int size;
+    DetailAST[] asts = new DetailAST[64];
+    int[] ids = new int[64];
+    int[] values = new int[64];
+    boolean[] set = new boolean[64];
+
+    @Override
+    public int reserve(final DetailAST ast) {
+      if (size == asts.length) {
+        asts = Arrays.copyOf(asts, size * 2);
+        ids = Arrays.copyOf(ids, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+        set = Arrays.copyOf(set, size * 2);
+      }
+      asts[size] = ast;
+      ids[size] = current;
+      set[size] = false;
+      return size++;
+    }
+
+    @Override
+    public void set(final int slot, final int value) {
+      values[slot] = value;
+      set[slot] = true;
+    }
+  }
+
+  /**
+   * @return the built-in accumulators by the name of their metric
+   */
+  private static Map<String, MetricAccumulator> builtIns() {
+    final List<MetricAccumulator> all = mkList(
+        new ChildCountAccumulator(AttributesPerClassCheck.METRIC,
+            new int[] { TokenTypes.CLASS_DEF, TokenTypes.ENUM_DEF },
+            TokenTypes.OBJBLOCK, TokenTypes.VARIABLE_DEF),
+        new ChildCountAccumulator(MethodsPerClassCheck.METRIC,
+            new int[] { TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF },
+            TokenTypes.OBJBLOCK, TokenTypes.METHOD_DEF),
+        new TokenCountAccumulator(NumberOfClassesCheck.METRIC,
+            TokenTypes.CLASS_DEF, TokenTypes.INTERFACE_DEF, TokenTypes.ENUM),
+        new StatementCountAccumulator(NumberOfStatementsPerMethodCheck.METRIC),
+        new BlockDepthAccumulator(MaxNestedBlockDepthCheck.METRIC),
+        new ChildCountAccumulator(NumberOfArgumentsCheck.METRIC,
+            new int[] { TokenTypes.METHOD_DEF, TokenTypes.CTOR_DEF },
+            TokenTypes.PARAMETERS, TokenTypes.PARAMETER_DEF),
+        new TokenCountAccumulator(NumberOfMethodsPerClassCheck.METRIC, TokenTypes.METHOD_DEF));
+
+    final Map<String, MetricAccumulator> byName = Maps.newLinkedHashMap();
+    for (final MetricAccumulator accumulator : all) {
+      byName.put(accumulator.metric(), accumulator);
+    }
+    return byName;
+  }
+
+  /** Configure the names of the built-in metrics to calculate, all by default. */
+  public void setMetrics(final String... names) {
+    metrics = names;
+  }
+
+  /** Configure the class names of additional accumulators. */
+  public void setAccumulators(final String... classNames) {
+    accumulatorClasses = classNames;
+  }
+
+  @Override
+  protected void finishLocalSetup() throws CheckstyleException {
+    final Map<String, MetricAccumulator> builtIns = builtIns();
+    final List<MetricAccumulator> selected = mkList();
+    if (metrics == null) {
+      selected.addAll(builtIns.values());
+    } else {
+      for (final String name : metrics) {
+        if (name.isEmpty()) {
+          continue;
+        }
+        if (!builtIns.containsKey(name)) {
+          throw new CheckstyleException("unknown metric " + name);
+        }
+        selected.add(builtIns.get(name));
+      }
+    }
+    for (final String className : accumulatorClasses) {
+      if (!className.isEmpty()) {
+        selected.add(createAccumulator(className));
+      }
+    }
+
+    accumulators = selected.toArray(new MetricAccumulator[selected.size()]);
+    metricIds = new int[accumulators.length];
+    failed = new boolean[accumulators.length];
+    final List<List<Integer>> indices = mkList();
+    for (int type = 0; type <= MAX_TOKEN; ++type) {
+      indices.add(Lists.<Integer>newArrayList());
+    }
+    for (int i = 0; i < accumulators.length; ++i) {
+      metricIds[i] = Metrics.id(accumulators[i].metric());
+      for (final int type : accumulators[i].tokens()) {
+        if (!indices.get(type).contains(i)) {
+          indices.get(type).add(i);
+        }
+      }
+    }
+    for (int type = 0; type <= MAX_TOKEN; ++type) {
+      byType[type] = indices.get(type).isEmpty() ? null : Ints.toArray(indices.get(type));
+    }
+  }
+
+  private MetricAccumulator createAccumulator(final String className) throws CheckstyleException {
+    final ClassLoader loader = getClassLoader() == null
+        ? MetricsEngineCheck.class.getClassLoader() : getClassLoader();
+    try {
+      return (MetricAccumulator) Class.forName(className, true, loader).getDeclaredConstructor().newInstance();
+    } catch (final ReflectiveOperationException | ClassCastException e) {
+      throw new CheckstyleException("cannot create metric accumulator " + className, e);
+    }
+  }
+
+  /**
+   * @return the tokens of all configured accumulators
+   */
+  @Override
+  public int[] getDefaultTokens() {
+    final List<Integer> tokens = mkList();
+    for (int type = 0; type <= MAX_TOKEN; ++type) {
+      if (byType[type] != null) {
+        tokens.add(type);
+      }
+    }
+    return Ints.toArray(tokens);
+  }
+
+  /**
+   * Every accumulator reports its own metric, this name is never reported.
+   */
+  @Override
+  protected String metric() {
+    return "metrics-engine";
+  }
+
+  @Override
+  public void beginTree(final DetailAST rootAST) {
+    report.size = 0;
+    Arrays.fill(failed, false);
+    for (final MetricAccumulator accumulator : accumulators) {
+      accumulator.beginTree();
+    }
+  }
+
+  @Override
+  protected void execute(final DetailAST ast) {
+    dispatch(ast, true);
+  }
+
+  @Override
+  public void leaveToken(final DetailAST ast) {
+    dispatch(ast, false);
+  }
+
+  /**
+   * Hands a token to its accumulators. A failing accumulator does not keep
+   * the others from seeing the token, its first failure in a file is logged
+   * at the token.
+   */
+  private void dispatch(final DetailAST ast, final boolean visit) {
+    final int[] indices = byType[ast.getType()];
+    for (int i = 0; indices != null && i < indices.length; ++i) {
+      report.current = indices[i];
+      try {
+        if (visit) {
+          accumulators[indices[i]].visit(ast, report);
+        } else {
+          accumulators[indices[i]].leave(ast, report);
+        }
+      } catch (final RuntimeException e) {
+        if (!failed[indices[i]]) {
+          failed[indices[i]] = true;
+          log(ast, "metric accumulator {0} failed: {1}", accumulators[indices[i]].metric(), e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void finishTree(final DetailAST rootAST) {
+    for (int slot = 0; slot < report.size; ++slot) {
+      if (report.set[slot]) {
+        logMetric(report.asts[slot], metricIds[report.ids[slot]], report.values[slot]);
+      }
+      report.asts[slot] = null;
+    }
+    report.size = 0;
+  }
+}
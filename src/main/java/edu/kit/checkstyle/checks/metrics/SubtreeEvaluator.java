@@ -0,0 +1,92 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+
+/**
+ * Runs a {@link MetricAccumulator} over a single subtree and returns the
+ * value it reports at the root of the subtree.
+ * <p>
+ * The subtree is walked along the parent and sibling links without any
+ * recursion, and the accumulators keep their state in arrays, so arbitrarily
+ * deep code neither costs JVM stack nor more than linear time.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+final class SubtreeEvaluator implements MetricReport {
+
+  private final MetricAccumulator accumulator;
+  /** Whether the accumulator wants to see a token type. */
+  private final boolean[] wanted;
+
+  private DetailAST root;
+  private int value;
+
+  SubtreeEvaluator(final MetricAccumulator accumulator) {
+    this.accumulator = accumulator;
+    int max = 0;
+    for (final int type : accumulator.tokens()) {
+      max = Math.max(max, type);
+    }
+    wanted = new boolean[max + 1];
+    for (final int type : accumulator.tokens()) {
+      wanted[type] = true;
+    }
+  }
+
+  /**
+   * @return the value reported at the root or {@code -1} if none was
+   */
+  int evaluate(final DetailAST subtree) {
+    root = subtree;
+    value = -1;
+    accumulator.beginTree();
+
+    DetailAST cur = subtree;
+    while (true) {
+      visit(cur);
+      final DetailAST child = cur.getFirstChild();
+      if (child != null) {
+        cur = child;
+        continue;
+      }
+      while (true) {
+        leave(cur);
+        if (cur == subtree) {
+          root = null;
+          return value;
+        }
+        final DetailAST sibling = cur.getNextSibling();
+        if (sibling != null) {
+          cur = sibling;
+          break;
+        }
+        cur = cur.getParent();
+      }
+    }
+  }
+
+  @Override
+  public int reserve(final DetailAST ast) {
+    return ast == root ? 0 : 1;
+  }
+
+  @Override
+  public void set(final int slot, final int reported) {
+    if (slot == 0) {
+      value = reported;
+    }
+  }
+
+  private void visit(final DetailAST ast) {
+    if (ast.getType() < wanted.length && wanted[ast.getType()]) {
+      accumulator.visit(ast, this);
+    }
+  }
+
+  private void leave(final DetailAST ast) {
+    if (ast.getType() < wanted.length && wanted[ast.getType()]) {
+      accumulator.leave(ast, this);
+    }
+  }
+}
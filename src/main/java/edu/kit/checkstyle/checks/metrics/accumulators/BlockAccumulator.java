@@ -0,0 +1,253 @@
+package edu.kit.checkstyle.checks.metrics.accumulators;
+
+import java.util.Arrays;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import edu.kit.checkstyle.checks.metrics.MetricAccumulator;
+import edu.kit.checkstyle.checks.metrics.MetricReport;
+
+
+/**
+ * Base of the metrics over the blocks of a method, constructor or
+ * initializer body, reported at the method.
+ * <p>
+ * A token is reached if the rules of the metric checks lead to it from the
+ * body: the statements of a reached block, the blocks of a reached
+ * {@code for}, {@code while}, {@code do}, {@code synchronized}, {@code try},
+ * {@code catch}, {@code finally} and {@code if}, the case groups of a
+ * reached {@code switch} and so on. Whether a token is reached only depends
+ * on its parent, so a stack of the reached ancestors is enough to decide it
+ * while the tokens are visited. Statements of reached blocks are passed to
+ * {@link #statement}, reached blocks with their nesting depth to
+ * {@link #block}. Nested methods, like those of anonymous classes, are
+ * calculated on their own.
+ * <p>
+ * Like in the checks, every case group of a {@code switch} is nested as
+ * deep as the deepest block of the case groups before it, plus one.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public abstract class BlockAccumulator implements MetricAccumulator {
+
+  private static final int[] TOKENS = {
+    TokenTypes.METHOD_DEF, TokenTypes.CTOR_DEF, TokenTypes.INSTANCE_INIT, TokenTypes.STATIC_INIT,
+    TokenTypes.SLIST, TokenTypes.LCURLY, TokenTypes.RESOURCE_SPECIFICATION, TokenTypes.RESOURCES,
+    TokenTypes.LITERAL_SWITCH, TokenTypes.CASE_GROUP, TokenTypes.LITERAL_FOR,
+    TokenTypes.LITERAL_WHILE, TokenTypes.LITERAL_DO, TokenTypes.LITERAL_CATCH,
+    TokenTypes.LITERAL_FINALLY, TokenTypes.LITERAL_SYNCHRONIZED, TokenTypes.LITERAL_TRY,
+    TokenTypes.LITERAL_IF, TokenTypes.LITERAL_ELSE,
+    TokenTypes.VARIABLE_DEF, TokenTypes.EXPR, TokenTypes.RESOURCE, TokenTypes.LITERAL_NEW,
+    TokenTypes.LITERAL_ASSERT,
+  };
+
+  private final String metric;
+
+  /** The methods being calculated, innermost last. */
+  private DetailAST[] methods = new DetailAST[8];
+  private int[] slots = new int[8];
+  private int[] values = new int[8];
+  private int frames;
+
+  /** The reached tokens that are ancestors of the current one. */
+  private DetailAST[] reached = new DetailAST[32];
+  private int[] depths = new int[32];
+  /** The deepest block within each reached token, -1 if there is none. */
+  private int[] maxima = new int[32];
+  private int size;
+
+  protected BlockAccumulator(final String metric) {
+    this.metric = metric;
+  }
+
+  /**
+   * Called for a reached block.
+   *
+   * @param value
+   *        the value of the method so far
+   * @param depth
+   *        the nesting depth of the block, 0 for the body
+   * @return the new value of the method
+   */
+  protected abstract int block(int value, int depth);
+
+  /**
+   * Called for a statement of a reached block.
+   *
+   * @param value
+   *        the value of the method so far
+   * @return the new value of the method
+   */
+  protected abstract int statement(int value, DetailAST ast);
+
+  @Override
+  public String metric() {
+    return metric;
+  }
+
+  @Override
+  public int[] tokens() {
+    return TOKENS.clone();
+  }
+
+  @Override
+  public void beginTree() {
+    Arrays.fill(methods, 0, frames, null);
+    Arrays.fill(reached, 0, size, null);
+    frames = 0;
+    size = 0;
+  }
+
+  @Override
+  public void visit(final DetailAST ast, final MetricReport report) {
+    switch (ast.getType()) {
+      case TokenTypes.METHOD_DEF:
+      case TokenTypes.CTOR_DEF:
+      case TokenTypes.INSTANCE_INIT:
+      case TokenTypes.STATIC_INIT:
+        if (ast.findFirstToken(TokenTypes.SLIST) != null) {
+          pushMethod(ast, report.reserve(ast));
+        }
+        return;
+
+      default:
+        if (frames == 0) {
+          return;
+        }
+        if (ast.getType() == TokenTypes.SLIST && ast.getParent() == methods[frames - 1]) {
+          reach(ast, 0, true);
+        } else if (size > 0 && ast.getParent() == reached[size - 1]) {
+          visitChild(ast, reached[size - 1].getType(), depths[size - 1]);
+        }
+    }
+  }
+
+  /**
+   * Decides whether a child of a reached token is reached itself.
+   */
+  private void visitChild(final DetailAST ast, final int parentType, final int depth) {
+    final int type = ast.getType();
+    switch (parentType) {
+      case TokenTypes.SLIST:
+      case TokenTypes.LCURLY:
+      case TokenTypes.RESOURCES:
+        values[frames - 1] = statement(values[frames - 1], ast);
+        if (type == TokenTypes.LCURLY) {
+          reach(ast, depth + 1, true);
+        } else if (type != TokenTypes.SLIST && type != TokenTypes.RESOURCES) {
+          reach(ast, depth, false);
+        }
+        break;
+
+      case TokenTypes.LITERAL_SWITCH:
+        if (type == TokenTypes.CASE_GROUP) {
+          reach(ast, depth, false);
+        }
+        break;
+
+      case TokenTypes.CASE_GROUP:
+      case TokenTypes.LITERAL_FOR:
+      case TokenTypes.LITERAL_WHILE:
+      case TokenTypes.LITERAL_DO:
+      case TokenTypes.LITERAL_CATCH:
+      case TokenTypes.LITERAL_FINALLY:
+      case TokenTypes.LITERAL_SYNCHRONIZED:
+        if (type == TokenTypes.SLIST) {
+          reach(ast, depth + 1, true);
+        }
+        break;
+
+      case TokenTypes.LITERAL_TRY:
+      case TokenTypes.LITERAL_IF:
+      case TokenTypes.LITERAL_ELSE:
+        if (type == TokenTypes.SLIST) {
+          reach(ast, depth + 1, true);
+        } else if (type == TokenTypes.LITERAL_CATCH || type == TokenTypes.LITERAL_FINALLY
+            || type == TokenTypes.LITERAL_ELSE || type == TokenTypes.LITERAL_IF) {
+          reach(ast, depth, false);
+        }
+        break;
+
+      case TokenTypes.RESOURCE_SPECIFICATION:
+        if (type == TokenTypes.RESOURCES) {
+          reach(ast, depth, false);
+        }
+        break;
+
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Marks a token as reached. Tokens that nest blocks count as a block one
+   * level deeper right away, even if they have no block of their own. The
+   * depth of a {@code switch} is the depth of its next case group.
+   */
+  private void reach(final DetailAST ast, final int depth, final boolean isBlock) {
+    int deepest = -1;
+    switch (ast.getType()) {
+      case TokenTypes.LITERAL_SWITCH:
+      case TokenTypes.CASE_GROUP:
+      case TokenTypes.LITERAL_FOR:
+      case TokenTypes.LITERAL_WHILE:
+      case TokenTypes.LITERAL_DO:
+      case TokenTypes.LITERAL_CATCH:
+      case TokenTypes.LITERAL_FINALLY:
+      case TokenTypes.LITERAL_SYNCHRONIZED:
+        deepest = depth + 1;
+        break;
+
+      default:
+        if (isBlock) {
+          deepest = depth;
+        }
+    }
+    if (deepest >= 0) {
+      values[frames - 1] = block(values[frames - 1], deepest);
+    }
+
+    if (size == reached.length) {
+      reached = Arrays.copyOf(reached, size * 2);
+      depths = Arrays.copyOf(depths, size * 2);
+      maxima = Arrays.copyOf(maxima, size * 2);
+    }
+    reached[size] = ast;
+    depths[size] = ast.getType() == TokenTypes.LITERAL_SWITCH ? depth + 1 : depth;
+    maxima[size] = deepest;
+    size += 1;
+  }
+
+  @Override
+  public void leave(final DetailAST ast, final MetricReport report) {
+    if (size > 0 && reached[size - 1] == ast) {
+      size -= 1;
+      reached[size] = null;
+      if (size > 0) {
+        final int parent = size - 1;
+        maxima[parent] = Math.max(maxima[parent], maxima[size]);
+        if (reached[parent].getType() == TokenTypes.LITERAL_SWITCH) {
+          depths[parent] = Math.max(depths[parent], maxima[size]);
+        }
+      }
+    }
+    if (frames > 0 && methods[frames - 1] == ast) {
+      frames -= 1;
+      report.set(slots[frames], values[frames]);
+      methods[frames] = null;
+    }
+  }
+
+  private void pushMethod(final DetailAST ast, final int slot) {
+    if (frames == methods.length) {
+      methods = Arrays.copyOf(methods, frames * 2);
+      slots = Arrays.copyOf(slots, frames * 2);
+      values = Arrays.copyOf(values, frames * 2);
+    }
+    methods[frames] = ast;
+    slots[frames] = slot;
+    values[frames] = 0;
+    frames += 1;
+  }
+}
@@ -0,0 +1,27 @@
+package edu.kit.checkstyle.checks.metrics.accumulators;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+
+/**
+ * Calculates the maximal nesting depth of the blocks of a method like the
+ * {@link edu.kit.checkstyle.checks.metrics.MaxNestedBlockDepthCheck} does.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public class BlockDepthAccumulator extends BlockAccumulator {
+
+  public BlockDepthAccumulator(final String metric) {
+    super(metric);
+  }
+
+  @Override
+  protected int block(final int value, final int depth) {
+    return depth > value ? depth : value;
+  }
+
+  @Override
+  protected int statement(final int value, final DetailAST ast) {
+    return value;
+  }
+}
@@ -0,0 +1,105 @@
+package edu.kit.checkstyle.checks.metrics.accumulators;
+
+import java.util.Arrays;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+import edu.kit.checkstyle.checks.metrics.MetricAccumulator;
+import edu.kit.checkstyle.checks.metrics.MetricReport;
+
+
+/**
+ * Counts the children of a given type of the container of an owner, like
+ * the attributes in the {@code OBJBLOCK} of a class, and reports the count
+ * at the owner. Owners may be nested, each of them is counted on its own.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public class ChildCountAccumulator implements MetricAccumulator {
+
+  private final String metric;
+  private final int[] ownerTypes;
+  private final int containerType;
+  private final int childType;
+
+  private DetailAST[] owners = new DetailAST[8];
+  private int[] slots = new int[8];
+  private int[] counts = new int[8];
+  private int size;
+
+  /**
+   * @param metric
+   *        the name of the metric
+   * @param ownerTypes
+   *        the tokens the count is reported at
+   * @param containerType
+   *        the type of the direct child of the owner holding the counted tokens
+   * @param childType
+   *        the type of the counted tokens
+   */
+  public ChildCountAccumulator(final String metric, final int[] ownerTypes,
+      final int containerType, final int childType) {
+    this.metric = metric;
+    this.ownerTypes = ownerTypes.clone();
+    this.containerType = containerType;
+    this.childType = childType;
+  }
+
+  @Override
+  public String metric() {
+    return metric;
+  }
+
+  @Override
+  public int[] tokens() {
+    final int[] tokens = Arrays.copyOf(ownerTypes, ownerTypes.length + 1);
+    tokens[ownerTypes.length] = childType;
+    return tokens;
+  }
+
+  @Override
+  public void beginTree() {
+    Arrays.fill(owners, 0, size, null);
+    size = 0;
+  }
+
+  @Override
+  public void visit(final DetailAST ast, final MetricReport report) {
+    if (ast.getType() == childType && size > 0) {
+      final DetailAST container = ast.getParent();
+      if (container != null && container.getType() == containerType
+          && container.getParent() == owners[size - 1]) {
+        counts[size - 1] += 1;
+      }
+    }
+    if (isOwner(ast)) {
+      if (size == owners.length) {
+        owners = Arrays.copyOf(owners, size * 2);
+        slots = Arrays.copyOf(slots, size * 2);
+        counts = Arrays.copyOf(counts, size * 2);
+      }
+      owners[size] = ast;
+      slots[size] = report.reserve(ast);
+      counts[size] = 0;
+      size += 1;
+    }
+  }
+
+  @Override
+  public void leave(final DetailAST ast, final MetricReport report) {
+    if (size > 0 && owners[size - 1] == ast) {
+      size -= 1;
+      report.set(slots[size], counts[size]);
+      owners[size] = null;
+    }
+  }
+
+  private boolean isOwner(final DetailAST ast) {
+    for (final int type : ownerTypes) {
+      if (ast.getType() == type) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,39 @@
+package edu.kit.checkstyle.checks.metrics.accumulators;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+
+/**
+ * Counts the statements of a method like the
+ * {@link edu.kit.checkstyle.checks.metrics.NumberOfStatementsPerMethodCheck}
+ * does.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public class StatementCountAccumulator extends BlockAccumulator {
+
+  public StatementCountAccumulator(final String metric) {
+    super(metric);
+  }
+
+  @Override
+  protected int block(final int value, final int depth) {
+    return value;
+  }
+
+  @Override
+  protected int statement(final int value, final DetailAST ast) {
+    switch (ast.getType()) {
+      case TokenTypes.VARIABLE_DEF:
+      case TokenTypes.EXPR:
+      case TokenTypes.RESOURCE:
+      case TokenTypes.LITERAL_NEW:
+      case TokenTypes.LITERAL_ASSERT:
+        return value + 1;
+
+      default:
+        return value;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package edu.kit.checkstyle.checks.metrics.accumulators;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+import edu.kit.checkstyle.checks.metrics.MetricAccumulator;
+import edu.kit.checkstyle.checks.metrics.MetricReport;
+
+
+/**
+ * Reports a 1 for every token of the given types.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public class TokenCountAccumulator implements MetricAccumulator {
+
+  private final String metric;
+  private final int[] types;
+
+  public TokenCountAccumulator(final String metric, final int... types) {
+    this.metric = metric;
+    this.types = types.clone();
+  }
+
+  @Override
+  public String metric() {
+    return metric;
+  }
+
+  @Override
+  public int[] tokens() {
+    return types.clone();
+  }
+
+  @Override
+  public void beginTree() {}
+
+  @Override
+  public void visit(final DetailAST ast, final MetricReport report) {
+    report.set(report.reserve(ast), 1);
+  }
+
+  @Override
+  public void leave(final DetailAST ast, final MetricReport report) {}
+}
@@ -0,0 +1,459 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * An immutable set of lower case words.
+ * <p>
+ * The words are sorted and stored one after the other in a single char
+ * buffer, with the offset of every word in an int buffer. Looking up a word
+ * is a binary search that compares the chars in place, so
+ * {@link #contains(CharSequence, int, int)} neither allocates nor needs the
+ * word as a String. Words are compared case insensitively and without
+ * surrounding white space, like they are read. A blank word makes the
+ * dictionary contain the empty word, which is kept as a flag instead of a
+ * word, so that it is neither counted nor suggested.
+ * <p>
+ * A dictionary is read from a text file with one word per line or mapped
+ * into memory from a binary file written by {@link #write}. The binary
+ * format is the header (magic, version, number of words, number of chars,
+ * whether it contains the empty word, CRC-32 of the rest) followed by the offsets and the chars, all big
+ * endian. The build compiles the word list into the binary resource
+ * {@link #RESOURCE}, which is read without parsing even from a jar.
+ * {@link #shared} and {@link #sharedResource} load every file or resource
+ * once per JVM, so all checks share its dictionary. Only the latest version
+ * of a file is kept, and dictionaries of words are dropped once no check
+ * uses them, so that a long running server does not keep every dictionary
+ * it ever loaded.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class Dictionary {
+
+  /** "DICT" */
+  private static final int MAGIC = 0x44494354;
+  private static final int VERSION = 3;
+  private static final int HEADER_BYTES = 24;
+
+  /** The compiled system dictionary on the class path. */
+  public static final String RESOURCE = "aspell.dict.bin";
+
+  /** The loaded dictionaries by file version or resource, see {@link #shared}. */
+  private static final ConcurrentMap<String, Dictionary> SHARED =
+      new ConcurrentHashMap<String, Dictionary>();
+
+  /** The key of the loaded version in {@link #SHARED} by file. */
+  private static final ConcurrentMap<String, String> LATEST =
+      new ConcurrentHashMap<String, String>();
+
+  /** The dictionaries created from words, see {@link #shared(Set)}. */
+  private static final LoadingCache<Set<String>, Dictionary> SHARED_WORDS = CacheBuilder.newBuilder()
+      .weakValues()
+      .build(new CacheLoader<Set<String>, Dictionary>() {
+        @Override
+        public Dictionary load(final Set<String> words) {
+          return of(words);
+        }
+      });
+
+  /** The start of every word, followed by the end of the last one. */
+  private final IntBuffer offsets;
+  private final CharBuffer chars;
+  private final int size;
+  private final boolean emptyWord;
+
+  private Dictionary(final IntBuffer offsets, final CharBuffer chars, final int size, final boolean emptyWord) {
+    this.offsets = offsets;
+    this.chars = chars;
+    this.size = size;
+    this.emptyWord = emptyWord;
+  }
+
+  /**
+   * Creates a dictionary of the given words.
+   */
+  public static Dictionary of(final Collection<String> words) {
+    final String[] normalized = new String[words.size()];
+    int count = 0;
+    boolean emptyWord = false;
+    for (final String word : words) {
+      final String w = word.trim().toLowerCase(Locale.ROOT);
+      if (w.isEmpty()) {
+        emptyWord = true;
+      } else {
+        normalized[count++] = w;
+      }
+    }
+    Arrays.sort(normalized, 0, count);
+
+    int unique = 0;
+    int length = 0;
+    for (int i = 0; i < count; ++i) {
+      if (unique == 0 || !normalized[i].equals(normalized[unique - 1])) {
+        normalized[unique++] = normalized[i];
+        length += normalized[i].length();
+      }
+    }
+
+    final int[] starts = new int[unique + 1];
+    final char[] content = new char[length];
+    int offset = 0;
+    for (int i = 0; i < unique; ++i) {
+      starts[i] = offset;
+      normalized[i].getChars(0, normalized[i].length(), content, offset);
+      offset += normalized[i].length();
+    }
+    starts[unique] = offset;
+    return new Dictionary(IntBuffer.wrap(starts), CharBuffer.wrap(content), unique, emptyWord);
+  }
+
+  /**
+   * Creates a dictionary of the given words unless it was created before.
+   */
+  public static Dictionary shared(final Set<String> words) {
+    return SHARED_WORDS.getUnchecked(ImmutableSet.copyOf(words));
+  }
+
+  /**
+   * Reads a dictionary with one word per line.
+   */
+  public static Dictionary read(final Reader reader) throws IOException {
+    final BufferedReader lines = new BufferedReader(reader);
+    final List<String> words = mkList();
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+      words.add(line);
+    }
+    return of(words);
+  }
+
+  /**
+   * Loads a text or binary dictionary file, telling them apart by the magic
+   * number of the binary format. Binary files are mapped into memory.
+   */
+  public static Dictionary load(final File file, final Charset charset) throws IOException {
+    if (isBinary(file)) {
+      return map(file);
+    }
+    try (Reader reader = new InputStreamReader(new FileInputStream(file), charset)) {
+      return read(reader);
+    }
+  }
+
+  /**
+   * Loads a dictionary file like {@link #load} unless it was loaded before
+   * and did not change since. A changed file replaces its previous version.
+   */
+  public static Dictionary shared(final File file, final Charset charset) throws IOException {
+    final String path = file.getCanonicalPath();
+    final String key = path + ":" + file.lastModified() + ":" + file.length();
+    Dictionary dictionary = SHARED.get(key);
+    if (dictionary == null) {
+      synchronized (SHARED) {
+        dictionary = SHARED.get(key);
+        if (dictionary == null) {
+          dictionary = load(file, charset);
+          SHARED.put(key, dictionary);
+          final String stale = LATEST.put(path, key);
+          if (stale != null && !stale.equals(key)) {
+            SHARED.remove(stale);
+          }
+        }
+      }
+    }
+    return dictionary;
+  }
+
+  /**
+   * Loads a binary dictionary from the class path, relative to this class,
+   * once per JVM. A resource in a directory is mapped into memory, one in a
+   * jar is read into the heap.
+   *
+   * @return the dictionary or {@code null} if there is no such resource
+   */
+  public static Dictionary sharedResource(final String name) throws IOException {
+    final URL url = Dictionary.class.getResource(name);
+    if (url == null) {
+      return null;
+    }
+    final String key = url.toString();
+    Dictionary dictionary = SHARED.get(key);
+    if (dictionary == null) {
+      synchronized (SHARED) {
+        dictionary = SHARED.get(key);
+        if (dictionary == null) {
+          dictionary = loadResource(url);
+          SHARED.put(key, dictionary);
+        }
+      }
+    }
+    return dictionary;
+  }
+
+  private static Dictionary loadResource(final URL url) throws IOException {
+    if ("file".equals(url.getProtocol())) {
+      try {
+        return map(new File(url.toURI()));
+      } catch (final URISyntaxException e) {
+        // read it like any other resource
+      }
+    }
+    try (InputStream in = url.openStream()) {
+      return of(ByteBuffer.wrap(ByteStreams.toByteArray(in)), url.toString());
+    }
+  }
+
+  private static boolean isBinary(final File file) throws IOException {
+    if (file.length() < HEADER_BYTES) {
+      return false;
+    }
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+      return in.readInt() == MAGIC;
+    }
+  }
+
+  /**
+   * Maps a binary dictionary file into memory.
+   */
+  public static Dictionary map(final File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+    }
+  }
+
+  /**
+   * Reads a binary dictionary from a buffer, which must not change anymore.
+   */
+  static Dictionary of(final ByteBuffer buffer, final String name) throws IOException {
+    if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException(name + " is not a binary dictionary");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IOException(name + " has the unsupported version " + buffer.getInt(4));
+    }
+    final int size = buffer.getInt(8);
+    final int length = buffer.getInt(12);
+    final int emptyWord = buffer.getInt(16);
+    final long expected = HEADER_BYTES + 4L * (size + 1) + 2L * length;
+    if (size < 0 || length < 0 || (emptyWord & ~1) != 0 || buffer.remaining() != expected
+        || checksum(buffer, HEADER_BYTES) != buffer.getInt(20)) {
+      throw new IOException(name + " is truncated or corrupt");
+    }
+
+    final ByteBuffer view = buffer.duplicate();
+    view.position(HEADER_BYTES);
+    view.limit(HEADER_BYTES + 4 * (size + 1));
+    final IntBuffer offsets = view.slice().asIntBuffer();
+    view.limit(buffer.limit());
+    view.position(HEADER_BYTES + 4 * (size + 1));
+    final CharBuffer chars = view.slice().asCharBuffer();
+    return new Dictionary(offsets, chars, size, emptyWord == 1);
+  }
+
+  /**
+   * @return the CRC-32 of the bytes of a buffer from the given position on
+   */
+  private static int checksum(final ByteBuffer buffer, final int from) {
+    final CRC32 crc = new CRC32();
+    final ByteBuffer rest = buffer.duplicate();
+    rest.position(from);
+    final byte[] chunk = new byte[Math.min(rest.remaining(), 1 << 16)];
+    while (rest.hasRemaining()) {
+      final int n = Math.min(chunk.length, rest.remaining());
+      rest.get(chunk, 0, n);
+      crc.update(chunk, 0, n);
+    }
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Writes the dictionary in the binary format.
+   */
+  public void write(final File file) throws IOException {
+    final int length = offsets.get(size);
+    final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * (size + 1) + 2 * length);
+    buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(length).putInt(emptyWord ? 1 : 0).putInt(0);
+    for (int i = 0; i <= size; ++i) {
+      buffer.putInt(offsets.get(i));
+    }
+    for (int i = 0; i < length; ++i) {
+      buffer.putChar(chars.get(i));
+    }
+    buffer.putInt(20, checksum(buffer, HEADER_BYTES));
+    Files.write(buffer.array(), file);
+  }
+
+  /**
+   * @return the number of words, without the empty word
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return whether a blank word was read into the dictionary
+   */
+  public boolean containsEmptyWord() {
+    return emptyWord;
+  }
+
+  /**
+   * @return the number of bytes of the words and their offsets
+   */
+  public long byteSize() {
+    return 4L * (size + 1) + 2L * offsets.get(size);
+  }
+
+  /**
+   * @return whether the words are mapped into memory from a file
+   */
+  public boolean isMapped() {
+    return chars.isDirect();
+  }
+
+  /**
+   * @return the word at the given index, in sorted order
+   */
+  public String word(final int index) {
+    final int start = offsets.get(index);
+    final int end = offsets.get(index + 1);
+    final char[] word = new char[end - start];
+    for (int i = start; i < end; ++i) {
+      word[i - start] = chars.get(i);
+    }
+    return new String(word);
+  }
+
+  /**
+   * @return the position of the first char of a word in {@link #charAt}
+   */
+  int start(final int index) {
+    return offsets.get(index);
+  }
+
+  /**
+   * @return the position after the last char of a word in {@link #charAt}
+   */
+  int end(final int index) {
+    return offsets.get(index + 1);
+  }
+
+  /**
+   * @return the char at the given position of all words
+   */
+  char charAt(final int position) {
+    return chars.get(position);
+  }
+
+  /**
+   * @return whether the dictionary contains the word
+   */
+  public boolean contains(final CharSequence word) {
+    return contains(word, 0, word.length());
+  }
+
+  /**
+   * @return whether the dictionary contains the characters from
+   *         {@code start} to {@code end} of the sequence
+   */
+  public boolean contains(final CharSequence text, final int start, final int end) {
+    int from = start;
+    int to = end;
+    while (from < to && text.charAt(from) <= ' ') {
+      from += 1;
+    }
+    while (to > from && text.charAt(to - 1) <= ' ') {
+      to -= 1;
+    }
+    if (from == to) {
+      return emptyWord;
+    }
+
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int cmp = compare(middle, text, from, to);
+      if (cmp < 0) {
+        low = middle + 1;
+      } else if (cmp > 0) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int compare(final int index, final CharSequence text, final int start, final int end) {
+    final int wordStart = offsets.get(index);
+    final int wordLength = offsets.get(index + 1) - wordStart;
+    final int length = end - start;
+    for (int i = 0, n = Math.min(wordLength, length); i < n; ++i) {
+      final char a = chars.get(wordStart + i);
+      final char b = Character.toLowerCase(text.charAt(start + i));
+      if (a != b) {
+        return a - b;
+      }
+    }
+    return wordLength - length;
+  }
+
+  /**
+   * Compiles text dictionaries into one binary dictionary, see the
+   * dictionary profile of the build.
+   *
+   * @param args
+   *        the text files, followed by the binary file
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: " + Dictionary.class.getName() + " <words.txt>... <words.bin>");
+      System.exit(1);
+    }
+    final List<String> words = mkList();
+    for (int i = 0; i < args.length - 1; ++i) {
+      words.addAll(Files.readLines(new File(args[i]), StandardCharsets.UTF_8));
+    }
+    final Dictionary dictionary = of(words);
+    final File output = new File(args[args.length - 1]);
+    if (output.getParentFile() != null) {
+      output.getParentFile().mkdirs();
+    }
+    dictionary.write(output);
+    System.out.println(dictionary.size() + " words written to " + output);
+  }
+}
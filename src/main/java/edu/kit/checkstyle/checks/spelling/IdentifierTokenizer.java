@@ -0,0 +1,149 @@
+package edu.kit.checkstyle.checks.spelling;
+
+
+/**
+ * Splits an identifier into words, as index ranges into the identifier.
+ * <p>
+ * A tokenizer is reused for many identifiers: {@link #reset} it to an
+ * identifier, then call {@link #next} until it returns {@code false} and
+ * read the range of every word with {@link #start} and {@link #end}. No
+ * strings or arrays are created on the way.
+ * <p>
+ * The words are the same as those of {@link String#split} with the regular
+ * expressions the spelling check used before, including empty words:
+ * <ul>
+ * <li>{@link Mode#CAMEL_CASE} splits before an upper case letter that
+ * follows a character that is not upper case, like {@code get|Name}, and
+ * before an upper case letter followed by a lower case one, like
+ * {@code XML|Parser}.</li>
+ * <li>{@link Mode#UNDERSCORES} splits at underscores and drops the empty
+ * words at the end, so {@code NAME_} is the single word {@code NAME} and
+ * {@code _} has no words at all.</li>
+ * </ul>
+ * Only ASCII letters count as upper or lower case.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class IdentifierTokenizer {
+
+  /** How to split an identifier. */
+  public enum Mode {
+    CAMEL_CASE,
+    UNDERSCORES,
+  }
+
+  private CharSequence text;
+  private Mode mode;
+  /** The end of the last word. */
+  private int limit;
+  /** The start of the next word, beyond {@link #limit} when there is none. */
+  private int position;
+
+  private int start;
+  private int end;
+
+  /**
+   * @return the length of an identifier without its trailing digits
+   */
+  public static int withoutTrailingDigits(final CharSequence identifier) {
+    int length = identifier.length();
+    while (length > 0 && isDigit(identifier.charAt(length - 1))) {
+      length -= 1;
+    }
+    return length;
+  }
+
+  /**
+   * Starts to split the first {@code length} characters of an identifier.
+   */
+  public void reset(final CharSequence identifier, final int length, final Mode splitMode) {
+    reset(identifier, 0, length, splitMode);
+  }
+
+  /**
+   * Starts to split the characters from {@code from} to {@code to} of an
+   * identifier, like a word found by another tokenizer.
+   */
+  public void reset(final CharSequence identifier, final int from, final int to, final Mode splitMode) {
+    text = identifier;
+    mode = splitMode;
+    limit = to;
+    position = from;
+    start = from;
+    end = from;
+
+    if (mode == Mode.UNDERSCORES) {
+      int last = to;
+      while (last > from && identifier.charAt(last - 1) == '_') {
+        last -= 1;
+      }
+      if (last < to) {
+        // trailing empty words are dropped, a word without underscores is kept
+        limit = last;
+        if (last == from) {
+          position = limit + 1;
+        }
+      }
+    }
+  }
+
+  /**
+   * Advances to the next word.
+   *
+   * @return whether there is one
+   */
+  public boolean next() {
+    if (position > limit) {
+      return false;
+    }
+    start = position;
+    end = mode == Mode.CAMEL_CASE ? camelCaseEnd(start) : underscoreEnd(start);
+    position = end == limit ? limit + 1 : mode == Mode.CAMEL_CASE ? end : end + 1;
+    return true;
+  }
+
+  /**
+   * @return the start of the current word
+   */
+  public int start() {
+    return start;
+  }
+
+  /**
+   * @return the end of the current word, exclusive
+   */
+  public int end() {
+    return end;
+  }
+
+  private int camelCaseEnd(final int from) {
+    for (int i = from + 1; i < limit; ++i) {
+      if (isUpper(text.charAt(i))
+          && (!isUpper(text.charAt(i - 1)) || i + 1 < limit && isLower(text.charAt(i + 1)))) {
+        return i;
+      }
+    }
+    return limit;
+  }
+
+  private int underscoreEnd(final int from) {
+    for (int i = from; i < limit; ++i) {
+      if (text.charAt(i) == '_') {
+        return i;
+      }
+    }
+    return limit;
+  }
+
+  private static boolean isUpper(final char c) {
+    return c >= 'A' && c <= 'Z';
+  }
+
+  private static boolean isLower(final char c) {
+    return c >= 'a' && c <= 'z';
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+}
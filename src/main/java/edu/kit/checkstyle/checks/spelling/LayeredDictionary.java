@@ -0,0 +1,241 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * An ordered stack of dictionaries, like a base language, a second
+ * language, a course dictionary and the words allowed for a submission.
+ * <p>
+ * A word is known if any layer contains it. In front of the layers is a
+ * blocked Bloom filter of all their words: the bits of a word all lie in
+ * one 64 bit block, so most unknown words are rejected with a single hash
+ * and a single memory access, and the layers are only searched for words
+ * that are probably known. The empty word is known if a layer contains it
+ * and bypasses the filter. {@link #shared} builds the filter once per JVM
+ * for every combination of layers that is in use.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class LayeredDictionary {
+
+  /** The minimal bits of the filter per word, for at most about 0.5% false positives. */
+  private static final int BITS_PER_WORD = 16;
+
+  /** The number of bits set per word. */
+  private static final int HASHES = 6;
+
+  private static final long PRIME = 0x100000001B3L;
+  private static final long SEED = 0xCBF29CE484222325L;
+
+  /** The layered dictionaries by their layers, held weakly. */
+  private static final LoadingCache<List<Layer>, LayeredDictionary> SHARED = CacheBuilder.newBuilder()
+      .weakValues()
+      .build(new CacheLoader<List<Layer>, LayeredDictionary>() {
+        @Override
+        public LayeredDictionary load(final List<Layer> layers) {
+          return new LayeredDictionary(layers);
+        }
+      });
+
+  /**
+   * A named dictionary. Layers are equal if they have the same name and the
+   * same dictionary instance.
+   */
+  public static final class Layer {
+
+    private final String name;
+    private final Dictionary words;
+
+    public Layer(final String name, final Dictionary words) {
+      this.name = name;
+      this.words = words;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Dictionary getWords() {
+      return words;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof Layer && ((Layer) other).name.equals(name) && ((Layer) other).words == words;
+    }
+
+    @Override
+    public int hashCode() {
+      return name.hashCode() * 31 + System.identityHashCode(words);
+    }
+  }
+
+  private final List<Layer> layers;
+  private final Dictionary[] dictionaries;
+  private final boolean emptyWord;
+
+  /** The Bloom filter, see the class comment. */
+  private final long[] blocks;
+  private final int blockShift;
+
+  private LayeredDictionary(final List<Layer> layers) {
+    this.layers = ImmutableList.copyOf(layers);
+    this.dictionaries = new Dictionary[layers.size()];
+    long words = 0;
+    boolean empty = false;
+    for (int i = 0; i < dictionaries.length; ++i) {
+      dictionaries[i] = layers.get(i).words;
+      words += dictionaries[i].size();
+      empty |= dictionaries[i].containsEmptyWord();
+    }
+    emptyWord = empty;
+
+    int blockBits = 0;
+    while (blockBits < 30 && 64L << blockBits < words * BITS_PER_WORD) {
+      blockBits += 1;
+    }
+    blocks = new long[1 << blockBits];
+    blockShift = 64 - blockBits;
+
+    for (final Dictionary dictionary : dictionaries) {
+      for (int word = 0; word < dictionary.size(); ++word) {
+        long hash = SEED;
+        for (int i = dictionary.start(word), end = dictionary.end(word); i < end; ++i) {
+          hash = (hash ^ dictionary.charAt(i)) * PRIME;
+        }
+        hash = mix(hash);
+        blocks[block(hash)] |= mask(hash);
+      }
+    }
+  }
+
+  /**
+   * @return the layered dictionary of the given layers, built once
+   */
+  public static LayeredDictionary shared(final List<Layer> layers) {
+    return SHARED.getUnchecked(ImmutableList.copyOf(layers));
+  }
+
+  /**
+   * @return all layered dictionaries of the JVM that are in use
+   */
+  public static Collection<LayeredDictionary> all() {
+    return Collections.unmodifiableCollection(SHARED.asMap().values());
+  }
+
+  /**
+   * @return the layers, the first one at the bottom
+   */
+  public List<Layer> getLayers() {
+    return layers;
+  }
+
+  /**
+   * @return the size of the Bloom filter in bytes
+   */
+  public long filterBytes() {
+    return 8L * blocks.length;
+  }
+
+  /**
+   * @return lines describing the words and memory of every layer
+   */
+  public List<String> describe() {
+    final List<String> lines = mkList();
+    for (final Layer layer : layers) {
+      lines.add(String.format("%s: %d words, %d KB%s", layer.name, layer.words.size(),
+          layer.words.byteSize() / 1024, layer.words.isMapped() ? " mapped" : ""));
+    }
+    lines.add(String.format("Bloom filter: %d KB", filterBytes() / 1024));
+    return lines;
+  }
+
+  /**
+   * @return whether a layer contains the characters from {@code start} to
+   *         {@code end} of the sequence, compared like by the layers
+   */
+  public boolean contains(final CharSequence text, final int start, final int end) {
+    int from = start;
+    int to = end;
+    while (from < to && text.charAt(from) <= ' ') {
+      from += 1;
+    }
+    while (to > from && text.charAt(to - 1) <= ' ') {
+      to -= 1;
+    }
+    if (from == to) {
+      return emptyWord;
+    }
+
+    if (!mayContain(text, from, to)) {
+      return false;
+    }
+    for (final Dictionary dictionary : dictionaries) {
+      if (dictionary.contains(text, from, to)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return whether a layer contains the word
+   */
+  public boolean contains(final CharSequence word) {
+    return contains(word, 0, word.length());
+  }
+
+  /**
+   * @return whether the Bloom filter lets the characters from {@code from}
+   *         to {@code to} of the sequence pass, which are not trimmed
+   */
+  boolean mayContain(final CharSequence text, final int from, final int to) {
+    long hash = SEED;
+    for (int i = from; i < to; ++i) {
+      hash = (hash ^ Character.toLowerCase(text.charAt(i))) * PRIME;
+    }
+    hash = mix(hash);
+    final long mask = mask(hash);
+    return (blocks[block(hash)] & mask) == mask;
+  }
+
+  private int block(final long hash) {
+    return blockShift == 64 ? 0 : (int) (hash >>> blockShift);
+  }
+
+  /**
+   * @return the bits of a word in its block, taken from the lower bits of
+   *         its hash, which do not select the block
+   */
+  private static long mask(final long hash) {
+    long mask = 0;
+    for (int i = 0; i < HASHES; ++i) {
+      mask |= 1L << (hash >>> (6 * i));
+    }
+    return mask;
+  }
+
+  /**
+   * The finalizer of MurmurHash3, which spreads every input bit over all
+   * bits of the hash.
+   */
+  private static long mix(final long hash) {
+    long h = hash;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,406 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * A list of common misspellings, like {@code recieve}, with their
+ * corrections, found in text by an Aho-Corasick automaton.
+ * <p>
+ * The automaton is a trie of all misspellings with a failure link from
+ * every state to the state of its longest proper suffix in the trie. A
+ * {@link Matcher} runs it once over a text and finds every misspelling in a
+ * single pass, so the time is linear in the length of the text and does not
+ * depend on the size of the list. Letters are compared in lower case, and
+ * only whole words are reported: a misspelling must neither be preceded nor
+ * followed by a letter, digit or underscore.
+ * <p>
+ * The trie is stored in arrays: the edges of a state are sorted by their
+ * character and found by binary search, except those of the root, which most
+ * characters of a text lead back to and which has a table for ASCII
+ * characters. {@link #shared} builds the automaton once per JVM for every
+ * list file.
+ * <p>
+ * A list has one misspelling per line, optionally followed by {@code ->}
+ * and its comma separated corrections, like {@code teh->the}. Empty lines
+ * and lines starting with {@code #} are ignored.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class Misspellings {
+
+  private static final String ARROW = "->";
+
+  private static final int ASCII = 128;
+
+  /** The lists by file version, see {@link #shared}. */
+  private static final ConcurrentMap<String, Misspellings> SHARED =
+      new ConcurrentHashMap<String, Misspellings>();
+
+  /** The key of the last read list in {@link #SHARED} by file. */
+  private static final ConcurrentMap<String, String> LATEST =
+      new ConcurrentHashMap<String, String>();
+
+  /** The misspellings in lower case, sorted, and their corrections. */
+  private final String[] words;
+  private final String[] corrections;
+
+  /** The state after the root for every ASCII character, or -1. */
+  private final int[] root = new int[ASCII];
+
+  /** The edges of state {@code s} are those from {@code edges[s]} to {@code edges[s + 1]}. */
+  private final int[] edges;
+  private final char[] labels;
+  private final int[] targets;
+
+  /** The state of the longest proper suffix of every state. */
+  private final int[] fail;
+  /** The misspelling ending in every state, or -1. */
+  private final int[] word;
+  /** The state of the longest proper suffix that is a misspelling, or 0. */
+  private final int[] output;
+
+  private Misspellings(final Map<String, String> sorted) {
+    words = sorted.keySet().toArray(new String[sorted.size()]);
+    corrections = sorted.values().toArray(new String[sorted.size()]);
+
+    // build the trie in preorder: a misspelling shares its path with the
+    // previous one up to their common prefix, the rest are new states
+    int capacity = 1;
+    for (final String w : words) {
+      capacity += w.length();
+    }
+    final int[] parent = new int[capacity];
+    final char[] label = new char[capacity];
+    final int[] wordOf = new int[capacity];
+    Arrays.fill(wordOf, -1);
+    final int[] path = new int[maxLength(words) + 1];
+    int states = 1;
+    String previous = "";
+    for (int w = 0; w < words.length; ++w) {
+      final String current = words[w];
+      int common = 0;
+      while (common < previous.length() && common < current.length()
+          && previous.charAt(common) == current.charAt(common)) {
+        common += 1;
+      }
+      for (int i = common; i < current.length(); ++i) {
+        parent[states] = path[i];
+        label[states] = current.charAt(i);
+        path[i + 1] = states;
+        states += 1;
+      }
+      wordOf[path[current.length()]] = w;
+      previous = current;
+    }
+
+    // the children of a state were created in the order of their characters
+    edges = new int[states + 1];
+    for (int s = 1; s < states; ++s) {
+      edges[parent[s] + 1] += 1;
+    }
+    for (int s = 0; s < states; ++s) {
+      edges[s + 1] += edges[s];
+    }
+    labels = new char[states - 1];
+    targets = new int[states - 1];
+    final int[] filled = Arrays.copyOf(edges, states);
+    for (int s = 1; s < states; ++s) {
+      final int edge = filled[parent[s]]++;
+      labels[edge] = label[s];
+      targets[edge] = s;
+    }
+    word = Arrays.copyOf(wordOf, states);
+    Arrays.fill(root, -1);
+    for (int edge = edges[0]; edge < edges[1] && labels[edge] < ASCII; ++edge) {
+      root[labels[edge]] = targets[edge];
+    }
+
+    // the failure links in breadth first order, shorter suffixes come first
+    fail = new int[states];
+    output = new int[states];
+    final int[] queue = new int[states];
+    int queued = 1;
+    for (int head = 0; head < queued; ++head) {
+      final int state = queue[head];
+      for (int edge = edges[state]; edge < edges[state + 1]; ++edge) {
+        final int child = targets[edge];
+        if (state != 0) {
+          int suffix = fail[state];
+          int next = step(suffix, labels[edge]);
+          while (next < 0 && suffix != 0) {
+            suffix = fail[suffix];
+            next = step(suffix, labels[edge]);
+          }
+          fail[child] = next < 0 ? 0 : next;
+          output[child] = word[fail[child]] >= 0 ? fail[child] : output[fail[child]];
+        }
+        queue[queued++] = child;
+      }
+    }
+  }
+
+  private static int maxLength(final String[] words) {
+    int max = 0;
+    for (final String w : words) {
+      max = Math.max(max, w.length());
+    }
+    return max;
+  }
+
+  /**
+   * @return the misspellings of the given lines, see the class comment
+   */
+  public static Misspellings read(final Reader reader) throws IOException {
+    final Map<String, String> sorted = new TreeMap<String, String>();
+    final BufferedReader lines = new BufferedReader(reader);
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+      if (line.trim().isEmpty() || line.trim().startsWith("#")) {
+        continue;
+      }
+      final int arrow = line.indexOf(ARROW);
+      final String w = (arrow < 0 ? line : line.substring(0, arrow)).trim().toLowerCase(Locale.ROOT);
+      final StringBuilder correction = new StringBuilder();
+      if (arrow >= 0) {
+        for (final String c : line.substring(arrow + ARROW.length()).split(",")) {
+          if (!c.trim().isEmpty()) {
+            correction.append(correction.length() == 0 ? "" : ", ").append(c.trim());
+          }
+        }
+      }
+      if (!w.isEmpty() && !sorted.containsKey(w)) {
+        sorted.put(w, correction.toString());
+      }
+    }
+    return new Misspellings(sorted);
+  }
+
+  /**
+   * Reads a list file unless it was read before and did not change since.
+   * Only the list of the latest version of a file is kept.
+   */
+  public static Misspellings shared(final File file, final Charset charset) throws IOException {
+    final String path = file.getCanonicalPath();
+    final String key = path + ":" + file.lastModified() + ":" + file.length();
+    Misspellings misspellings = SHARED.get(key);
+    if (misspellings == null) {
+      synchronized (SHARED) {
+        misspellings = SHARED.get(key);
+        if (misspellings == null) {
+          try (Reader reader = new InputStreamReader(new FileInputStream(file), charset)) {
+            misspellings = read(reader);
+          }
+          SHARED.put(key, misspellings);
+          final String stale = LATEST.put(path, key);
+          if (stale != null && !stale.equals(key)) {
+            SHARED.remove(stale);
+          }
+        }
+      }
+    }
+    return misspellings;
+  }
+
+  /**
+   * @return the number of misspellings
+   */
+  public int size() {
+    return words.length;
+  }
+
+  /**
+   * @return the number of states of the automaton
+   */
+  public int states() {
+    return fail.length;
+  }
+
+  /**
+   * @return a new matcher, which is not thread safe
+   */
+  public Matcher matcher() {
+    return new Matcher();
+  }
+
+  /**
+   * @return the state after reading the lower case character, or -1 if
+   *         there is no edge for it
+   */
+  private int step(final int state, final char c) {
+    if (state == 0 && c < ASCII) {
+      return root[c];
+    }
+    int low = edges[state];
+    int high = edges[state + 1] - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      if (labels[middle] < c) {
+        low = middle + 1;
+      } else if (labels[middle] > c) {
+        high = middle - 1;
+      } else {
+        return targets[middle];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Replaces the escape sequences of the source text of a string or
+   * character literal by spaces, so that they separate words like
+   * {@code \t} does at runtime. All other characters keep their columns.
+   */
+  public static String maskEscapes(final String literal) {
+    final int backslash = literal.indexOf('\\');
+    if (backslash < 0) {
+      return literal;
+    }
+    final char[] chars = literal.toCharArray();
+    for (int i = backslash; i < chars.length; ++i) {
+      if (chars[i] != '\\') {
+        continue;
+      }
+      int end = Math.min(i + 2, chars.length);
+      if (end > i + 1 && chars[i + 1] == 'u') {
+        while (end < chars.length && chars[end] == 'u') {
+          end += 1;
+        }
+        end = Math.min(end + 4, chars.length);
+      } else if (end > i + 1 && isOctalDigit(chars[i + 1])) {
+        final int max = i + (chars[i + 1] <= '3' ? 4 : 3);
+        while (end < Math.min(max, chars.length) && isOctalDigit(chars[end])) {
+          end += 1;
+        }
+      }
+      Arrays.fill(chars, i, end, ' ');
+      i = end - 1;
+    }
+    return new String(chars);
+  }
+
+  private static boolean isOctalDigit(final char c) {
+    return c >= '0' && c <= '7';
+  }
+
+  private static boolean isWordCharacter(final char c) {
+    return Character.isLetterOrDigit(c) || c == '_';
+  }
+
+  /**
+   * Finds the misspellings in a text. Like {@link IdentifierTokenizer}, a
+   * matcher is reused for many texts: {@link #reset} it, then call
+   * {@link #find} until it returns {@code false}. The misspellings are found
+   * in the order of their ends.
+   */
+  public final class Matcher {
+
+    private CharSequence text;
+    private int limit;
+    /** The next character to read. */
+    private int position;
+    private int state;
+    /** The next state to report a misspelling of, or 0. */
+    private int pending;
+
+    private int found;
+    private int start;
+    private int end;
+
+    private Matcher() {}
+
+    /**
+     * Starts to search the characters from {@code from} to {@code to} of
+     * the text.
+     */
+    public void reset(final CharSequence input, final int from, final int to) {
+      text = input;
+      limit = to;
+      position = from;
+      state = 0;
+      pending = 0;
+    }
+
+    /**
+     * Starts to search the text.
+     */
+    public void reset(final CharSequence input) {
+      reset(input, 0, input.length());
+    }
+
+    /**
+     * Advances to the next misspelling.
+     *
+     * @return whether there is one
+     */
+    public boolean find() {
+      while (true) {
+        while (pending != 0) {
+          final int candidate = pending;
+          pending = output[candidate];
+          if (isWholeWord(word[candidate])) {
+            return true;
+          }
+        }
+        if (position >= limit) {
+          return false;
+        }
+
+        final char c = Character.toLowerCase(text.charAt(position));
+        position += 1;
+        int next = step(state, c);
+        while (next < 0 && state != 0) {
+          state = fail[state];
+          next = step(state, c);
+        }
+        state = next < 0 ? 0 : next;
+        pending = word[state] >= 0 ? state : output[state];
+      }
+    }
+
+    private boolean isWholeWord(final int w) {
+      final int from = position - words[w].length();
+      if (from > 0 && isWordCharacter(text.charAt(from - 1))
+          || position < text.length() && isWordCharacter(text.charAt(position))) {
+        return false;
+      }
+      found = w;
+      start = from;
+      end = position;
+      return true;
+    }
+
+    /**
+     * @return the start of the current misspelling
+     */
+    public int start() {
+      return start;
+    }
+
+    /**
+     * @return the end of the current misspelling, exclusive
+     */
+    public int end() {
+      return end;
+    }
+
+    /**
+     * @return the corrections of the current misspelling, comma separated,
+     *         or an empty string if there are none
+     */
+    public String correction() {
+      return corrections[found];
+    }
+  }
+}
@@ -0,0 +1,309 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Finds the words of a dictionary that are similar to a misspelled word.
+ * <p>
+ * The index is a symmetric delete index: it contains every string that is
+ * left when up to {@link #MAX_DISTANCE} chars are deleted from a word.
+ * Words within that edit distance of a misspelled word share such a string
+ * with it, so only the deletes of the misspelled word have to be looked up
+ * instead of comparing it with every word. Like SymSpell, only the first
+ * {@link #PREFIX_LENGTH} chars of a word are used, which keeps the index
+ * small without losing candidates, as the candidates are compared with the
+ * whole word anyway.
+ * <p>
+ * The deletes are not stored as strings. Every entry of the index is a
+ * hash of a delete in the upper 39 bits and the index of its word in the
+ * lower 24 bits. The entries are sorted and the position of the first entry
+ * of every value of their upper bits is kept, so the words of a delete are
+ * found with a single random access. Hash collisions only add candidates
+ * that are ruled out by their edit distance. {@link #of} builds the index of a
+ * dictionary once per JVM.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class SuggestionIndex {
+
+  /**
+   * The maximal edit distance of a suggestion. Shorter words allow fewer
+   * edits, as most short strings are a few edits away from many words.
+   */
+  public static final int MAX_DISTANCE = 2;
+
+  private static final int PREFIX_LENGTH = 7;
+
+  private static final int WORD_BITS = 24;
+  private static final long WORD_MASK = (1L << WORD_BITS) - 1;
+  /** The hashes leave the sign bit clear, so that entries sort unsigned. */
+  private static final int HASH_BITS = 63 - WORD_BITS;
+  private static final long HASH_MASK = (1L << HASH_BITS) - 1;
+
+  private static final long PRIME = 0x100000001B3L;
+  private static final long SEED = 0xCBF29CE484222325L;
+
+  /** The indexes by their dictionary, which is compared by identity. */
+  private static final LoadingCache<Dictionary, SuggestionIndex> SHARED = CacheBuilder.newBuilder()
+      .weakKeys()
+      .build(new CacheLoader<Dictionary, SuggestionIndex>() {
+        @Override
+        public SuggestionIndex load(final Dictionary dictionary) {
+          return new SuggestionIndex(dictionary);
+        }
+      });
+
+  private final Dictionary dictionary;
+
+  /** The sorted deletes of all words, see the class comment. */
+  private final long[] entries;
+
+  /** The first entry with each value of the upper bits, and the end. */
+  private final int[] buckets;
+  private final int bucketShift;
+
+  private SuggestionIndex(final Dictionary dictionary) {
+    if (dictionary.size() > WORD_MASK) {
+      throw new IllegalArgumentException("Too many words for suggestions: " + dictionary.size());
+    }
+    this.dictionary = dictionary;
+
+    int count = 0;
+    for (int word = 0; word < dictionary.size(); ++word) {
+      count += deleteCount(Math.min(dictionary.end(word) - dictionary.start(word), PREFIX_LENGTH));
+    }
+
+    final long[] all = new long[count];
+    int size = 0;
+    for (int word = 0; word < dictionary.size(); ++word) {
+      final int start = dictionary.start(word);
+      final int length = Math.min(dictionary.end(word) - start, PREFIX_LENGTH);
+      for (int a = -1; a < length; ++a) {
+        for (int b = a; b < length; ++b) {
+          all[size++] = hash(dictionary, start, length, a, b) << WORD_BITS | word;
+          if (a < 0) {
+            break;
+          }
+        }
+      }
+    }
+
+    // the deletes of a word may be the same, like "ab" of "aab"
+    Arrays.sort(all);
+    int unique = 0;
+    for (int i = 0; i < all.length; ++i) {
+      if (unique == 0 || all[i] != all[unique - 1]) {
+        all[unique++] = all[i];
+      }
+    }
+    entries = Arrays.copyOf(all, unique);
+
+    // about two entries per bucket
+    final int bucketBits = Math.max(1, 31 - Integer.numberOfLeadingZeros(Math.max(1, unique / 2)));
+    bucketShift = 63 - bucketBits;
+    buckets = new int[(1 << bucketBits) + 1];
+    int entry = 0;
+    for (int bucket = 0; bucket < buckets.length; ++bucket) {
+      while (entry < unique && entries[entry] >>> bucketShift < bucket) {
+        entry += 1;
+      }
+      buckets[bucket] = entry;
+    }
+  }
+
+  /**
+   * @return the index of a dictionary, built once
+   */
+  public static SuggestionIndex of(final Dictionary dictionary) {
+    return SHARED.getUnchecked(dictionary);
+  }
+
+  /**
+   * @return the number of deletes of a prefix, including itself
+   */
+  private static int deleteCount(final int length) {
+    return 1 + length + length * (length - 1) / 2;
+  }
+
+  /**
+   * @return the hash of a word without the chars at the positions {@code a}
+   *         and {@code b}, which may be the same or negative
+   */
+  private static long hash(final Dictionary dictionary, final int start, final int length,
+      final int a, final int b) {
+    long hash = SEED;
+    for (int i = 0; i < length; ++i) {
+      if (i != a && i != b) {
+        hash = (hash ^ dictionary.charAt(start + i)) * PRIME;
+      }
+    }
+    return hash & HASH_MASK;
+  }
+
+  private static long hash(final String word, final int length, final int a, final int b) {
+    long hash = SEED;
+    for (int i = 0; i < length; ++i) {
+      if (i != a && i != b) {
+        hash = (hash ^ word.charAt(i)) * PRIME;
+      }
+    }
+    return hash & HASH_MASK;
+  }
+
+  /**
+   * @return the number of entries in the index
+   */
+  public int size() {
+    return entries.length;
+  }
+
+  /**
+   * @param word
+   *        the misspelled word
+   * @param max
+   *        the maximal number of suggestions
+   * @return the words of all indexes within {@link #maxDistance} edits of
+   *         the word, the closest first, in lower case
+   */
+  public static List<String> suggest(final Iterable<SuggestionIndex> indexes, final String word,
+      final int max) {
+    final String lower = word.toLowerCase(Locale.ROOT);
+    final Map<String, Integer> distances = mkMap();
+    final int maxDistance = maxDistance(lower);
+    if (maxDistance > 0) {
+      for (final SuggestionIndex index : indexes) {
+        index.collect(lower, maxDistance, distances);
+      }
+    }
+
+    final List<String> suggestions = Lists.newArrayList(distances.keySet());
+    Collections.sort(suggestions, new Comparator<String>() {
+      @Override
+      public int compare(final String a, final String b) {
+        final int byDistance = distances.get(a) - distances.get(b);
+        if (byDistance != 0) {
+          return byDistance;
+        }
+        final int byLength = Math.abs(a.length() - lower.length()) - Math.abs(b.length() - lower.length());
+        return byLength != 0 ? byLength : a.compareTo(b);
+      }
+    });
+    return suggestions.subList(0, Math.min(max, suggestions.size()));
+  }
+
+  /**
+   * @return the maximal edit distance of suggestions for a word: none for up
+   *         to two chars, one for up to four and {@link #MAX_DISTANCE} else
+   */
+  static int maxDistance(final String word) {
+    return Math.min(MAX_DISTANCE, (word.length() - 1) / 2);
+  }
+
+  /**
+   * Adds the words within the given distance of a lower case word to the
+   * map, with their distance.
+   */
+  private void collect(final String word, final int maxDistance, final Map<String, Integer> distances) {
+    final int length = Math.min(word.length(), PREFIX_LENGTH);
+    final BitSet checked = new BitSet();
+    final int[][] rows = new int[3][word.length() + maxDistance + 1];
+    for (int a = -1; a < length; ++a) {
+      for (int b = a; b < length; ++b) {
+        if (b > a && maxDistance < 2) {
+          break;
+        }
+        final long hash = hash(word, length, a, b);
+        final int end = entries.length;
+        for (int i = lowerBound(hash << WORD_BITS); i < end && entries[i] >>> WORD_BITS == hash; ++i) {
+          final int candidate = (int) (entries[i] & WORD_MASK);
+          final int candidateLength = dictionary.end(candidate) - dictionary.start(candidate);
+          if (Math.abs(candidateLength - word.length()) > maxDistance || checked.get(candidate)) {
+            continue;
+          }
+          checked.set(candidate);
+          final int distance = distance(word, candidate, maxDistance, rows);
+          if (distance <= maxDistance && distance > 0) {
+            final String suggestion = dictionary.word(candidate);
+            final Integer known = distances.get(suggestion);
+            if (known == null || known > distance) {
+              distances.put(suggestion, distance);
+            }
+          }
+        }
+        if (a < 0) {
+          break;
+        }
+      }
+    }
+  }
+
+  private int lowerBound(final long key) {
+    final int bucket = (int) (key >>> bucketShift);
+    int low = buckets[bucket];
+    int high = buckets[bucket + 1];
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (entries[middle] < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @param rows
+   *        three rows of at least the length of the candidate plus one
+   * @return the optimal string alignment distance between a word and a word
+   *         of the dictionary, or {@code max + 1} if it is larger
+   */
+  private int distance(final String word, final int candidate, final int max, final int[][] rows) {
+    final int start = dictionary.start(candidate);
+    final int m = word.length();
+    final int n = dictionary.end(candidate) - start;
+
+    int[] previous2 = rows[0];
+    int[] previous = rows[1];
+    int[] current = rows[2];
+    for (int j = 0; j <= n; ++j) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= m; ++i) {
+      current[0] = i;
+      int rowMin = i;
+      final char c = word.charAt(i - 1);
+      for (int j = 1; j <= n; ++j) {
+        final char d = dictionary.charAt(start + j - 1);
+        int cost = Math.min(previous[j - 1] + (c == d ? 0 : 1), Math.min(previous[j], current[j - 1]) + 1);
+        if (i > 1 && j > 1 && c == dictionary.charAt(start + j - 2) && word.charAt(i - 2) == d) {
+          cost = Math.min(cost, previous2[j - 2] + 1);
+        }
+        current[j] = cost;
+        rowMin = Math.min(rowMin, cost);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+      final int[] oldest = previous2;
+      previous2 = previous;
+      previous = current;
+      current = oldest;
+    }
+    return previous[n];
+  }
+}
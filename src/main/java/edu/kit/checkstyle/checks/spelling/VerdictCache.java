@@ -0,0 +1,130 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.Lists;
+
+
+/**
+ * Remembers whether identifiers are spelled correctly, across files and
+ * across the checkers of the threads of an audit.
+ * <p>
+ * The verdict of an identifier only depends on the words it is checked
+ * against, so {@link #shared} hands out the same cache to every check with
+ * the same dictionaries. A cache holds a bounded number of identifiers and
+ * evicts the least recently used ones first. A cache is dropped once no
+ * check uses it, so that the dictionaries of old configurations can be
+ * dropped as well. Every cache counts its own lookups, so audits with
+ * different dictionaries do not mix, while concurrent audits with the same
+ * ones share the cache and its counts.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public final class VerdictCache {
+
+  /** The caches by their words and size. */
+  private static final Cache<List<Object>, VerdictCache> SHARED =
+      CacheBuilder.newBuilder().weakValues().build();
+
+  private final Cache<String, Boolean> verdicts;
+  private final long maxSize;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private VerdictCache(final long maxSize) {
+    this.maxSize = maxSize;
+    verdicts = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .removalListener(new RemovalListener<String, Boolean>() {
+          @Override
+          public void onRemoval(final RemovalNotification<String, Boolean> notification) {
+            if (notification.getCause() == RemovalCause.SIZE) {
+              evictions.incrementAndGet();
+            }
+          }
+        })
+        .build();
+  }
+
+  /**
+   * @param maxSize
+   *        the maximal number of identifiers
+   * @param words
+   *        everything the verdicts depend on, which must implement
+   *        {@code equals} or be shared itself, like a {@link Dictionary}
+   * @return the cache for the given words
+   */
+  public static VerdictCache shared(final long maxSize, final List<Object> words) {
+    final List<Object> key = Lists.newArrayList(words);
+    key.add(maxSize);
+    try {
+      return SHARED.get(key, new Callable<VerdictCache>() {
+        @Override
+        public VerdictCache call() {
+          return new VerdictCache(maxSize);
+        }
+      });
+    } catch (final ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  /**
+   * @return all caches of the JVM that are in use
+   */
+  public static Collection<VerdictCache> all() {
+    return Collections.unmodifiableCollection(SHARED.asMap().values());
+  }
+
+  /**
+   * @return the statistics of the lookups since the cache was created
+   */
+  public CacheStats stats() {
+    return new CacheStats(hits.get(), misses.get(), 0, 0, 0, evictions.get());
+  }
+
+  /**
+   * @return the number of cached identifiers
+   */
+  public long size() {
+    return verdicts.size();
+  }
+
+  /**
+   * @return the maximal number of cached identifiers
+   */
+  public long maxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @return whether the identifier is spelled correctly or {@code null} if
+   *         it is not cached
+   */
+  public Boolean get(final String identifier) {
+    final Boolean known = verdicts.getIfPresent(identifier);
+    (known == null ? misses : hits).incrementAndGet();
+    return known;
+  }
+
+  /**
+   * Remembers whether the identifier is spelled correctly.
+   */
+  public void put(final String identifier, final boolean known) {
+    verdicts.put(identifier, known);
+  }
+}
@@ -0,0 +1,251 @@
+package edu.kit.checkstyle.listeners;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.puppycrawl.tools.checkstyle.DefaultContext;
+import com.puppycrawl.tools.checkstyle.ModuleFactory;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+
+/**
+ * Hands the events to another listener on a thread of its own, so that
+ * formatting and writing the output does not slow down checking.
+ * <p>
+ * The events are put into a preallocated ring buffer, which a single
+ * consumer thread drains in batches by calling the wrapped listener. Checking
+ * only waits when the buffer is full. When {@link #auditFinished} returns,
+ * the wrapped listener has received all events of the audit, including
+ * {@code auditFinished} itself, so its output is complete and flushed.
+ * Events must be fired from one thread at a time, which Checkstyle does.
+ * <p>
+ * If the wrapped listener fails, the consumer still hands it the remaining
+ * events, so that checking does not block, and {@link #auditFinished}
+ * throws the first failure on the checking thread.
+ * <p>
+ * In the configuration the wrapped listener is the only child:
+ * <pre>
+ * &lt;module name="AsyncListener"&gt;
+ *   &lt;property name="bufferSize" value="65536"/&gt;
+ *   &lt;module name="VerboseListener"/&gt;
+ * &lt;/module&gt;
+ * </pre>
+ */
+public class AsyncListener extends AutomaticBean implements AuditListener {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  /** How long a full buffer waits for the consumer before looking again. */
+  private static final long FULL_WAIT_NANOS = 50000L;
+
+  private static final int AUDIT_STARTED = 0;
+  private static final int AUDIT_FINISHED = 1;
+  private static final int FILE_STARTED = 2;
+  private static final int FILE_FINISHED = 3;
+  private static final int ERROR = 4;
+  private static final int EXCEPTION = 5;
+
+  private AuditListener listener;
+  private ModuleFactory moduleFactory;
+  private ClassLoader classLoader;
+
+  private Slot[] slots;
+  private int mask;
+
+  /** The number of events that were published, only used by the producer. */
+  private long next;
+  /** The number of events that were published, read by the consumer. */
+  private final AtomicLong published = new AtomicLong();
+  /** The number of events that were handed to the wrapped listener. */
+  private final AtomicLong consumed = new AtomicLong();
+
+  private volatile Thread consumer;
+  private volatile boolean consumerWaiting;
+  /** The first exception of the wrapped listener in this audit. */
+  private volatile RuntimeException failure;
+
+  /**
+   * The fields of one event. Audit events are immutable, so the event
+   * itself is kept instead of copying its fields.
+   */
+  private static class Slot {
+    int type;
+    AuditEvent event;
+    Throwable throwable;
+  }
+
+  /**
+   * Creates a listener whose wrapped listener is configured as its child.
+   */
+  public AsyncListener() {
+    setBufferSize(DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a listener that wraps the given one.
+   */
+  public AsyncListener(final AuditListener listener) {
+    this();
+    this.listener = listener;
+  }
+
+  /** Configure the number of events that may wait for the consumer. */
+  public void setBufferSize(final int size) {
+    final int capacity = Integer.highestOneBit(Math.max(size, 2) * 2 - 1);
+    slots = new Slot[capacity];
+    for (int i = 0; i < capacity; ++i) {
+      slots[i] = new Slot();
+    }
+    mask = capacity - 1;
+  }
+
+  /** Set by the checker to create the wrapped listener. */
+  public void setModuleFactory(final ModuleFactory factory) {
+    moduleFactory = factory;
+  }
+
+  /** Set by the checker to create the wrapped listener. */
+  public void setClassLoader(final ClassLoader loader) {
+    classLoader = loader;
+  }
+
+  @Override
+  protected void setupChild(final Configuration childConf) throws CheckstyleException {
+    if (listener != null) {
+      throw new CheckstyleException("AsyncListener wraps exactly one listener");
+    }
+    final Object child = moduleFactory.createModule(childConf.getName());
+    if (!(child instanceof AuditListener)) {
+      throw new CheckstyleException(childConf.getName() + " is not a listener");
+    }
+    if (child instanceof AutomaticBean) {
+      final DefaultContext context = new DefaultContext();
+      context.add("moduleFactory", moduleFactory);
+      context.add("classLoader", classLoader);
+      ((AutomaticBean) child).contextualize(context);
+      ((AutomaticBean) child).configure(childConf);
+    }
+    listener = (AuditListener) child;
+  }
+
+  public void auditStarted(final AuditEvent e) {
+    if (listener == null) {
+      throw new IllegalStateException("AsyncListener has no listener to wrap");
+    }
+    failure = null;
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        consume();
+      }
+    }, "async-listener");
+    thread.setDaemon(true);
+    consumer = thread;
+    thread.start();
+    publish(AUDIT_STARTED, e, null);
+  }
+
+  public void fileStarted(final AuditEvent e) {
+    publish(FILE_STARTED, e, null);
+  }
+
+  public void auditFinished(final AuditEvent e) {
+    publish(AUDIT_FINISHED, e, null);
+    Uninterruptibles.joinUninterruptibly(consumer);
+    if (failure != null) {
+      throw new IllegalStateException("the wrapped listener failed", failure);
+    }
+  }
+
+  public void fileFinished(final AuditEvent e) {
+    publish(FILE_FINISHED, e, null);
+  }
+
+  public void addError(final AuditEvent e) {
+    publish(ERROR, e, null);
+  }
+
+  public void addException(final AuditEvent e, final Throwable aThrowable) {
+    publish(EXCEPTION, e, aThrowable);
+  }
+
+  private void publish(final int type, final AuditEvent event, final Throwable throwable) {
+    while (next - consumed.get() > mask) {
+      LockSupport.parkNanos(FULL_WAIT_NANOS);
+    }
+    final Slot slot = slots[(int) next & mask];
+    slot.type = type;
+    slot.event = event;
+    slot.throwable = throwable;
+    published.set(++next);
+    if (consumerWaiting) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  /**
+   * Hands all events to the wrapped listener until the audit is finished.
+   */
+  private void consume() {
+    long cursor = consumed.get();
+    boolean finished = false;
+    while (!finished) {
+      final long available = published.get();
+      if (available == cursor) {
+        consumerWaiting = true;
+        if (published.get() == cursor) {
+          LockSupport.park(this);
+        }
+        consumerWaiting = false;
+        continue;
+      }
+
+      for (; cursor < available; ++cursor) {
+        final Slot slot = slots[(int) cursor & mask];
+        finished = dispatch(slot) || finished;
+        slot.event = null;
+        slot.throwable = null;
+      }
+      consumed.set(cursor);
+    }
+  }
+
+  /**
+   * @return whether the event finished the audit
+   */
+  private boolean dispatch(final Slot slot) {
+    try {
+      switch (slot.type) {
+      case AUDIT_STARTED:
+        listener.auditStarted(slot.event);
+        break;
+      case AUDIT_FINISHED:
+        listener.auditFinished(slot.event);
+        return true;
+      case FILE_STARTED:
+        listener.fileStarted(slot.event);
+        break;
+      case FILE_FINISHED:
+        listener.fileFinished(slot.event);
+        break;
+      case ERROR:
+        listener.addError(slot.event);
+        break;
+      default:
+        listener.addException(slot.event, slot.throwable);
+        break;
+      }
+    } catch (final RuntimeException ex) {
+      // a broken listener must not stop the consumer, checking would block
+      if (failure == null) {
+        failure = ex;
+      }
+    }
+    return slot.type == AUDIT_FINISHED;
+  }
+}
@@ -3,16 +3,17 @@ package edu.kit.checkstyle.listeners;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
 
+import edu.kit.checkstyle.checks.metrics.MetricSink;
+import edu.kit.checkstyle.checks.metrics.Metrics;
+
 import static edu.kit.checkstyle.CollectionUtils.*;
 
 
@@ -27,31 +28,101 @@ import static edu.kit.checkstyle.CollectionUtils.*;
  *
  * where 'metric-ident' denotes the name of the metric and 'value' its
  * calculated value.
+ * <p>
+ * The values are aggregated per file and metric while the file is checked
+ * and written when it is finished, as
+ *
+ * <pre>
+ * file:metric-ident:[value, value, ...]
+ * </pre>
+ *
+ * If the raw values are not retained, only their statistics are written
+ * instead, so memory does not grow with the number of values:
+ *
+ * <pre>
+ * file:metric-ident:count=2,sum=5,min=2,max=3
+ * </pre>
+ *
+ * With typed metrics the listener binds itself as the {@link MetricSink} of
+ * the audit, so the metric checks hand their values to it without building
+ * messages. The values are then no longer seen by other listeners. At most
+ * one listener of an audit should use typed metrics.
  *
  * @since JDK1.7, Jul 15, 2013
  */
-public class MetricListener extends AutomaticBean implements AuditListener {
+public class MetricListener extends AutomaticBean implements AuditListener, MetricSink {
+
+  private static final String PREFIX = "metric:";
 
   private PrintWriter writer = new PrintWriter(System.out);
   private boolean closeOut = false;
+  private boolean retainValues = true;
+  private boolean typedMetrics = false;
 
   /**
-   * Stores the name of the file in the row and the name of the metric in the column.
+   * The names of the metrics seen in messages so far. There are only a few
+   * metrics, so they are searched linearly without cutting the name out of
+   * the message.
    */
-  private final Table<String, String, List<Integer>> metrics =
-      HashBasedTable.create();
+  private final List<String> names = mkList();
+  private int[] ids = new int[0];
+
+  /** The values of the current file, indexed by metric id. */
+  private Values[] values = new Values[0];
 
   private String currentFile = "";
 
+  /**
+   * The values of one metric in one file. The objects are reused for all
+   * files, so aggregating allocates nothing once the arrays are large
+   * enough.
+   */
+  private static class Values {
+    int count;
+    long sum;
+    int min;
+    int max;
+    int[] raw = new int[8];
+
+    void add(final int value, final boolean retain) {
+      if (count == 0 || value < min) {
+        min = value;
+      }
+      if (count == 0 || value > max) {
+        max = value;
+      }
+      if (retain) {
+        if (count == raw.length) {
+          raw = Arrays.copyOf(raw, count * 2);
+        }
+        raw[count] = value;
+      }
+      sum += value;
+      count += 1;
+    }
+  }
+
+  /** Configure whether all values are written or only their statistics. */
+  public void setRetainValues(final boolean retain) {
+    retainValues = retain;
+  }
+
+  /** Configure whether metric checks hand their values to this listener directly. */
+  public void setTypedMetrics(final boolean typed) {
+    typedMetrics = typed;
+  }
+
   @Override
-  public void auditStarted(final AuditEvent e) {}
+  public void auditStarted(final AuditEvent e) {
+    if (typedMetrics) {
+      Metrics.bind(this);
+    }
+  }
 
   @Override
   public void auditFinished(final AuditEvent e) {
-    for (final Map.Entry<String,Map<String,List<Integer>>> row : metrics.rowMap().entrySet()) {
-      for (final Map.Entry<String,List<Integer>> column : row.getValue().entrySet()) {
-        writer.println(row.getKey() + ":" + column.getKey() + ":" + column.getValue());
-      }
+    if (Metrics.sink() == this) {
+      Metrics.bind(null);
     }
     writer.flush();
     if (closeOut) {
@@ -62,26 +133,64 @@ public class MetricListener extends AutomaticBean implements AuditListener {
   @Override
   public void fileStarted(final AuditEvent e) {
     currentFile = e.getFileName();
+    for (final Values metric : values) {
+      if (metric == null) {
+        continue;
+      }
+      metric.count = 0;
+      metric.sum = 0;
+    }
   }
 
   @Override
-  public void fileFinished(final AuditEvent e) {}
+  public void fileFinished(final AuditEvent e) {
+    final StringBuilder line = new StringBuilder();
+    for (int id = 0; id < values.length; ++id) {
+      final Values metric = values[id];
+      if (metric == null || metric.count == 0) {
+        continue;
+      }
+      line.setLength(0);
+      line.append(currentFile).append(':').append(Metrics.name(id)).append(':');
+      if (retainValues) {
+        line.append('[');
+        for (int i = 0; i < metric.count; ++i) {
+          line.append(i == 0 ? "" : ", ").append(metric.raw[i]);
+        }
+        line.append(']');
+      } else {
+        line.append("count=").append(metric.count)
+            .append(",sum=").append(metric.sum)
+            .append(",min=").append(metric.min)
+            .append(",max=").append(metric.max);
+      }
+      writer.println(line);
+    }
+  }
 
   @Override
   public void addError(final AuditEvent e) {
-    if (SeverityLevel.INFO.equals(e.getSeverityLevel())
-        && e.getMessage().startsWith("metric:")) {
-      final String[] parts = e.getMessage().split(":");
-      final String metric = parts[1];
-      final Integer value = Integer.valueOf(parts[2]);
-      final List<Integer> values = metrics.get(currentFile, metric);
-
-      if (values == null) {
-        metrics.put(currentFile, metric, mkList(value));
-      } else {
-        values.add(value);
-      }
+    final String message = e.getMessage();
+    if (SeverityLevel.INFO.equals(e.getSeverityLevel()) && message.startsWith(PREFIX)) {
+      final int separator = message.indexOf(':', PREFIX.length());
+      final int id = metricId(message, PREFIX.length(), separator);
+      add(id, parseInt(message, separator + 1));
+    }
+  }
+
+  @Override
+  public void metric(final int metricId, final String fileName, final int line, final int value) {
+    add(metricId, value);
+  }
+
+  private void add(final int id, final int value) {
+    if (id >= values.length) {
+      values = Arrays.copyOf(values, id + 1);
+    }
+    if (values[id] == null) {
+      values[id] = new Values();
     }
+    values[id].add(value, retainValues);
   }
 
   @Override
@@ -91,4 +200,48 @@ public class MetricListener extends AutomaticBean implements AuditListener {
     writer = new PrintWriter(new FileOutputStream(fileName));
     closeOut = true;
   }
+
+  /**
+   * Looks up the id of the metric whose name is the given part of the
+   * message.
+   */
+  private int metricId(final String message, final int start, final int end) {
+    final int length = end - start;
+    for (int i = 0; i < names.size(); ++i) {
+      final String name = names.get(i);
+      if (name.length() == length && message.regionMatches(start, name, 0, length)) {
+        return ids[i];
+      }
+    }
+    final String name = message.substring(start, end);
+    names.add(name);
+    ids = Arrays.copyOf(ids, names.size());
+    ids[names.size() - 1] = Metrics.id(name);
+    return ids[names.size() - 1];
+  }
+
+  /**
+   * Parses the decimal number at the end of the message without cutting it
+   * out.
+   */
+  private static int parseInt(final String message, final int start) {
+    final boolean negative = start < message.length() && message.charAt(start) == '-';
+    int i = negative ? start + 1 : start;
+    if (i == message.length()) {
+      throw new NumberFormatException("No metric value in '" + message + "'");
+    }
+    long value = 0;
+    for (; i < message.length(); ++i) {
+      final int digit = message.charAt(i) - '0';
+      if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+        throw new NumberFormatException("Invalid metric value in '" + message + "'");
+      }
+      value = value * 10 + digit;
+    }
+    value = negative ? -value : value;
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new NumberFormatException("Invalid metric value in '" + message + "'");
+    }
+    return (int) value;
+  }
 }
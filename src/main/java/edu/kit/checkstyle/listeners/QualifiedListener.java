@@ -5,12 +5,35 @@ import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
 
 import java.io.OutputStream;
+import java.io.PrintStream;
 import java.io.PrintWriter;
 
 public class QualifiedListener extends AutomaticBean implements AuditListener
 {
+  private final PrintStream out;
+  private final boolean flushEachFile;
+
   public QualifiedListener()
-  {}
+  {
+      this(System.out);
+  }
+
+  public QualifiedListener(PrintStream out)
+  {
+      this(out, false);
+  }
+
+  /**
+   * @param flushEachFile
+   *        whether the messages are flushed after every file instead of only
+   *        at the end of the audit, for clients that read them while the
+   *        audit goes on
+   */
+  public QualifiedListener(PrintStream out, boolean flushEachFile)
+  {
+      this.out = out;
+      this.flushEachFile = flushEachFile;
+  }
 
   public void auditStarted(AuditEvent event)
   {
@@ -22,15 +45,19 @@ public class QualifiedListener extends AutomaticBean implements AuditListener
 
   public void auditFinished(AuditEvent event)
   {
+      out.flush();
   }
 
   public void fileFinished(AuditEvent event)
   {
+      if (flushEachFile) {
+          out.flush();
+      }
   }
 
   public void addError(AuditEvent event)
   {
-      System.out.println(event.getSourceName() + ":" + event.getFileName() + ":" + event.getLine() + ":" + event.getColumn() + ":" + event.getMessage());
+      out.println(event.getSourceName() + ":" + event.getFileName() + ":" + event.getLine() + ":" + event.getColumn() + ":" + event.getMessage());
   }
 
   public void addException(AuditEvent event, Throwable e)
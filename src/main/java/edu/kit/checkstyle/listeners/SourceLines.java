@@ -0,0 +1,92 @@
+package edu.kit.checkstyle.listeners;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+
+/**
+ * The lines of a source file, read once and decoded on demand.
+ * <p>
+ * The file is scanned for line terminators ({@code \n}, {@code \r\n} and
+ * {@code \r}) when it is read and only the start offsets of the lines are
+ * kept besides the raw bytes, so looking up a line neither rereads the file
+ * nor decodes any other line. Line terminators are searched as single
+ * bytes, which holds for ASCII compatible charsets like UTF-8.
+ */
+final class SourceLines {
+
+  private final byte[] content;
+  private final Charset charset;
+
+  /** The offset of the first byte of every line, followed by the end. */
+  private int[] offsets;
+  private int lines;
+
+  private SourceLines(final byte[] content, final Charset charset) {
+    this.content = content;
+    this.charset = charset;
+    index();
+  }
+
+  /**
+   * Reads the file and indexes its lines.
+   */
+  static SourceLines read(final File file, final Charset charset) throws IOException {
+    return new SourceLines(Files.readAllBytes(file.toPath()), charset);
+  }
+
+  /**
+   * @return the number of lines
+   */
+  int size() {
+    return lines;
+  }
+
+  /**
+   * @param number
+   *        the number of the line, starting at 1
+   * @return the line without its terminator
+   */
+  String line(final int number) {
+    if (number < 1 || number > lines) {
+      throw new IndexOutOfBoundsException("line " + number + " of " + lines);
+    }
+    final int start = offsets[number - 1];
+    int end = offsets[number];
+    if (end > start && content[end - 1] == '\n') {
+      end -= 1;
+    }
+    if (end > start && content[end - 1] == '\r') {
+      end -= 1;
+    }
+    return new String(content, start, end - start, charset);
+  }
+
+  private void index() {
+    offsets = new int[Math.max(16, content.length / 32)];
+    lines = 0;
+    int start = 0;
+    for (int i = 0; i < content.length; ++i) {
+      final byte b = content[i];
+      if (b == '\n' || (b == '\r' && (i + 1 == content.length || content[i + 1] != '\n'))) {
+        add(start);
+        start = i + 1;
+      }
+    }
+    if (start < content.length) {
+      add(start);
+    }
+    add(content.length);
+    lines -= 1;
+  }
+
+  private void add(final int offset) {
+    if (lines == offsets.length) {
+      offsets = Arrays.copyOf(offsets, lines * 2);
+    }
+    offsets[lines++] = offset;
+  }
+}
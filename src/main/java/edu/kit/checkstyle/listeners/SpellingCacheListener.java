@@ -0,0 +1,90 @@
+package edu.kit.checkstyle.listeners;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.cache.CacheStats;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
+
+import edu.kit.checkstyle.checks.spelling.LayeredDictionary;
+import edu.kit.checkstyle.checks.spelling.VerdictCache;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+
+/**
+ * Reports how well the identifier verdicts of the spelling check were
+ * cached during an audit, and the memory used by the layers of its
+ * dictionaries.
+ * <p>
+ * Every cache is reported on its own. A cache is shared by all checks with
+ * the same dictionaries, so when audits with the same configuration run at
+ * the same time, like in a batch, its lookups are those of all of them.
+ *
+ * @since JDK1.7, Oct 17, 2026
+ */
+public class SpellingCacheListener extends AutomaticBean implements AuditListener {
+
+  private PrintWriter writer = new PrintWriter(System.out);
+  private boolean closeOut = false;
+  /** The statistics of the caches that existed when the audit started. */
+  private final Map<VerdictCache, CacheStats> start = mkMap();
+
+  public void setFile(final String fileName) throws FileNotFoundException {
+    writer = new PrintWriter(new FileOutputStream(fileName));
+    closeOut = true;
+  }
+
+  @Override
+  public void auditStarted(final AuditEvent e) {
+    start.clear();
+    for (final VerdictCache cache : VerdictCache.all()) {
+      start.put(cache, cache.stats());
+    }
+  }
+
+  @Override
+  public void auditFinished(final AuditEvent e) {
+    for (final VerdictCache cache : VerdictCache.all()) {
+      CacheStats stats = cache.stats();
+      if (start.containsKey(cache)) {
+        stats = stats.minus(start.get(cache));
+      }
+      writer.println(String.format(
+          "Spelling cache: %d lookups, %d hits (%.1f%%), %d evictions, %d of %d identifiers",
+          stats.requestCount(), stats.hitCount(), stats.hitRate() * 100, stats.evictionCount(),
+          cache.size(), cache.maxSize()));
+    }
+    final Collection<LayeredDictionary> dictionaries = LayeredDictionary.all();
+    if (!dictionaries.isEmpty()) {
+      writer.println("Spelling dictionaries:");
+    }
+    for (final LayeredDictionary dictionary : dictionaries) {
+      for (final String line : dictionary.describe()) {
+        writer.println("  " + line);
+      }
+    }
+    start.clear();
+    writer.flush();
+    if (closeOut) {
+      writer.close();
+    }
+  }
+
+  @Override
+  public void fileStarted(final AuditEvent e) {}
+
+  @Override
+  public void fileFinished(final AuditEvent e) {}
+
+  @Override
+  public void addError(final AuditEvent e) {}
+
+  @Override
+  public void addException(final AuditEvent e, final Throwable throwable) {}
+}
@@ -5,10 +5,10 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.List;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
@@ -23,6 +23,9 @@ public class VerboseListener extends AutomaticBean implements AuditListener {
   private boolean closeOut = false;
   private int totalErrors;
   private int fileErrors;
+  /** The lines of the file being checked, read when they are first needed. */
+  private SourceLines source;
+  private IOException sourceError;
 
   public void auditStarted(final AuditEvent e) {
     totalErrors = 0;
@@ -31,6 +34,8 @@ public class VerboseListener extends AutomaticBean implements AuditListener {
 
   public void fileStarted(final AuditEvent e) {
     fileErrors = 0;
+    source = null;
+    sourceError = null;
     writer.println("Started checking file '" + e.getFileName() + "'.");
   }
 
@@ -43,6 +48,8 @@ public class VerboseListener extends AutomaticBean implements AuditListener {
   }
 
   public void fileFinished(final AuditEvent e) {
+    source = null;
+    sourceError = null;
     writer.println("Finished checking file '" + e.getFileName() + "'. Errors: " + fileErrors);
     writer.println();
   }
@@ -77,7 +84,7 @@ public class VerboseListener extends AutomaticBean implements AuditListener {
     try {
       final String[] fileParts = e.getFileName().split("/");
       final int line = e.getLine();
-	  final String source = line != 0 ? FileUtils.readLines(new File(e.getFileName())).get(line - 1) : "<?>";
+	  final String source = line != 0 ? sourceLine(e.getFileName(), line) : "<?>";
       final String indent = StringUtils.leftPad("", e.getColumn() - 1);
 	  String file = fileParts.length > 0 ? fileParts[0] : "";
 	  final List<String> parts = Arrays.asList(
@@ -90,4 +97,22 @@ public class VerboseListener extends AutomaticBean implements AuditListener {
     }
     return "";
   }
+
+  /**
+   * Reads the file once per file event and returns the given line of it.
+   */
+  private String sourceLine(final String fileName, final int line) throws IOException {
+    if (sourceError != null) {
+      throw sourceError;
+    }
+    if (source == null) {
+      try {
+        source = SourceLines.read(new File(fileName), Charset.defaultCharset());
+      } catch (final IOException ex) {
+        sourceError = ex;
+        throw ex;
+      }
+    }
+    return source.line(line);
+  }
 }
@@ -11,6 +11,7 @@ import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
 import org.junit.ComparisonFailure;
@@ -63,6 +64,11 @@ public abstract class BaseCheckTestSupport {
     return new Report(row, column, ReportType.Err, "");
   }
 
+  /** Create a report that must have exactly the given message. */
+  protected Report errAt(final int row, final int column, final String message) {
+    return new Report(row, column, ReportType.Err, Pattern.quote(message));
+  }
+
   protected Report metricAt(final int row, final int column, final String message) {
     return new Report(row, column, ReportType.Info, "metric:"+message);
   }
@@ -0,0 +1,181 @@
+package edu.kit.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+public class AuditCacheTest {
+
+  private static final long MAX_SIZE = 1 << 20;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static FileAudit audit(final String fileName, final int line) {
+    final SortedSet<LocalizedMessage> messages = Sets.newTreeSet();
+    messages.add(new LocalizedMessage(line, 1, "edu.kit.checkstyle.checks.messages", "spelling",
+        new Object[] { "Method", "nme" }, SeverityLevel.ERROR, null, AuditCacheTest.class, null));
+    return new FileAudit(fileName, messages, new int[0]);
+  }
+
+  private File source(final String name, final String content) throws IOException {
+    final File file = new File(folder.getRoot(), name);
+    Files.write(file.toPath(), Arrays.asList(content), Charset.defaultCharset());
+    return file;
+  }
+
+  private AuditCache open(final File directory) throws Exception {
+    return new AuditCache(directory, MAX_SIZE, AuditExecutorTest.config());
+  }
+
+  @Test
+  public void hitAfterMiss() throws Exception {
+    final AuditCache cache = open(folder.newFolder("cache"));
+    final File file = source("A.java", "class A {}");
+    final String key = cache.key(file, false);
+
+    assertNull(cache.get(key, file.getPath()));
+    cache.put(key, audit(file.getPath(), 3));
+    final FileAudit cached = cache.get(key, "B.java");
+    assertNotNull(cached);
+    assertEquals("B.java", cached.fileName);
+    assertEquals(3, cached.messages.first().getLineNo());
+    assertEquals(1, cached.errorCount());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    assertNotEquals(key, cache.key(file, true));
+    assertNull(cache.key(new File(folder.getRoot(), "missing.java"), false));
+  }
+
+  @Test
+  public void keyChangesWithContentConfigurationAndInputs() throws Exception {
+    final File directory = folder.newFolder("cache");
+    final AuditCache cache = open(directory);
+    final File file = source("A.java", "class A {}");
+    final String key = cache.key(file, false);
+
+    source("A.java", "class A { }");
+    assertNotEquals(key, cache.key(file, false));
+    source("A.java", "class A {}");
+    assertEquals(key, cache.key(file, false));
+
+    final DefaultConfiguration config = AuditExecutorTest.config();
+    ((DefaultConfiguration) config.getChildren()[0].getChildren()[1]).addAttribute("severity", "warning");
+    assertNotEquals(key, new AuditCache(directory, MAX_SIZE, config).key(file, false));
+
+    final File dictionary = source("custom.dict", "word");
+    CheckInputs.register(dictionary);
+    final String withDictionary = cache.key(file, false);
+    assertNotEquals(key, withDictionary);
+    source("custom.dict", "other words");
+    CheckInputs.register(dictionary);
+    assertNotEquals(withDictionary, cache.key(file, false));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsed() throws Exception {
+    final File directory = folder.newFolder("cache");
+    AuditCache cache = open(directory);
+    final List<String> keys = Arrays.asList("aaa", "bbb", "ccc");
+    for (final String key : keys) {
+      cache.put(key, audit("A.java", 1));
+    }
+    final long entrySize = new File(directory, "aaa.audit").length();
+    for (int i = 0; i < keys.size(); ++i) {
+      assertTrue(new File(directory, keys.get(i) + ".audit").setLastModified(1000000000000L + i * 1000L));
+    }
+    cache.close();
+    assertTrue(new File(directory, "aaa.audit").isFile());
+
+    // bbb and ccc were used more recently than aaa
+    cache = new AuditCache(directory, 2 * entrySize, AuditExecutorTest.config());
+    cache.close();
+    assertFalse(new File(directory, "aaa.audit").isFile());
+    assertTrue(new File(directory, "bbb.audit").isFile());
+    assertTrue(new File(directory, "ccc.audit").isFile());
+  }
+
+  @Test
+  public void evictsWhenFull() throws Exception {
+    final AuditCache probe = open(folder.newFolder("probe"));
+    probe.put("aaa", audit("A.java", 1));
+    final long entrySize = new File(folder.getRoot(), "probe/aaa.audit").length();
+
+    final File directory = folder.newFolder("cache");
+    final AuditCache cache = new AuditCache(directory, 5 * entrySize / 2, AuditExecutorTest.config());
+    cache.put("aaa", audit("A.java", 1));
+    cache.put("bbb", audit("A.java", 1));
+    assertTrue(new File(directory, "aaa.audit").setLastModified(1000000000000L));
+    assertTrue(new File(directory, "bbb.audit").setLastModified(1000000001000L));
+    cache.put("bbb", audit("A.java", 2));
+    assertTrue(new File(directory, "aaa.audit").isFile());
+
+    // without closing the cache, as a server does not
+    cache.put("ccc", audit("A.java", 1));
+    assertFalse(new File(directory, "aaa.audit").isFile());
+    assertTrue(new File(directory, "bbb.audit").isFile());
+    assertTrue(new File(directory, "ccc.audit").isFile());
+  }
+
+  @Test
+  public void versionChangesWithClassContent() throws Exception {
+    final File classes = folder.newFolder("classes");
+    final File clazz = source("classes/A.class", "class A");
+    final long modified = clazz.lastModified();
+    final String version = AuditCache.hashLocation(Hashing.sha1().newHasher(), classes).hash().toString();
+
+    // a recompile that keeps the size and the modification times
+    source("classes/A.class", "class B");
+    assertTrue(clazz.setLastModified(modified));
+    assertTrue(classes.setLastModified(modified));
+    assertNotEquals(version, AuditCache.hashLocation(Hashing.sha1().newHasher(), classes).hash().toString());
+  }
+
+  @Test
+  public void dropsEntriesOfOtherVersions() throws Exception {
+    final File directory = folder.newFolder("cache");
+    open(directory).put("aaa", audit("A.java", 1));
+    assertNotNull(open(directory).get("aaa", "A.java"));
+
+    Files.write(new File(directory, "cache.version").toPath(), Arrays.asList("old"), Charset.defaultCharset());
+    assertNull(open(directory).get("aaa", "A.java"));
+  }
+
+  @Test
+  public void cachedRunEqualsUncachedRun() throws Exception {
+    final List<File> files = AuditExecutorTest.sources(folder, 10);
+    final List<String> expected = AuditExecutorTest.runChecker(files);
+    final File directory = folder.newFolder("cache");
+    for (int run = 0; run < 2; ++run) {
+      final AuditExecutor executor = new AuditExecutor(AuditExecutorTest.config(), 3);
+      executor.setCache(directory, MAX_SIZE);
+      final AuditExecutorTest.Recorder recorder = new AuditExecutorTest.Recorder();
+      executor.process(files, recorder);
+      executor.destroy();
+      assertEquals(expected, recorder.events);
+    }
+    assertEquals(files.size() + 1, directory.list().length);
+  }
+}
@@ -0,0 +1,404 @@
+package edu.kit.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.Check;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import edu.kit.checkstyle.checks.FileBudgetCheck;
+import edu.kit.checkstyle.checks.InstanceofUsageCheck;
+import edu.kit.checkstyle.checks.LiteralsWithoutConstantCheck;
+import edu.kit.checkstyle.checks.metrics.NumberOfArgumentsCheck;
+import edu.kit.checkstyle.listeners.MetricListener;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class AuditExecutorTest {
+
+  private static final int FILES = 40;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /** Records every event as a line. */
+  static final class Recorder implements AuditListener {
+
+    final List<String> events = mkList();
+
+    @Override
+    public void auditStarted(final AuditEvent e) {
+      events.add("audit started");
+    }
+
+    @Override
+    public void auditFinished(final AuditEvent e) {
+      events.add("audit finished");
+    }
+
+    @Override
+    public void fileStarted(final AuditEvent e) {
+      events.add("started " + new File(e.getFileName()).getName());
+    }
+
+    @Override
+    public void fileFinished(final AuditEvent e) {
+      events.add("finished " + new File(e.getFileName()).getName());
+    }
+
+    @Override
+    public void addError(final AuditEvent e) {
+      events.add(new File(e.getFileName()).getName() + ":" + e.getLine() + ":" + e.getColumn() + ": "
+          + e.getMessage());
+    }
+
+    @Override
+    public void addException(final AuditEvent e, final Throwable throwable) {
+      events.add("exception " + throwable);
+    }
+  }
+
+  /** Sleeps whenever it visits a certain identifier. */
+  public static class DelayCheck extends Check {
+
+    private String ident;
+    private long millis;
+
+    public void setIdent(final String name) {
+      ident = name;
+    }
+
+    public void setMillis(final long delay) {
+      millis = delay;
+    }
+
+    @Override
+    public int[] getDefaultTokens() {
+      return new int[] { TokenTypes.IDENT };
+    }
+
+    @Override
+    public void visitToken(final DetailAST ast) {
+      if (ast.getText().equals(ident)) {
+        try {
+          Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  /** Sleeps in the cross-file checker. */
+  public static class CrossFileDelayCheck extends DelayCheck implements AuditScope.CrossFile {}
+
+  /**
+   * @param checks
+   *        further checks of the tree walker
+   */
+  static DefaultConfiguration config(final DefaultConfiguration... checks) {
+    final DefaultConfiguration walker = new DefaultConfiguration(TreeWalker.class.getName());
+    final DefaultConfiguration literals = new DefaultConfiguration(LiteralsWithoutConstantCheck.class.getName());
+    literals.addAttribute("max", "2");
+    walker.addChild(literals);
+    walker.addChild(new DefaultConfiguration(InstanceofUsageCheck.class.getName()));
+    for (final DefaultConfiguration check : checks) {
+      walker.addChild(check);
+    }
+    final DefaultConfiguration checker = new DefaultConfiguration("Checker");
+    checker.addChild(walker);
+    return checker;
+  }
+
+  /**
+   * @return files that all use the same literal and {@code instanceof}
+   */
+  static List<File> sources(final TemporaryFolder folder, final int count) throws IOException {
+    return sources(folder.getRoot(), count);
+  }
+
+  /**
+   * @return files in the directory that all use the same literal and {@code instanceof}
+   */
+  static List<File> sources(final File directory, final int count) throws IOException {
+    final List<File> files = mkList();
+    for (int i = 0; i < count; ++i) {
+      final File file = new File(directory, "C" + i + ".java");
+      Files.write(file.toPath(), Arrays.asList(
+          "class C" + i + " {",
+          "  boolean m(Object o) {",
+          "    int a = 42;",
+          "    return o instanceof String;",
+          "  }",
+          "}"), Charset.defaultCharset());
+      files.add(file);
+    }
+    return files;
+  }
+
+  /**
+   * @param attributes
+   *        pairs of attribute names and values
+   */
+  static DefaultConfiguration check(final Class<?> type, final String... attributes) {
+    final DefaultConfiguration check = new DefaultConfiguration(type.getName());
+    for (int i = 0; i < attributes.length; i += 2) {
+      check.addAttribute(attributes[i], attributes[i + 1]);
+    }
+    return check;
+  }
+
+  static List<String> runChecker(final List<File> files) throws Exception {
+    return runChecker(config(), files);
+  }
+
+  static List<String> runChecker(final Configuration config, final List<File> files) throws Exception {
+    final Recorder recorder = new Recorder();
+    final Checker checker = new Checker();
+    checker.setModuleClassLoader(Checker.class.getClassLoader());
+    checker.configure(config);
+    checker.addListener(recorder);
+    checker.process(files);
+    checker.destroy();
+    return recorder.events;
+  }
+
+  static List<String> runExecutor(final List<File> files, final int threads) throws Exception {
+    return runExecutor(config(), files, threads);
+  }
+
+  static List<String> runExecutor(final Configuration config, final List<File> files, final int threads)
+      throws Exception {
+    final Recorder recorder = new Recorder();
+    final AuditExecutor executor = new AuditExecutor(config, threads);
+    executor.process(files, recorder);
+    executor.destroy();
+    return recorder.events;
+  }
+
+  @Test
+  public void sameOutputWithAnyNumberOfThreads() throws Exception {
+    final List<File> files = sources(folder, FILES);
+    final List<String> expected = runChecker(files);
+    assertEquals(expected, runExecutor(files, 1));
+    assertEquals(expected, runExecutor(files, 4));
+  }
+
+  @Test
+  public void crossFileCheckSeesFilesInInputOrder() throws Exception {
+    final List<String> events = runExecutor(sources(folder, FILES), 4);
+    int reports = 0;
+    for (final String event : events) {
+      if (event.contains("42")) {
+        reports += 1;
+        assertEquals("C2.java:3:13: The literal 42 occurs more than 2 times"
+            + " and might better be stored in a static final attribute.", event);
+      }
+    }
+    assertEquals(1, reports);
+  }
+
+  @Test
+  public void crossFileStateIsResetBetweenAudits() throws Exception {
+    final List<File> files = sources(folder, 3);
+    final AuditExecutor executor = new AuditExecutor(config(), 2);
+    final Recorder first = new Recorder();
+    final Recorder second = new Recorder();
+    executor.process(files, first);
+    executor.processSerially(files, second);
+    executor.destroy();
+    assertEquals(first.events, second.events);
+    assertEquals(runChecker(files), first.events);
+  }
+
+  @Test
+  public void splitsCrossFileChecks() throws Exception {
+    assertEquals(InstanceofUsageCheck.class.getName(),
+        AuditExecutor.splitChecks(config(), false).getChildren()[0].getChildren()[0].getName());
+    assertEquals(LiteralsWithoutConstantCheck.class.getName(),
+        AuditExecutor.splitChecks(config(), true).getChildren()[0].getChildren()[0].getName());
+
+    final DefaultConfiguration perFileOnly = new DefaultConfiguration("Checker");
+    perFileOnly.addChild(new DefaultConfiguration(TreeWalker.class.getName()));
+    assertEquals(null, AuditExecutor.splitChecks(perFileOnly, true));
+  }
+
+  @Test
+  public void abandonedFilesOnlyReportTheReason() throws Exception {
+    final DefaultConfiguration config = config(check(FileBudgetCheck.class, "maxNodes", "10"));
+    final List<File> files = sources(folder, 3);
+    final List<String> expected = mkList("audit started");
+    for (int i = 0; i < files.size(); ++i) {
+      expected.add("started C" + i + ".java");
+      expected.add("C" + i + ".java:1:1: File has more than 10 AST nodes, checking it was abandoned.");
+      expected.add("finished C" + i + ".java");
+    }
+    expected.add("audit finished");
+
+    // the other checks do not see any token of the abandoned files
+    assertEquals(expected, runChecker(config, files));
+    assertEquals(expected, runExecutor(config, files, 2));
+  }
+
+  @Test
+  public void abandonsFilesThatTakeTooLong() throws Exception {
+    final File file = new File(folder.getRoot(), "Slow.java");
+    final List<String> lines = mkList("class Slow {", "  void m(int x) {");
+    for (int i = 0; i < 200; ++i) {
+      lines.add("    x = x + 1;");
+    }
+    lines.add("  }");
+    lines.add("  boolean n(Object o) { return o instanceof String; }");
+    lines.add("}");
+    Files.write(file.toPath(), lines, Charset.defaultCharset());
+
+    final DefaultConfiguration config = config(check(FileBudgetCheck.class, "maxMillis", "1"),
+        check(DelayCheck.class, "ident", "x", "millis", "1"));
+    final AuditExecutor executor = new AuditExecutor(config, 1);
+    final Recorder recorder = new Recorder();
+    executor.processSerially(mkList(file), recorder);
+    executor.destroy();
+    assertEquals(mkList("audit started", "started Slow.java",
+        "Slow.java:1:0: Checking the file took more than 1 ms, checking it was abandoned.",
+        "finished Slow.java", "audit finished"), recorder.events);
+  }
+
+  /** Blocks C0.java for much longer than its budget. */
+  private static DefaultConfiguration stuckConfig(final Class<?> delay) {
+    return config(check(FileBudgetCheck.class, "maxMillis", "100"),
+        check(delay, "ident", "C0", "millis", "5000"));
+  }
+
+  /**
+   * @return the events of a single checker, but with C0.java given up
+   */
+  private static List<String> withC0GivenUp(final List<File> files) throws Exception {
+    final List<String> expected = mkList();
+    for (final String event : runChecker(files)) {
+      if (!event.startsWith("C0.java:")) {
+        expected.add(event);
+      }
+      if (event.equals("started C0.java")) {
+        expected.add("C0.java:1:0: Checking the file took more than 100 ms, checking it was abandoned.");
+      }
+    }
+    return expected;
+  }
+
+  private static long millisSince(final long start) {
+    return (System.nanoTime() - start) / 1000000;
+  }
+
+  @Test(timeout = 20000)
+  public void givesUpOnFilesStuckInAnotherCheck() throws Exception {
+    final List<File> files = sources(folder, 4);
+    final List<String> expected = withC0GivenUp(files);
+
+    final long start = System.nanoTime();
+    assertEquals(expected, runExecutor(stuckConfig(DelayCheck.class), files, 2));
+    assertTrue(millisSince(start) < 2500);
+  }
+
+  @Test(timeout = 20000)
+  public void replacesTheOnlyThreadWhenItIsStuck() throws Exception {
+    final List<File> files = sources(folder, 4);
+    final List<String> expected = withC0GivenUp(files);
+
+    final long start = System.nanoTime();
+    assertEquals(expected, runExecutor(stuckConfig(DelayCheck.class), files, 1));
+    assertTrue(millisSince(start) < 2500);
+  }
+
+  @Test(timeout = 20000)
+  public void givesUpOnStuckFilesSerially() throws Exception {
+    final List<File> files = sources(folder, 4);
+    final List<String> expected = withC0GivenUp(files);
+
+    final long start = System.nanoTime();
+    final AuditExecutor executor = new AuditExecutor(stuckConfig(DelayCheck.class), 1);
+    final Recorder recorder = new Recorder();
+    executor.processSerially(files, recorder);
+    executor.destroy();
+    assertEquals(expected, recorder.events);
+    assertTrue(millisSince(start) < 2500);
+  }
+
+  @Test(timeout = 20000)
+  public void givesUpOnFilesStuckInCrossFileChecks() throws Exception {
+    final List<File> files = sources(folder, 4);
+
+    final long start = System.nanoTime();
+    final List<String> events = runExecutor(stuckConfig(CrossFileDelayCheck.class), files, 1);
+    assertTrue(millisSince(start) < 2500);
+    assertEquals("C0.java:1:0: Checking the file took more than 100 ms, checking it was abandoned.",
+        events.get(2));
+    assertEquals("finished C0.java", events.get(3));
+    // a fresh cross-file checker goes on with the following files
+    assertTrue(events.contains("started C3.java"));
+    assertEquals("audit finished", events.get(events.size() - 1));
+  }
+
+  /**
+   * Checks the files with a metric check and writes the metrics.
+   *
+   * @param serially
+   *        whether the files are checked on the calling thread
+   * @return the written metrics and the events of the audit
+   */
+  private List<String> metrics(final List<File> files, final boolean typed, final boolean serially)
+      throws Exception {
+    final File output = folder.newFile();
+    final MetricListener metrics = new MetricListener();
+    metrics.setTypedMetrics(typed);
+    metrics.setFile(output.getPath());
+    final Recorder recorder = new Recorder();
+    final AuditExecutor executor = new AuditExecutor(config(check(NumberOfArgumentsCheck.class)), 3);
+    if (serially) {
+      executor.processSerially(files, metrics, recorder);
+    } else {
+      executor.process(files, metrics, recorder);
+    }
+    executor.destroy();
+    final List<String> lines = new ArrayList<String>(Files.readAllLines(output.toPath(), Charset.defaultCharset()));
+    lines.addAll(recorder.events);
+    return lines;
+  }
+
+  @Test
+  public void typedMetricsEqualMetricMessages() throws Exception {
+    final List<File> files = sources(folder, 10);
+    final List<String> messages = metrics(files, false, false);
+    final List<String> typed = metrics(files, true, false);
+
+    // the typed values are not seen as messages by the other listeners
+    final List<String> withoutMetrics = mkList();
+    for (final String line : messages) {
+      if (!line.contains("metric:")) {
+        withoutMetrics.add(line);
+      }
+    }
+    assertTrue(withoutMetrics.size() < messages.size());
+    assertEquals(withoutMetrics, typed);
+    assertTrue(typed.get(0), typed.get(0).endsWith("C0.java:number-of-arguments:[1]"));
+    assertEquals(typed, metrics(files, true, true));
+  }
+}
@@ -0,0 +1,124 @@
+package edu.kit.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class AuditServerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Starts a server on a free port in the background.
+   *
+   * @return the port
+   */
+  private static int start(final int requestTimeout) throws Exception {
+    final int port;
+    try (ServerSocket probe = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+      port = probe.getLocalPort();
+    }
+    final AuditServer server = new AuditServer(new AuditExecutor(AuditExecutorTest.config(), 2), 16);
+    server.setRequestTimeout(requestTimeout);
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          server.serve(port);
+        } catch (final Exception e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    });
+    thread.setDaemon(true);
+    thread.start();
+    return port;
+  }
+
+  private static Socket connect(final int port) throws Exception {
+    for (int attempt = 0; ; ++attempt) {
+      try {
+        return new Socket(InetAddress.getLoopbackAddress(), port);
+      } catch (final ConnectException e) {
+        if (attempt > 100) {
+          throw e;
+        }
+        Thread.sleep(50);
+      }
+    }
+  }
+
+  private static List<String> request(final int port, final List<File> files) throws Exception {
+    try (Socket socket = connect(port)) {
+      final Writer out = new OutputStreamWriter(socket.getOutputStream(), Charsets.UTF_8);
+      for (final File file : files) {
+        out.write(file.getPath() + "\n");
+      }
+      out.write("\n");
+      out.flush();
+
+      final List<String> lines = mkList();
+      final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        lines.add(line.substring(line.indexOf(':') + 1).replace(folder(files).getPath() + File.separator, ""));
+      }
+      return lines;
+    }
+  }
+
+  private static File folder(final List<File> files) {
+    return files.get(0).getParentFile();
+  }
+
+  @Test
+  public void answersWithMessagesOfEveryRequest() throws Exception {
+    final int port = start(0);
+    final List<File> files = AuditExecutorTest.sources(folder, 3);
+    final List<String> first = request(port, files);
+    assertEquals(4, first.size());
+    assertEquals("C0.java:4:14:instanceof should only be used in the equals method.", first.get(0));
+    assertTrue(first.get(2), first.get(2).startsWith("C2.java:3:13:The literal 42 occurs more than 2 times"));
+
+    // the literal counts start again with every request
+    assertEquals(first, request(port, files));
+  }
+
+  @Test(timeout = 20000)
+  public void disconnectsSilentClients() throws Exception {
+    final int port = start(200);
+    final List<File> files = AuditExecutorTest.sources(folder, 1);
+    try (Socket silent = connect(port)) {
+      assertEquals(mkList("C0.java:4:14:instanceof should only be used in the equals method."),
+          request(port, files));
+      assertEquals(-1, silent.getInputStream().read());
+    }
+  }
+
+  @Test
+  public void acceptsDirectories() throws Exception {
+    final int port = start(0);
+    AuditExecutorTest.sources(folder, 2);
+    new File(folder.getRoot(), "notes.txt").createNewFile();
+    final List<String> lines = request(port, mkList(new File(folder.getRoot(), ".")));
+    assertEquals(2, lines.size());
+  }
+}
@@ -0,0 +1,54 @@
+package edu.kit.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableMap;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class BatchAuditorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void readsManifest() throws Exception {
+    final File manifest = folder.newFile("manifest.txt");
+    Files.write(manifest.toPath(), Arrays.asList("# submissions", "", "  a/one  ", "b"), Charset.defaultCharset());
+    assertEquals(mkList(new File("a/one"), new File("b")), BatchAuditor.readManifest(manifest));
+  }
+
+  @Test
+  public void auditsSubmissionsSeparately() throws Exception {
+    final List<File> submissions = mkList();
+    for (final String path : new String[] { "a/alice", "b/bob", "c/alice" }) {
+      final File submission = folder.newFolder(path.split("/"));
+      AuditExecutorTest.sources(submission, 3);
+      submissions.add(submission);
+    }
+    final File output = new File(folder.getRoot(), "reports");
+
+    final AuditExecutor executor = new AuditExecutor(AuditExecutorTest.config(), 2);
+    final Map<String, Integer> errors = new BatchAuditor(executor, output, 2, 4).audit(submissions);
+    executor.destroy();
+
+    // every submission reports the literal once, its counts are not shared
+    assertEquals(ImmutableMap.of("alice", 4, "bob", 4, "alice-2", 4), errors);
+    for (final String name : errors.keySet()) {
+      assertTrue(name, new File(output, name + ".audit.txt").isFile());
+      assertTrue(name, new File(output, name + ".metrics.txt").isFile());
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package edu.kit.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class FileDiscoveryTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File newFile(final String path) throws IOException {
+    final File file = new File(folder.getRoot(), path);
+    file.getParentFile().mkdirs();
+    file.createNewFile();
+    return file;
+  }
+
+  private List<String> names(final Iterable<File> files) {
+    final List<String> names = mkList();
+    for (final File file : files) {
+      names.add(folder.getRoot().toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/'));
+    }
+    Collections.sort(names);
+    return names;
+  }
+
+  @Test
+  public void findsFilteredJavaFiles() throws IOException {
+    newFile("src/A.java");
+    newFile("src/b/B.java");
+    newFile("src/b/notes.txt");
+    newFile("src/gen/G.java");
+    newFile("src/test/ATest.java");
+
+    final FileDiscovery files = new FileDiscovery(2);
+    files.addRoot(new File(folder.getRoot(), "src"));
+    files.addExclude("gen");
+    files.addInclude("**.java");
+    files.addExclude("**Test.java");
+    assertEquals(mkList("src/A.java", "src/b/B.java"), names(files));
+  }
+
+  @Test
+  public void checksExplicitFilesAfterRoots() throws IOException {
+    final File single = newFile("Single.java");
+    newFile("src/A.java");
+    newFile("src/B.java");
+
+    final FileDiscovery discovery = new FileDiscovery(1);
+    discovery.addFile(single);
+    discovery.addRoot(new File(folder.getRoot(), "src"));
+    final List<File> found = mkList();
+    for (final File file : discovery) {
+      found.add(file);
+    }
+    assertEquals(3, found.size());
+    assertSame(single, found.get(2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void iteratesOnce() {
+    final FileDiscovery files = new FileDiscovery(1);
+    files.iterator();
+    files.iterator();
+  }
+
+  @Test
+  public void endsWithTheFailureOfTheWalk() throws IOException {
+    final File file = newFile("A.java");
+    final FileDiscovery discovery = new FileDiscovery(1) {
+      @Override
+      void discover() {
+        super.discover();
+        throw new IllegalArgumentException("broken glob");
+      }
+    };
+    discovery.addFile(file);
+
+    final Iterator<File> files = discovery.iterator();
+    assertSame(file, files.next());
+    try {
+      files.hasNext();
+      fail("the failure of the walk is not reported");
+    } catch (final IllegalStateException e) {
+      assertEquals("broken glob", e.getCause().getMessage());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package edu.kit.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class ModifiersTest {
+
+  /** Far more declarations than the table holds initially, so that it grows several times. */
+  private static final int DECLARATIONS = 5000;
+
+  private static final int[] MODIFIER_TYPES = {
+    TokenTypes.LITERAL_PUBLIC, TokenTypes.LITERAL_PROTECTED, TokenTypes.LITERAL_PRIVATE,
+    TokenTypes.LITERAL_STATIC, TokenTypes.FINAL, TokenTypes.ABSTRACT, TokenTypes.ANNOTATION,
+  };
+
+  private static DetailAST node(final int type) {
+    final DetailAST ast = new DetailAST();
+    ast.setType(type);
+    return ast;
+  }
+
+  /**
+   * @return a method declaration with the modifiers whose bits are set in
+   *         the given number
+   */
+  private static DetailAST declaration(final int number) {
+    final DetailAST method = node(TokenTypes.METHOD_DEF);
+    final DetailAST modifiers = node(TokenTypes.MODIFIERS);
+    method.addChild(modifiers);
+    for (int i = 0; i < MODIFIER_TYPES.length; ++i) {
+      if ((number & 1 << i) != 0) {
+        modifiers.addChild(node(MODIFIER_TYPES[i]));
+      }
+    }
+    method.addChild(node(TokenTypes.IDENT));
+    return method;
+  }
+
+  @Test
+  public void calculatesMasks() {
+    assertEquals(0, Modifiers.of(node(TokenTypes.METHOD_DEF)));
+    assertEquals(0, Modifiers.of(declaration(0)));
+    assertEquals(Modifiers.PUBLIC | Modifiers.STATIC | Modifiers.FINAL, Modifiers.of(declaration(1 | 8 | 16)));
+    // annotations are no modifiers
+    assertEquals(Modifiers.PRIVATE, Modifiers.of(declaration(4 | 64)));
+  }
+
+  @Test
+  public void keepsAllDeclarationsWhileGrowing() {
+    final Modifiers cache = new Modifiers();
+    final List<DetailAST> declarations = mkList();
+    for (int i = 0; i < DECLARATIONS; ++i) {
+      final DetailAST declaration = declaration(i);
+      declarations.add(declaration);
+      assertEquals(Modifiers.of(declaration), cache.get(declaration));
+    }
+
+    // the masks are cached, so dropping the modifiers does not change them
+    for (final DetailAST declaration : declarations) {
+      declaration.findFirstToken(TokenTypes.MODIFIERS).setFirstChild(null);
+    }
+    for (int i = 0; i < DECLARATIONS; ++i) {
+      assertEquals(Modifiers.of(declaration(i)), cache.get(declarations.get(i)));
+    }
+
+    cache.clear();
+    for (final DetailAST declaration : declarations) {
+      assertEquals(0, cache.get(declaration));
+    }
+  }
+}
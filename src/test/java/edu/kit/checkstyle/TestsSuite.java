@@ -4,23 +4,54 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import edu.kit.checkstyle.AuditCacheTest;
+import edu.kit.checkstyle.AuditExecutorTest;
+import edu.kit.checkstyle.AuditServerTest;
+import edu.kit.checkstyle.BatchAuditorTest;
+import edu.kit.checkstyle.FileDiscoveryTest;
+import edu.kit.checkstyle.ModifiersTest;
 import edu.kit.checkstyle.checks.CallHierarchyComplexityCheckTest;
+import edu.kit.checkstyle.checks.ControlFlowNestingDepthCheckTest;
 import edu.kit.checkstyle.checks.DiscouragedMethodCallCheckTest;
+import edu.kit.checkstyle.checks.FileBudgetCheckTest;
 import edu.kit.checkstyle.checks.InstanceofUsageCheckTest;
+import edu.kit.checkstyle.checks.SpellingCheckTest;
 import edu.kit.checkstyle.checks.StaticUsageCheckTest;
 import edu.kit.checkstyle.checks.metrics.AttributesPerClassCheckTest;
 import edu.kit.checkstyle.checks.metrics.MaxNestedBlockDepthCheckTest;
 import edu.kit.checkstyle.checks.metrics.MethodsPerClassCheckTest;
+import edu.kit.checkstyle.checks.metrics.MetricsEngineCheckTest;
+import edu.kit.checkstyle.checks.metrics.MetricsTest;
 import edu.kit.checkstyle.checks.metrics.NumberOfArgumentsCheckTest;
 import edu.kit.checkstyle.checks.metrics.NumberOfClassesCheckTest;
 import edu.kit.checkstyle.checks.metrics.NumberOfMethodsPerClassCheckTest;
 import edu.kit.checkstyle.checks.metrics.NumberOfStatementsPerMethodCheckTest;
+import edu.kit.checkstyle.checks.metrics.SubtreeEvaluatorTest;
+import edu.kit.checkstyle.checks.spelling.DictionaryTest;
+import edu.kit.checkstyle.checks.spelling.IdentifierTokenizerTest;
+import edu.kit.checkstyle.checks.spelling.LayeredDictionaryTest;
+import edu.kit.checkstyle.checks.spelling.MisspellingsTest;
+import edu.kit.checkstyle.checks.spelling.SuggestionIndexTest;
+import edu.kit.checkstyle.checks.spelling.VerdictCacheTest;
+import edu.kit.checkstyle.listeners.AsyncListenerTest;
+import edu.kit.checkstyle.listeners.MetricListenerTest;
+import edu.kit.checkstyle.listeners.QualifiedListenerTest;
+import edu.kit.checkstyle.listeners.SourceLinesTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+  AuditCacheTest.class,
+  AuditExecutorTest.class,
+  AuditServerTest.class,
+  BatchAuditorTest.class,
+  FileDiscoveryTest.class,
+  ModifiersTest.class,
   CallHierarchyComplexityCheckTest.class,
+  ControlFlowNestingDepthCheckTest.class,
   DiscouragedMethodCallCheckTest.class,
+  FileBudgetCheckTest.class,
   InstanceofUsageCheckTest.class,
+  SpellingCheckTest.class,
   StaticUsageCheckTest.class,
   AttributesPerClassCheckTest.class,
   MethodsPerClassCheckTest.class,
@@ -29,6 +60,19 @@ import edu.kit.checkstyle.checks.metrics.NumberOfStatementsPerMethodCheckTest;
   MaxNestedBlockDepthCheckTest.class,
   NumberOfArgumentsCheckTest.class,
   NumberOfMethodsPerClassCheckTest.class,
+  MetricsEngineCheckTest.class,
+  MetricsTest.class,
+  SubtreeEvaluatorTest.class,
+  DictionaryTest.class,
+  IdentifierTokenizerTest.class,
+  LayeredDictionaryTest.class,
+  MisspellingsTest.class,
+  SuggestionIndexTest.class,
+  VerdictCacheTest.class,
+  AsyncListenerTest.class,
+  MetricListenerTest.class,
+  QualifiedListenerTest.class,
+  SourceLinesTest.class,
 })
 public class TestsSuite {
 
@@ -27,4 +27,16 @@ public class CallHierarchyComplexityCheckTest extends BaseCheckTestSupport {
   public void subChainIsDuplicate() {
     test(config, mkList(errAt(8, 14), errAt(9, 14)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void chainRepeatedInClass() {
+    config.addAttribute("scope", "class");
+    test(config, mkList(errAt(9, 12)));
+  }
+
+  @Test
+  public void chainRepeatedInOneMethod() {
+    config.addAttribute("scope", "class");
+    test(config, NO_REPORT);
+  }
+}
@@ -0,0 +1,21 @@
+package edu.kit.checkstyle.checks;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.BaseCheckTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+
+
+public class ControlFlowNestingDepthCheckTest extends BaseCheckTestSupport {
+
+  final DefaultConfiguration config = createCheckConfig(ControlFlowNestingDepthCheck.class);
+
+  @Test
+  public void groupedStatements() throws Exception {
+    config.addAttribute("max", "2");
+    test(config, Arrays.asList(
+        errAt(28, 9), errAt(39, 9), errAt(41, 11), errAt(42, 11), errAt(44, 13)));
+  }
+}
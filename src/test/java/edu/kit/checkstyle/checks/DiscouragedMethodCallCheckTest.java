@@ -47,4 +47,28 @@ public class DiscouragedMethodCallCheckTest extends BaseCheckTestSupport {
     config.addAttribute("checkedMethods", "main:System.exit,System.out,System.in");
     test(config, Arrays.asList(errAt(6, 12), errAt(7, 12), errAt(8, 12)));
   }
+
+  @Test
+  public void errorInFieldInitializer() throws Exception {
+    config.addAttribute("checkedMethods", "main:System.exit,main:System.out");
+    test(config, Arrays.asList(errAt(7, 42)));
+  }
+
+  @Test
+  public void qualifiedAndWildcardFound() throws Exception {
+    config.addAttribute("checkedMethods", "java.lang.System.exit,Runtime.*");
+    test(config, Arrays.asList(errAt(6, 22), errAt(7, 12), errAt(9, 13), errAt(10, 23)));
+  }
+
+  @Test
+  public void methodReferenceFound() throws Exception {
+    config.addAttribute("checkedMethods", "Math.max,java.lang.Math.min,main:System.exit");
+    test(config, Arrays.asList(errAt(8, 53), errAt(9, 63), errAt(10, 44)));
+  }
+
+  @Test
+  public void importsIgnored() throws Exception {
+    config.addAttribute("checkedMethods", "System.in,System.exit,Runtime.*");
+    test(config, Arrays.asList(errAt(11, 12)));
+  }
 }
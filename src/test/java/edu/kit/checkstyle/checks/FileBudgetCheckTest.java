@@ -0,0 +1,37 @@
+package edu.kit.checkstyle.checks;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.BaseCheckTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.Utils;
+
+
+public class FileBudgetCheckTest extends BaseCheckTestSupport {
+
+  final DefaultConfiguration config = createCheckConfig(FileBudgetCheck.class);
+
+  @Test
+  public void withinBudget() throws Exception {
+    config.addAttribute("maxNodes", "1000");
+    config.addAttribute("maxMillis", "60000");
+    test(config, "nestedCode", NO_REPORT);
+  }
+
+  @Test
+  public void tooManyNodes() throws Exception {
+    config.addAttribute("maxNodes", "50");
+    test(config, "nestedCode", Arrays.asList(errAt(1, 1)));
+  }
+
+  @Test
+  public void ignoresComments() {
+    for (final int token : new FileBudgetCheck().getDefaultTokens()) {
+      assertFalse(Utils.getTokenName(token), Utils.isCommentType(token));
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package edu.kit.checkstyle.checks;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.commons.lang.ArrayUtils;
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.BaseCheckTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+
+public class SpellingCheckTest extends BaseCheckTestSupport {
+
+  private final DefaultConfiguration config = createCheckConfig(SpellingCheck.class);
+
+  public SpellingCheckTest() {
+    config.addAttribute("dictionary", resource("words.dict"));
+  }
+
+  private String resource(final String name) {
+    return new File(fileWithSuffix("words").getParentFile(), name).getAbsolutePath();
+  }
+
+  @Test
+  public void suggestions() throws Exception {
+    test(config, Arrays.asList(
+        errAt(5, 3, "Attribute declaration 'nmae' looks like bad spelling, did you mean name?"),
+        errAt(6, 3, "Attribute declaration 'COUNTR' looks like bad spelling, did you mean COUNTER?"),
+        errAt(7, 3, "Attribute declaration 'nam' looks like bad spelling, did you mean name?"),
+        errAt(8, 3, "Attribute declaration 'NAM' looks like bad spelling."),
+        errAt(10, 3, "Method declaration 'getNmae' looks like bad spelling, did you mean getName?"),
+        errAt(14, 3, "Method declaration 'getNAMValu' looks like bad spelling, did you mean getNAMValue?")));
+  }
+
+  @Test
+  public void zeroSuggestions() throws Exception {
+    config.addAttribute("suggestions", "0");
+    test(config, "suggestions", Arrays.asList(
+        errAt(5, 3, "Attribute declaration 'nmae' looks like bad spelling."),
+        errAt(6, 3, "Attribute declaration 'COUNTR' looks like bad spelling."),
+        errAt(7, 3, "Attribute declaration 'nam' looks like bad spelling."),
+        errAt(8, 3, "Attribute declaration 'NAM' looks like bad spelling."),
+        errAt(10, 3, "Method declaration 'getNmae' looks like bad spelling."),
+        errAt(14, 3, "Method declaration 'getNAMValu' looks like bad spelling.")));
+  }
+
+  @Test
+  public void comments() throws Exception {
+    config.addAttribute("misspellings", resource("misspellings.txt"));
+    test(config, Arrays.asList(
+        errAt(4, 4, "Javadoc contains 'Teh', which looks like bad spelling, did you mean The?"),
+        errAt(4, 18, "Javadoc contains 'wich', which looks like bad spelling."),
+        errAt(8, 6, "Comment contains 'recieve', which looks like bad spelling, did you mean receive, relieve?"),
+        errAt(9, 25, "Comment contains 'wich', which looks like bad spelling."),
+        errAt(10, 6, "Comment contains 'TEH', which looks like bad spelling, did you mean THE?")));
+  }
+
+  @Test
+  public void allowedWordsInComments() throws Exception {
+    config.addAttribute("misspellings", resource("misspellings.txt"));
+    config.addAttribute("allowedWords", "wich,teh");
+    test(config, "comments", Arrays.asList(
+        errAt(8, 6, "Comment contains 'recieve', which looks like bad spelling, did you mean receive, relieve?")));
+  }
+
+  @Test
+  public void stringLiterals() throws Exception {
+    config.addAttribute("misspellings", resource("misspellings.txt"));
+    test(config, Arrays.asList(
+        errAt(5, 27, "String literal contains 'teh', which looks like bad spelling, did you mean the?"),
+        errAt(6, 28, "String literal contains 'teh', which looks like bad spelling, did you mean the?"),
+        errAt(6, 39, "String literal contains 'wich', which looks like bad spelling.")));
+  }
+
+  @Test
+  public void noMisspellingsWithoutList() throws Exception {
+    test(config, "comments", NO_REPORT);
+    test(config, "stringLiterals", NO_REPORT);
+  }
+
+  @Test
+  public void stringLiteralsOnlyWithList() {
+    final SpellingCheck check = new SpellingCheck();
+    assertFalse(ArrayUtils.contains(check.getDefaultTokens(), TokenTypes.STRING_LITERAL));
+    check.setMisspellings(resource("misspellings.txt"));
+    assertTrue(ArrayUtils.contains(check.getDefaultTokens(), TokenTypes.STRING_LITERAL));
+  }
+}
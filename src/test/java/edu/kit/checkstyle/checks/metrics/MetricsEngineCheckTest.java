@@ -0,0 +1,83 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.BaseCheckTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class MetricsEngineCheckTest extends BaseCheckTestSupport {
+
+  /** Fails on every class. */
+  public static class FailingAccumulator implements MetricAccumulator {
+
+    @Override
+    public String metric() {
+      return "failing";
+    }
+
+    @Override
+    public int[] tokens() {
+      return new int[] { TokenTypes.CLASS_DEF };
+    }
+
+    @Override
+    public void beginTree() {}
+
+    @Override
+    public void visit(final DetailAST ast, final MetricReport report) {
+      throw new IllegalStateException("broken");
+    }
+
+    @Override
+    public void leave(final DetailAST ast, final MetricReport report) {}
+  }
+
+  private DefaultConfiguration configFor(final String metric) {
+    final DefaultConfiguration config = createCheckConfig(MetricsEngineCheck.class);
+    config.addAttribute("metrics", metric);
+    return config;
+  }
+
+  @Test
+  public void depthTest() {
+    test(configFor(MaxNestedBlockDepthCheck.METRIC), mkList(
+        metricAt(6, 3, MaxNestedBlockDepthCheck.METRIC + ":0"),
+        metricAt(12, 3, MaxNestedBlockDepthCheck.METRIC + ":3"),
+        metricAt(38, 3, MaxNestedBlockDepthCheck.METRIC + ":5"),
+        metricAt(63, 3, MaxNestedBlockDepthCheck.METRIC + ":4"),
+        metricAt(80, 3, MaxNestedBlockDepthCheck.METRIC + ":1")));
+  }
+
+  @Test
+  public void statementsInMethod() {
+    test(configFor(NumberOfStatementsPerMethodCheck.METRIC), mkList(
+        metricAt(6, 3, NumberOfStatementsPerMethodCheck.METRIC + ":3"),
+        metricAt(12, 3, NumberOfStatementsPerMethodCheck.METRIC + ":6"),
+        metricAt(31, 3, NumberOfStatementsPerMethodCheck.METRIC + ":6"),
+        metricAt(49, 3, NumberOfStatementsPerMethodCheck.METRIC + ":3"),
+        metricAt(61, 3, NumberOfStatementsPerMethodCheck.METRIC + ":1")));
+  }
+
+  @Test
+  public void foundAttribute() {
+    test(configFor(AttributesPerClassCheck.METRIC + "," + NumberOfClassesCheck.METRIC), mkList(
+        metricAt(4, 1, AttributesPerClassCheck.METRIC + ":3"),
+        metricAt(4, 1, NumberOfClassesCheck.METRIC + ":1"),
+        metricAt(16, 3, AttributesPerClassCheck.METRIC + ":2"),
+        metricAt(16, 3, NumberOfClassesCheck.METRIC + ":1")));
+  }
+
+  @Test
+  public void failingAccumulatorIsLoggedOncePerFile() {
+    final DefaultConfiguration config = configFor(NumberOfClassesCheck.METRIC);
+    config.addAttribute("accumulators", FailingAccumulator.class.getName());
+    test(config, "foundAttribute", mkList(
+        errAt(4, 1),
+        metricAt(4, 1, NumberOfClassesCheck.METRIC + ":1"),
+        metricAt(16, 3, NumberOfClassesCheck.METRIC + ":1")));
+  }
+}
@@ -0,0 +1,55 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class MetricsTest {
+
+  private static final MetricSink SINK = new MetricSink() {
+    @Override
+    public void metric(final int metricId, final String fileName, final int line, final int value) {}
+  };
+
+  @After
+  public void unbind() {
+    Metrics.bind(null);
+  }
+
+  @Test
+  public void idsAreStable() {
+    final int first = Metrics.id("metrics-test-first");
+    final int second = Metrics.id("metrics-test-second");
+    assertNotEquals(first, second);
+    assertEquals(first, Metrics.id("metrics-test-first"));
+    assertEquals("metrics-test-first", Metrics.name(first));
+    assertEquals("metrics-test-second", Metrics.name(second));
+  }
+
+  @Test
+  public void bindsToTheCurrentThreadOnly() throws Exception {
+    assertNull(Metrics.sink());
+    Metrics.bind(SINK);
+    assertSame(SINK, Metrics.sink());
+
+    final AtomicReference<MetricSink> other = new AtomicReference<MetricSink>(SINK);
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        other.set(Metrics.sink());
+      }
+    });
+    thread.start();
+    thread.join();
+    assertNull(other.get());
+
+    Metrics.bind(null);
+    assertNull(Metrics.sink());
+  }
+}
@@ -0,0 +1,49 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+import edu.kit.checkstyle.checks.metrics.accumulators.BlockDepthAccumulator;
+import edu.kit.checkstyle.checks.metrics.accumulators.StatementCountAccumulator;
+
+
+/**
+ * Measures the block depth and statement count of methods nested up to
+ * 10,000 levels deep. The time per level stays the same for all depths if
+ * the evaluation is linear.
+ * <p>
+ * Run it with the test classpath, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.kit.checkstyle.checks.metrics.NestingBenchmark}.
+ */
+public final class NestingBenchmark {
+
+  private static final int[] DEPTHS = { 1250, 2500, 5000, 10000 };
+  private static final int WARMUP = 200;
+  private static final int RUNS = 50;
+
+  private NestingBenchmark() {}
+
+  public static void main(final String[] args) {
+    final SubtreeEvaluator depth =
+        new SubtreeEvaluator(new BlockDepthAccumulator(MaxNestedBlockDepthCheck.METRIC));
+    final SubtreeEvaluator statements =
+        new SubtreeEvaluator(new StatementCountAccumulator(NumberOfStatementsPerMethodCheck.METRIC));
+
+    for (final int levels : DEPTHS) {
+      final DetailAST method = SubtreeEvaluatorTest.nestedIfs(levels);
+      for (int i = 0; i < WARMUP; ++i) {
+        depth.evaluate(method);
+        statements.evaluate(method);
+      }
+
+      final long start = System.nanoTime();
+      int checksum = 0;
+      for (int i = 0; i < RUNS; ++i) {
+        checksum += depth.evaluate(method) + statements.evaluate(method);
+      }
+      final long nanos = (System.nanoTime() - start) / RUNS;
+      System.out.printf("depth %6d: %8.3f ms, %6.1f ns per level (checksum %d)%n",
+          levels, nanos / 1e6, (double) nanos / levels, checksum);
+    }
+  }
+}
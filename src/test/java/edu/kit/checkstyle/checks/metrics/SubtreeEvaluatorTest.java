@@ -0,0 +1,59 @@
+package edu.kit.checkstyle.checks.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.Utils;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+import edu.kit.checkstyle.checks.metrics.accumulators.BlockDepthAccumulator;
+import edu.kit.checkstyle.checks.metrics.accumulators.StatementCountAccumulator;
+
+public class SubtreeEvaluatorTest {
+
+  private static final int DEPTH = 10000;
+
+  /**
+   * Builds a method whose body nests the given number of if statements,
+   * every block containing one expression statement.
+   */
+  static DetailAST nestedIfs(final int depth) {
+    final DetailAST method = node(TokenTypes.METHOD_DEF);
+    DetailAST block = node(TokenTypes.SLIST);
+    method.addChild(block);
+    for (int i = 0; i < depth; ++i) {
+      final DetailAST ifAst = node(TokenTypes.LITERAL_IF);
+      final DetailAST inner = node(TokenTypes.SLIST);
+      block.addChild(node(TokenTypes.EXPR));
+      block.addChild(ifAst);
+      ifAst.addChild(node(TokenTypes.EXPR));
+      ifAst.addChild(inner);
+      block = inner;
+    }
+    block.addChild(node(TokenTypes.EXPR));
+    return method;
+  }
+
+  private static DetailAST node(final int type) {
+    final DetailAST ast = new DetailAST();
+    ast.initialize(type, Utils.getTokenName(type));
+    return ast;
+  }
+
+  @Test
+  public void deepNestingDepth() {
+    final SubtreeEvaluator evaluator =
+        new SubtreeEvaluator(new BlockDepthAccumulator(MaxNestedBlockDepthCheck.METRIC));
+    assertEquals(DEPTH, evaluator.evaluate(nestedIfs(DEPTH)));
+  }
+
+  @Test
+  public void deepNestingStatements() {
+    final SubtreeEvaluator evaluator =
+        new SubtreeEvaluator(new StatementCountAccumulator(NumberOfStatementsPerMethodCheck.METRIC));
+    assertEquals(DEPTH + 1, evaluator.evaluate(nestedIfs(DEPTH)));
+  }
+
+}
@@ -0,0 +1,141 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class DictionaryTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static Dictionary words() throws IOException {
+    return Dictionary.read(new StringReader("word\n  Spelling \nchecker\n\nword\na\n"));
+  }
+
+  private static void assertWords(final Dictionary dictionary) {
+    assertEquals(4, dictionary.size());
+    assertEquals("a", dictionary.word(0));
+    assertEquals("word", dictionary.word(3));
+
+    assertTrue(dictionary.contains("spelling"));
+    assertTrue(dictionary.contains("SpellingChecker", 0, 8));
+    assertTrue(dictionary.contains("SpellingChecker", 8, 15));
+    assertTrue(dictionary.contains(" a "));
+    assertFalse(dictionary.contains("SpellingChecker", 0, 7));
+    assertFalse(dictionary.contains("SpellingChecker"));
+    assertFalse(dictionary.contains("words"));
+    // the blank line
+    assertTrue(dictionary.containsEmptyWord());
+    assertTrue(dictionary.contains(""));
+    assertTrue(dictionary.contains("a  b", 1, 3));
+  }
+
+  @Test
+  public void readText() throws IOException {
+    assertWords(words());
+  }
+
+  @Test
+  public void mapBinary() throws IOException {
+    final File file = folder.newFile("words.bin");
+    words().write(file);
+    assertWords(Dictionary.map(file));
+    assertWords(Dictionary.load(file, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void empty() throws IOException {
+    final File file = folder.newFile("empty.bin");
+    Dictionary.of(Arrays.<String>asList()).write(file);
+    final Dictionary dictionary = Dictionary.map(file);
+    assertEquals(0, dictionary.size());
+    assertFalse(dictionary.contains("word"));
+    assertFalse(dictionary.contains(""));
+  }
+
+  @Test
+  public void emptyWordOnlyIfBlankWordIsRead() {
+    assertFalse(Dictionary.of(Arrays.asList("a", "b")).contains(""));
+    assertFalse(Dictionary.of(Arrays.asList("a", "b")).contains(" "));
+    final Dictionary dictionary = Dictionary.of(Arrays.asList("a", " ", "b"));
+    assertEquals(2, dictionary.size());
+    assertTrue(dictionary.contains(""));
+    assertTrue(dictionary.contains(" "));
+  }
+
+  @Test
+  public void sharedOncePerFile() throws IOException {
+    final File file = folder.newFile("words.bin");
+    words().write(file);
+    final Dictionary dictionary = Dictionary.shared(file, StandardCharsets.UTF_8);
+    assertSame(dictionary, Dictionary.shared(file, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void changedFileReplacesItsPreviousVersion() throws IOException {
+    final File file = folder.newFile("words.txt");
+    Files.write(file.toPath(), Arrays.asList("word"), StandardCharsets.UTF_8);
+    final long modified = file.lastModified();
+    final Dictionary first = Dictionary.shared(file, StandardCharsets.UTF_8);
+
+    Files.write(file.toPath(), Arrays.asList("word", "other"), StandardCharsets.UTF_8);
+    final Dictionary second = Dictionary.shared(file, StandardCharsets.UTF_8);
+    assertNotSame(first, second);
+    assertTrue(second.contains("other"));
+
+    // the first version was dropped, so restoring it loads the file again
+    Files.write(file.toPath(), Arrays.asList("word"), StandardCharsets.UTF_8);
+    assertTrue(file.setLastModified(modified));
+    assertNotSame(first, Dictionary.shared(file, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void sharedWords() {
+    final Dictionary dictionary = Dictionary.shared(mkSet("a", "b"));
+    assertSame(dictionary, Dictionary.shared(mkSet("b", "a")));
+  }
+
+  @Test(expected = IOException.class)
+  public void corrupt() throws IOException {
+    final File file = folder.newFile("words.bin");
+    words().write(file);
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.seek(file.length() - 1);
+      raf.write('x');
+    }
+    Dictionary.map(file);
+  }
+
+  @Test
+  public void missingResource() throws IOException {
+    assertNull(Dictionary.sharedResource("missing.dict.bin"));
+  }
+
+  @Test(expected = IOException.class)
+  public void truncated() throws IOException {
+    final File file = folder.newFile("words.bin");
+    words().write(file);
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(file.length() - 1);
+    }
+    Dictionary.map(file);
+  }
+}
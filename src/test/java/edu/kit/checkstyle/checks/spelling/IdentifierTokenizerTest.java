@@ -0,0 +1,95 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class IdentifierTokenizerTest {
+
+  private static final String CAMEL_CASE = "(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])";
+
+  private static final char[] ALPHABET = { 'a', 'B', 'c', 'D', '_', '1' };
+
+  private final IdentifierTokenizer tokenizer = new IdentifierTokenizer();
+
+  private List<String> words(final String identifier, final IdentifierTokenizer.Mode mode) {
+    final List<String> words = mkList();
+    tokenizer.reset(identifier, identifier.length(), mode);
+    while (tokenizer.next()) {
+      words.add(identifier.substring(tokenizer.start(), tokenizer.end()));
+    }
+    return words;
+  }
+
+  private void assertSplitLikeRegex(final String identifier) {
+    assertEquals(identifier, mkList(identifier.split(CAMEL_CASE)),
+        words(identifier, IdentifierTokenizer.Mode.CAMEL_CASE));
+    assertEquals(identifier, mkList(identifier.split("_")),
+        words(identifier, IdentifierTokenizer.Mode.UNDERSCORES));
+  }
+
+  @Test
+  public void examples() {
+    assertEquals(mkList("get", "XML", "Parser2"),
+        words("getXMLParser2", IdentifierTokenizer.Mode.CAMEL_CASE));
+    assertEquals(mkList("MAX", "VALUE"), words("MAX_VALUE", IdentifierTokenizer.Mode.UNDERSCORES));
+    assertEquals(mkList("", "name"), words("_name__", IdentifierTokenizer.Mode.UNDERSCORES));
+    assertEquals(mkList(), words("__", IdentifierTokenizer.Mode.UNDERSCORES));
+    assertEquals(mkList(""), words("", IdentifierTokenizer.Mode.UNDERSCORES));
+  }
+
+  @Test
+  public void allShortIdentifiersSplitLikeRegex() {
+    final StringBuilder identifier = new StringBuilder();
+    for (int length = 0; length <= 5; ++length) {
+      final int[] digits = new int[length];
+      do {
+        identifier.setLength(0);
+        for (final int digit : digits) {
+          identifier.append(ALPHABET[digit]);
+        }
+        assertSplitLikeRegex(identifier.toString());
+      } while (increment(digits));
+    }
+  }
+
+  /** Counts in base {@code ALPHABET.length}, returns false on overflow. */
+  private static boolean increment(final int[] digits) {
+    for (int i = 0; i < digits.length; ++i) {
+      digits[i] += 1;
+      if (digits[i] < ALPHABET.length) {
+        return true;
+      }
+      digits[i] = 0;
+    }
+    return false;
+  }
+
+  @Test
+  public void range() {
+    tokenizer.reset("my_tokenSet_", 3, 12, IdentifierTokenizer.Mode.UNDERSCORES);
+    assertEquals(true, tokenizer.next());
+    assertEquals(3, tokenizer.start());
+    assertEquals(11, tokenizer.end());
+    assertEquals(false, tokenizer.next());
+
+    tokenizer.reset("my_tokenSet_", 3, 11, IdentifierTokenizer.Mode.CAMEL_CASE);
+    assertEquals(true, tokenizer.next());
+    assertEquals(8, tokenizer.end());
+    assertEquals(true, tokenizer.next());
+    assertEquals(8, tokenizer.start());
+    assertEquals(11, tokenizer.end());
+    assertEquals(false, tokenizer.next());
+  }
+
+  @Test
+  public void trailingDigits() {
+    assertEquals(3, IdentifierTokenizer.withoutTrailingDigits("abc123"));
+    assertEquals(3, IdentifierTokenizer.withoutTrailingDigits("a1b2"));
+    assertEquals(2, IdentifierTokenizer.withoutTrailingDigits("a_"));
+  }
+}
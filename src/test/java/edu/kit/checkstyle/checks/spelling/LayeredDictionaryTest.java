@@ -0,0 +1,88 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class LayeredDictionaryTest {
+
+  private static final Dictionary ENGLISH = Dictionary.of(Arrays.asList("counter", "name"));
+  private static final Dictionary GERMAN = Dictionary.of(Arrays.asList("zaehler", "name"));
+
+  private static LayeredDictionary layered(final Dictionary... dictionaries) {
+    final List<LayeredDictionary.Layer> layers = mkList();
+    for (int i = 0; i < dictionaries.length; ++i) {
+      layers.add(new LayeredDictionary.Layer("layer" + i, dictionaries[i]));
+    }
+    return LayeredDictionary.shared(layers);
+  }
+
+  @Test
+  public void knownInAnyLayer() {
+    final LayeredDictionary dictionary = layered(ENGLISH, GERMAN, Dictionary.shared(mkSet("kit")));
+    assertTrue(dictionary.contains("Counter"));
+    assertTrue(dictionary.contains("getZaehler", 3, 10));
+    assertTrue(dictionary.contains("KIT"));
+    assertFalse(dictionary.contains("zahl"));
+    assertFalse(dictionary.contains(""));
+    assertEquals(4, dictionary.describe().size());
+  }
+
+  @Test
+  public void emptyWordKnownIfInAnyLayer() {
+    assertFalse(layered(ENGLISH, GERMAN).contains("FOO__BAR", 4, 4));
+    final LayeredDictionary dictionary = layered(ENGLISH, Dictionary.shared(mkSet("foo", "", "bar")));
+    assertTrue(dictionary.contains(""));
+    assertTrue(dictionary.contains("FOO__BAR", 4, 4));
+  }
+
+  @Test
+  public void sharedBySameLayers() {
+    assertSame(layered(ENGLISH, GERMAN), layered(ENGLISH, GERMAN));
+    assertSame(layered(Dictionary.shared(mkSet("a", "b"))), layered(Dictionary.shared(mkSet("b", "a"))));
+  }
+
+  @Test
+  public void filterHasNoFalseNegativesAndFewFalsePositives() {
+    final Random random = new Random(42);
+    final Set<String> words = mkSet();
+    while (words.size() < 20000) {
+      words.add(randomWord(random));
+    }
+    final LayeredDictionary dictionary = layered(Dictionary.of(words));
+    for (final String word : words) {
+      assertTrue(word, dictionary.contains(word));
+    }
+
+    int unknown = 0;
+    int passed = 0;
+    while (unknown < 20000) {
+      final String word = randomWord(random);
+      if (!words.contains(word)) {
+        unknown += 1;
+        if (dictionary.mayContain(word, 0, word.length())) {
+          passed += 1;
+        }
+      }
+    }
+    assertTrue("false positives: " + passed, passed < unknown / 50);
+  }
+
+  private static String randomWord(final Random random) {
+    final char[] word = new char[3 + random.nextInt(8)];
+    for (int i = 0; i < word.length; ++i) {
+      word[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(word);
+  }
+}
@@ -0,0 +1,139 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class MisspellingsTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static Misspellings of(final String... lines) throws IOException {
+    final StringBuilder text = new StringBuilder();
+    for (final String line : lines) {
+      text.append(line).append('\n');
+    }
+    return Misspellings.read(new StringReader(text.toString()));
+  }
+
+  private static List<String> find(final Misspellings misspellings, final String text) {
+    final List<String> found = mkList();
+    final Misspellings.Matcher matcher = misspellings.matcher();
+    matcher.reset(text);
+    while (matcher.find()) {
+      found.add(matcher.start() + ":" + text.substring(matcher.start(), matcher.end())
+          + "->" + matcher.correction());
+    }
+    return found;
+  }
+
+  @Test
+  public void readsList() throws IOException {
+    final Misspellings misspellings = of("# comment", "", "teh->the", "Recieve -> receive ", "abotu->about, abbot,",
+        "teh->tech", "wich");
+    assertEquals(4, misspellings.size());
+    assertEquals(Arrays.asList("0:teh->the", "4:RECIEVE->receive", "12:abotu->about, abbot", "18:Wich->"),
+        find(misspellings, "teh RECIEVE abotu Wich"));
+  }
+
+  @Test
+  public void findsWholeWordsOnly() throws IOException {
+    final Misspellings misspellings = of("teh->the", "tehre->there");
+    assertEquals(Arrays.asList("3:teh->the", "14:tehre->there"), find(misspellings, "// teh value, tehre."));
+    assertEquals(Arrays.<String>asList(), find(misspellings, "tehran steh teh_x teh2 tehr"));
+  }
+
+  @Test
+  public void findsOverlappingMisspellings() throws IOException {
+    final Misspellings misspellings = of("alot->a lot", "a lot of", "lot", "of teh", "teh->the");
+    assertEquals(Arrays.asList("0:alot->a lot", "8:lot->", "6:a lot of->", "12:of teh->", "15:teh->the"),
+        find(misspellings, "alot, a lot of teh"));
+  }
+
+  @Test
+  public void agreesWithNaiveSearch() throws IOException {
+    final Random random = new Random(42);
+    final List<String> lines = mkList();
+    for (int i = 0; i < 2000; ++i) {
+      lines.add(randomWord(random, 1 + random.nextInt(6)));
+    }
+    final Misspellings misspellings = of(lines.toArray(new String[lines.size()]));
+    final String text = randomWord(random, 20000).replace('e', ' ');
+    final Set<String> words = new HashSet<String>(lines);
+
+    int expected = 0;
+    for (int start = 0; start < text.length(); ++start) {
+      for (int end = start + 1; end <= Math.min(text.length(), start + 6); ++end) {
+        if ((start == 0 || text.charAt(start - 1) == ' ') && (end == text.length() || text.charAt(end) == ' ')
+            && words.contains(text.substring(start, end))) {
+          expected += 1;
+        }
+      }
+    }
+    assertTrue(expected > 100);
+    assertEquals(expected, find(misspellings, text).size());
+  }
+
+  @Test
+  public void escapesSeparateWords() throws IOException {
+    final Misspellings misspellings = of("teh->the");
+    assertEquals(Arrays.asList("3:teh->the", "11:teh->the", "21:teh->the", "27:teh->the"),
+        find(misspellings, Misspellings.maskEscapes("\"\\tteh \\011teh \\u0009teh \\\\teh\"")));
+    assertEquals("\"  a  b   c        d\"", Misspellings.maskEscapes("\"\\na\\\"b\\12c\\uuu0041d\""));
+    assertEquals("\"teh\"", Misspellings.maskEscapes("\"teh\""));
+  }
+
+  @Test
+  public void sharedByFile() throws IOException {
+    final File file = folder.newFile("misspellings.txt");
+    Files.write(file.toPath(), Arrays.asList("teh->the"), Charset.defaultCharset());
+    final Misspellings misspellings = Misspellings.shared(file, Charset.defaultCharset());
+    assertSame(misspellings, Misspellings.shared(file, Charset.defaultCharset()));
+    assertEquals(1, misspellings.size());
+    assertEquals(4, misspellings.states());
+  }
+
+  @Test
+  public void changedFileReplacesItsPreviousVersion() throws IOException {
+    final File file = folder.newFile("misspellings.txt");
+    Files.write(file.toPath(), Arrays.asList("teh->the"), Charset.defaultCharset());
+    final long modified = file.lastModified();
+    final Misspellings first = Misspellings.shared(file, Charset.defaultCharset());
+
+    Files.write(file.toPath(), Arrays.asList("teh->the", "recieve->receive"), Charset.defaultCharset());
+    final Misspellings second = Misspellings.shared(file, Charset.defaultCharset());
+    assertEquals(2, second.size());
+
+    // the old list is gone, the restored content is read anew
+    Files.write(file.toPath(), Arrays.asList("teh->the"), Charset.defaultCharset());
+    assertTrue(file.setLastModified(modified));
+    assertNotSame(first, Misspellings.shared(file, Charset.defaultCharset()));
+  }
+
+  private static String randomWord(final Random random, final int length) {
+    final char[] word = new char[length];
+    for (int i = 0; i < word.length; ++i) {
+      word[i] = (char) ('a' + random.nextInt(5));
+    }
+    return new String(word);
+  }
+}
@@ -0,0 +1,61 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class SuggestionIndexTest {
+
+  private static final Dictionary WORDS = Dictionary.of(Arrays.asList(
+      "name", "names", "game", "same", "receive", "receiver", "accommodation",
+      "parser", "parse", "counter", "count", "a", "an"));
+
+  private static List<String> suggest(final String word, final int max) {
+    return SuggestionIndex.suggest(mkList(SuggestionIndex.of(WORDS)), word, max);
+  }
+
+  @Test
+  public void closestFirst() {
+    assertEquals(mkList("names", "name"), suggest("nmaes", 3));
+    assertEquals(mkList("receive", "receiver"), suggest("recieve", 5));
+  }
+
+  @Test
+  public void twoEditsBeyondPrefix() {
+    assertEquals(mkList("accommodation"), suggest("acomodation", 3));
+    assertEquals(mkList("counter"), suggest("CONUTERR", 1));
+  }
+
+  @Test
+  public void fewerEditsForShortWords() {
+    assertEquals(mkList("name"), suggest("nme", 3));
+    assertTrue(suggest("nm", 3).isEmpty());
+  }
+
+  @Test
+  public void nothingTooFar() {
+    assertTrue(suggest("xyzzy", 3).isEmpty());
+    assertTrue(suggest("name", 3).contains("game"));
+    assertFalse(suggest("name", 3).contains("name"));
+  }
+
+  @Test
+  public void severalIndexes() {
+    final Dictionary more = Dictionary.of(Arrays.asList("nmae", "naem"));
+    assertEquals(mkList("naem", "name"),
+        SuggestionIndex.suggest(mkList(SuggestionIndex.of(WORDS), SuggestionIndex.of(more)), "nam", 2));
+  }
+
+  @Test
+  public void sharedOncePerDictionary() {
+    assertSame(SuggestionIndex.of(WORDS), SuggestionIndex.of(WORDS));
+  }
+}
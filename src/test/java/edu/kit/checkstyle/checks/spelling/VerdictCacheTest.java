@@ -0,0 +1,52 @@
+package edu.kit.checkstyle.checks.spelling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+
+public class VerdictCacheTest {
+
+  private final Dictionary dictionary = Dictionary.of(Arrays.asList("word"));
+
+  @Test
+  public void sharedBySameWords() {
+    final VerdictCache cache = VerdictCache.shared(10, Arrays.<Object>asList(dictionary, ImmutableSet.of("a")));
+    assertSame(cache, VerdictCache.shared(10, Arrays.<Object>asList(dictionary, ImmutableSet.of("a"))));
+    assertNotSame(cache, VerdictCache.shared(10, Arrays.<Object>asList(dictionary, ImmutableSet.of("b"))));
+    assertNotSame(cache, VerdictCache.shared(20, Arrays.<Object>asList(dictionary, ImmutableSet.of("a"))));
+  }
+
+  @Test
+  public void countsHitsAndEvictions() {
+    final VerdictCache cache = VerdictCache.shared(2, Arrays.<Object>asList(dictionary, "evictions"));
+    assertNull(cache.get("word"));
+    cache.put("word", true);
+    assertEquals(Boolean.TRUE, cache.get("word"));
+    cache.put("wrod", false);
+    cache.put("other", false);
+    cache.put("more", false);
+
+    final CacheStats stats = cache.stats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(1, stats.missCount());
+    assertEquals(2, stats.evictionCount());
+    assertEquals(2, cache.size());
+
+    // other caches count their own lookups
+    final VerdictCache other = VerdictCache.shared(2, Arrays.<Object>asList(dictionary, "other"));
+    assertNull(other.get("word"));
+    assertEquals(0, other.stats().hitCount());
+    assertEquals(1, other.stats().missCount());
+    assertEquals(1, cache.stats().missCount());
+    assertTrue(VerdictCache.all().contains(cache));
+  }
+}
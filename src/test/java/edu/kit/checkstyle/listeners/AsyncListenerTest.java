@@ -0,0 +1,131 @@
+package edu.kit.checkstyle.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class AsyncListenerTest {
+
+  private static final int FILES = 1000;
+
+  /** Records the events and can be slow or fail on a certain file. */
+  private static final class Recorder implements AuditListener {
+
+    final List<String> events = mkList();
+    String slowFile;
+    String failingFile;
+
+    @Override
+    public void auditStarted(final AuditEvent e) {
+      events.add("audit started");
+    }
+
+    @Override
+    public void auditFinished(final AuditEvent e) {
+      events.add("audit finished");
+    }
+
+    @Override
+    public void fileStarted(final AuditEvent e) {
+      if (e.getFileName().equals(slowFile)) {
+        try {
+          Thread.sleep(100);
+        } catch (final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (e.getFileName().equals(failingFile)) {
+        throw new IllegalArgumentException(failingFile);
+      }
+      events.add("started " + e.getFileName());
+    }
+
+    @Override
+    public void fileFinished(final AuditEvent e) {
+      events.add("finished " + e.getFileName());
+    }
+
+    @Override
+    public void addError(final AuditEvent e) {}
+
+    @Override
+    public void addException(final AuditEvent e, final Throwable throwable) {
+      events.add("exception " + throwable.getMessage());
+    }
+  }
+
+  /**
+   * Fires an audit of the given number of files.
+   *
+   * @return the events the wrapped listener should receive
+   */
+  private static List<String> fire(final AuditListener listener, final int files) {
+    final List<String> expected = mkList("audit started");
+    listener.auditStarted(new AuditEvent(listener));
+    for (int i = 0; i < files; ++i) {
+      final String file = "F" + i + ".java";
+      listener.fileStarted(new AuditEvent(listener, file));
+      listener.addException(new AuditEvent(listener, file), new IllegalStateException("e" + i));
+      listener.fileFinished(new AuditEvent(listener, file));
+      expected.add("started " + file);
+      expected.add("exception e" + i);
+      expected.add("finished " + file);
+    }
+    listener.auditFinished(new AuditEvent(listener));
+    expected.add("audit finished");
+    return expected;
+  }
+
+  @Test
+  public void deliversEveryEventInOrderBeforeTheAuditFinishes() {
+    final Recorder recorder = new Recorder();
+    final List<String> expected = fire(new AsyncListener(recorder), FILES);
+    assertEquals(expected, recorder.events);
+  }
+
+  @Test
+  public void wrapsAroundASmallBuffer() {
+    final Recorder recorder = new Recorder();
+    recorder.slowFile = "F1.java";
+    final AsyncListener listener = new AsyncListener(recorder);
+    // the buffer holds 4 events, so the checking thread has to wait for the consumer
+    listener.setBufferSize(3);
+    final List<String> expected = fire(listener, FILES);
+    assertEquals(expected, recorder.events);
+
+    // the buffer is reused by the next audit
+    recorder.events.clear();
+    recorder.slowFile = null;
+    assertEquals(fire(listener, 10), recorder.events);
+  }
+
+  @Test
+  public void throwsTheFailureOfTheWrappedListener() {
+    final Recorder recorder = new Recorder();
+    recorder.failingFile = "F2.java";
+    final AsyncListener listener = new AsyncListener(recorder);
+    listener.setBufferSize(2);
+    try {
+      fire(listener, 10);
+      fail();
+    } catch (final IllegalStateException e) {
+      assertSame(IllegalArgumentException.class, e.getCause().getClass());
+    }
+    // all later events were still delivered
+    assertEquals("audit finished", recorder.events.get(recorder.events.size() - 1));
+    assertEquals(10 * 3 - 1 + 2, recorder.events.size());
+
+    recorder.failingFile = null;
+    recorder.events.clear();
+    assertEquals(fire(listener, 10), recorder.events);
+  }
+}
@@ -0,0 +1,123 @@
+package edu.kit.checkstyle.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+import edu.kit.checkstyle.checks.metrics.Metrics;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class MetricListenerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static AuditEvent message(final MetricListener listener, final String file,
+      final SeverityLevel severity, final String text) {
+    return new AuditEvent(listener, file, new LocalizedMessage(1, 1, "edu.kit.checkstyle.checks.messages",
+        "metric", new Object[0], severity, null, MetricListenerTest.class, text));
+  }
+
+  /**
+   * Fires an audit of two files with the values of two metrics as messages
+   * and writes the output of the listener to a file.
+   *
+   * @return the written lines
+   */
+  private List<String> run(final MetricListener listener) throws Exception {
+    final File output = folder.newFile();
+    listener.setFile(output.getPath());
+    listener.auditStarted(new AuditEvent(listener));
+
+    listener.fileStarted(new AuditEvent(listener, "A.java"));
+    listener.addError(message(listener, "A.java", SeverityLevel.INFO, "metric:test-depth:3"));
+    listener.addError(message(listener, "A.java", SeverityLevel.INFO, "metric:test-count:7"));
+    listener.addError(message(listener, "A.java", SeverityLevel.INFO, "metric:test-depth:-1"));
+    listener.addError(message(listener, "A.java", SeverityLevel.INFO, "metric:test-depth:12"));
+    // neither errors nor other messages are metrics
+    listener.addError(message(listener, "A.java", SeverityLevel.ERROR, "metric:test-depth:100"));
+    listener.addError(message(listener, "A.java", SeverityLevel.INFO, "other:test-depth:100"));
+    listener.fileFinished(new AuditEvent(listener, "A.java"));
+
+    listener.fileStarted(new AuditEvent(listener, "B.java"));
+    listener.addError(message(listener, "B.java", SeverityLevel.INFO, "metric:test-depth:5"));
+    listener.fileFinished(new AuditEvent(listener, "B.java"));
+
+    listener.auditFinished(new AuditEvent(listener));
+    return Files.readAllLines(output.toPath(), Charsets.UTF_8);
+  }
+
+  /**
+   * @return the lines in the order of the metric ids
+   */
+  private static List<String> byId(final String depth, final String count) {
+    return Metrics.id("test-depth") < Metrics.id("test-count") ? mkList(depth, count) : mkList(count, depth);
+  }
+
+  @Test
+  public void writesRetainedValues() throws Exception {
+    final List<String> expected = byId("A.java:test-depth:[3, -1, 12]", "A.java:test-count:[7]");
+    expected.add("B.java:test-depth:[5]");
+    assertEquals(expected, run(new MetricListener()));
+  }
+
+  @Test
+  public void writesStatisticsOnly() throws Exception {
+    final MetricListener listener = new MetricListener();
+    listener.setRetainValues(false);
+    final List<String> expected = byId("A.java:test-depth:count=3,sum=14,min=-1,max=12",
+        "A.java:test-count:count=1,sum=7,min=7,max=7");
+    expected.add("B.java:test-depth:count=1,sum=5,min=5,max=5");
+    assertEquals(expected, run(listener));
+  }
+
+  @Test
+  public void retainsManyValues() throws Exception {
+    final MetricListener listener = new MetricListener();
+    final File output = folder.newFile();
+    listener.setFile(output.getPath());
+    listener.auditStarted(new AuditEvent(listener));
+    listener.fileStarted(new AuditEvent(listener, "A.java"));
+    final StringBuilder expected = new StringBuilder("A.java:test-many:[");
+    final int id = Metrics.id("test-many");
+    for (int i = 0; i < 100; ++i) {
+      listener.metric(id, "A.java", i, i);
+      expected.append(i == 0 ? "" : ", ").append(i);
+    }
+    listener.fileFinished(new AuditEvent(listener, "A.java"));
+    listener.auditFinished(new AuditEvent(listener));
+    assertEquals(mkList(expected.append(']').toString()), Files.readAllLines(output.toPath(), Charsets.UTF_8));
+  }
+
+  @Test
+  public void bindsItselfForTypedMetrics() throws Exception {
+    final MetricListener listener = new MetricListener();
+    listener.setTypedMetrics(true);
+    listener.setFile(folder.newFile().getPath());
+    listener.auditStarted(new AuditEvent(listener));
+    assertSame(listener, Metrics.sink());
+    listener.auditFinished(new AuditEvent(listener));
+    assertNull(Metrics.sink());
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void rejectsInvalidValues() throws Exception {
+    final MetricListener listener = new MetricListener();
+    listener.fileStarted(new AuditEvent(listener, "A.java"));
+    listener.addError(message(listener, "A.java", SeverityLevel.INFO, "metric:test-depth:3x"));
+  }
+}
@@ -0,0 +1,55 @@
+package edu.kit.checkstyle.listeners;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+public class QualifiedListenerTest {
+
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  private final PrintStream out = new PrintStream(new BufferedOutputStream(bytes, 1 << 16));
+
+  private String written() {
+    return new String(bytes.toByteArray(), Charsets.UTF_8);
+  }
+
+  /**
+   * Fires the events of a file with one message.
+   */
+  private static void fireFile(final QualifiedListener listener) {
+    final LocalizedMessage message = new LocalizedMessage(3, 7, "edu.kit.checkstyle.checks.messages",
+        "instanceof.usage", new Object[0], SeverityLevel.ERROR, null, QualifiedListenerTest.class, "used");
+    listener.fileStarted(new AuditEvent(listener, "A.java"));
+    listener.addError(new AuditEvent(listener, "A.java", message));
+    listener.fileFinished(new AuditEvent(listener, "A.java"));
+  }
+
+  @Test
+  public void flushesAtTheEndOfTheAudit() {
+    final QualifiedListener listener = new QualifiedListener(out);
+    listener.auditStarted(new AuditEvent(listener));
+    fireFile(listener);
+    assertEquals("", written());
+    listener.auditFinished(new AuditEvent(listener));
+    assertEquals(QualifiedListenerTest.class.getName() + ":A.java:3:7:used" + System.lineSeparator(),
+        written());
+  }
+
+  @Test
+  public void flushesEveryFileIfAsked() {
+    final QualifiedListener listener = new QualifiedListener(out, true);
+    listener.auditStarted(new AuditEvent(listener));
+    fireFile(listener);
+    assertEquals(QualifiedListenerTest.class.getName() + ":A.java:3:7:used" + System.lineSeparator(),
+        written());
+  }
+}
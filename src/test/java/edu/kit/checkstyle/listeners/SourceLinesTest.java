@@ -0,0 +1,78 @@
+package edu.kit.checkstyle.listeners;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Charsets;
+
+import static edu.kit.checkstyle.CollectionUtils.*;
+
+public class SourceLinesTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private List<String> lines(final String content) throws IOException {
+    final File file = folder.newFile();
+    Files.write(file.toPath(), content.getBytes(Charsets.UTF_8));
+    final SourceLines source = SourceLines.read(file, Charsets.UTF_8);
+    final List<String> lines = mkList();
+    for (int i = 1; i <= source.size(); ++i) {
+      lines.add(source.line(i));
+    }
+    return lines;
+  }
+
+  @Test
+  public void splitsAtEveryTerminator() throws Exception {
+    assertEquals(mkList("a", "b", "c", "d"), lines("a\nb\r\nc\rd\n"));
+  }
+
+  @Test
+  public void keepsEmptyLines() throws Exception {
+    assertEquals(mkList("", "a", "", ""), lines("\na\r\n\r\r\n"));
+    assertEquals(mkList("a", ""), lines("a\n\n"));
+  }
+
+  @Test
+  public void countsAnUnterminatedLastLine() throws Exception {
+    assertEquals(mkList("a", "b"), lines("a\r\nb"));
+    assertEquals(mkList("a", "b"), lines("a\rb"));
+  }
+
+  @Test
+  public void readsAnEmptyFile() throws Exception {
+    assertEquals(mkList(), lines(""));
+  }
+
+  @Test
+  public void decodesOnlyTheLine() throws Exception {
+    assertEquals(mkList("\u00e4", "\u00f6\u00df"), lines("\u00e4\r\n\u00f6\u00df"));
+  }
+
+  @Test
+  public void indexesManyLines() throws Exception {
+    final StringBuilder content = new StringBuilder();
+    final List<String> expected = mkList();
+    for (int i = 0; i < 1000; ++i) {
+      content.append(i).append(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\n" : "\r");
+      expected.add(String.valueOf(i));
+    }
+    assertEquals(expected, lines(content.toString()));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void rejectsLinesAfterTheEnd() throws Exception {
+    final File file = folder.newFile();
+    Files.write(file.toPath(), "a\n".getBytes(Charsets.UTF_8));
+    SourceLines.read(file, Charsets.UTF_8).line(2);
+  }
+}
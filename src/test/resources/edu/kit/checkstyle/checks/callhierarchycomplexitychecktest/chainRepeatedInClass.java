@@ -0,0 +1,46 @@
+package edu.kit.checkstyle.checks.callhierarchycomplexitychecktest;
+
+
+public class chainRepeatedInClass {
+
+  private A a = new A();
+
+  int first() {
+    return a.getB().getC().getValue1();
+  }
+
+  int second() {
+    return a.getB().getC().getValue2();
+  }
+
+  int third() {
+    print(a.getB().getC());
+    return a.getB().hashCode();
+  }
+
+  void print(final Object o) {
+    System.out.println(o);
+    System.out.println(o);
+  }
+}
+
+class A {
+  B getB() {
+    return new B();
+  }
+}
+
+class B {
+  C getC() {
+    return new C();
+  }
+}
+
+class C {
+  int getValue1() {
+    return 0;
+  }
+  int getValue2() {
+    return 0;
+  }
+}
@@ -0,0 +1,18 @@
+package edu.kit.checkstyle.checks.callhierarchycomplexitychecktest;
+
+
+public class chainRepeatedInOneMethod {
+
+  private A a = new A();
+
+  int first() {
+    System.out.println(a.getB().getC().getValue1());
+    System.out.println(a.getB().getC().getValue2());
+    System.out.println(a.getB().getC().getValue1());
+    return a.getB().getC().getValue2();
+  }
+
+  int second() {
+    return a.getB().hashCode();
+  }
+}
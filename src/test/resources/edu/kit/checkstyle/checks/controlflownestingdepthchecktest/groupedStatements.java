@@ -0,0 +1,51 @@
+package edu.kit.checkstyle.checks.controlflownestingdepthchecktest;
+
+public class groupedStatements {
+
+  public void elseIfChain(final int a) {
+    if (a == 0) {
+      return;
+    } else if (a == 1) {
+      return;
+    } else if (a == 2) {
+      while (a > 0) {
+        return;
+      }
+    } else {
+      return;
+    }
+  }
+
+  public void tryCatch(final int a) {
+    try {
+      return;
+    } catch (final IllegalStateException e) {
+      for (int i = 0; i < a; ++i) {
+        return;
+      }
+    } catch (final RuntimeException e) {
+      if (a == 0) {
+        switch (a) {
+          default:
+            return;
+        }
+      }
+    }
+  }
+
+  public void deep(final int a) {
+    for (int i = 0; i < a; ++i) {
+      while (a > 0) {
+        if (a == 1) {
+          return;
+        } else {
+          try {
+            return;
+          } catch (final RuntimeException e) {
+            return;
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package edu.kit.checkstyle.checks.discouragedmethodcallchecktest;
+
+import java.io.PrintStream;
+
+public class errorInFieldInitializer {
+
+  private final PrintStream out = System.out;
+
+  public static void main(String[] args) {
+    System.exit(0);
+  }
+}
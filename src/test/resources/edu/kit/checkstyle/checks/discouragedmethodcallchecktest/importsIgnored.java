@@ -0,0 +1,13 @@
+package edu.kit.checkstyle.checks.discouragedmethodcallchecktest;
+
+import static java.lang.System.in;
+import static java.lang.System.exit;
+import java.lang.Runtime.Version;
+
+public class importsIgnored {
+
+  public void test() {
+    exit(0);
+    System.in.toString();
+  }
+}
@@ -0,0 +1,15 @@
+package edu.kit.checkstyle.checks.discouragedmethodcallchecktest;
+
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+
+public class methodReferenceFound {
+
+  private final BinaryOperator<Integer> max = Math::max;
+  private final BinaryOperator<Integer> min = java.lang.Math::min;
+  private final IntConsumer exit = System::exit;
+
+  public static void main(final String[] args) {
+    final IntConsumer allowed = System::exit;
+  }
+}
@@ -0,0 +1,13 @@
+package edu.kit.checkstyle.checks.discouragedmethodcallchecktest;
+
+public class qualifiedAndWildcardFound {
+
+  public void test() {
+    java.lang.System.exit(0);
+    System.exit(0);
+    javax.lang.System.exit(0);
+    Runtime.getRuntime().gc();
+    java.lang.Runtime.getRuntime().halt(0);
+    System.out.println();
+  }
+}
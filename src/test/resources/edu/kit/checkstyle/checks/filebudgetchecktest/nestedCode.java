@@ -0,0 +1,18 @@
+package edu.kit.checkstyle.checks.filebudgetchecktest;
+
+public class nestedCode {
+
+  // a comment is not counted as a node
+  int m(final int x) {
+    if (x > 0) {
+      while (x > 1) {
+        for (int i = 0; i < x; ++i) {
+          if (i == x / 2) {
+            return i;
+          }
+        }
+      }
+    }
+    return 0;
+  }
+}
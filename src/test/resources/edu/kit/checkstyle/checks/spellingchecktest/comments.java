@@ -0,0 +1,11 @@
+package edu.kit.checkstyle.checks.spellingchecktest;
+
+/**
+ * Teh comments, wich are Javadoc.
+ */
+public class comments {
+
+  // recieve the value
+  private int value; /* wich value,
+     TEH value */
+}
@@ -0,0 +1,7 @@
+package edu.kit.checkstyle.checks.spellingchecktest;
+
+public class stringLiterals {
+
+  private String value = "teh value";
+  private String name = "\tteh\nname, wich";
+}
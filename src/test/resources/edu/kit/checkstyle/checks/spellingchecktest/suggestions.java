@@ -0,0 +1,16 @@
+package edu.kit.checkstyle.checks.spellingchecktest;
+
+public class suggestions {
+
+  private int nmae;
+  private int COUNTR;
+  private int nam;
+  private int NAM;
+
+  public int getNmae() {
+    return nmae;
+  }
+
+  public void getNAMValu() {
+  }
+}